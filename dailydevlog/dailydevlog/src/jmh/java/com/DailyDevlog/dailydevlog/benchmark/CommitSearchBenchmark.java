@@ -0,0 +1,154 @@
+package com.DailyDevlog.dailydevlog.benchmark;
+
+import com.DailyDevlog.dailydevlog.search.CommitIndex;
+import com.DailyDevlog.dailydevlog.search.CommitQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Commit search over a synthetic history: the inverted index against a scan of every message
+ * and path, which is what answering the same query from the stored commits amounts to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CommitSearchBenchmark {
+
+  private static final String[] VERBS = {"fix", "add", "update", "refactor", "remove", "revert", "document", "test"};
+  private static final String[] NOUNS = {"parser", "cache", "rate limiter", "webhook", "prompt", "sync", "bug",
+      "endpoint", "regression", "login", "stream", "metrics"};
+  private static final String[] DIRECTORIES = {"src/main/java/app/service/", "src/main/java/app/client/",
+      "src/main/java/app/controller/", "src/test/java/app/", "docs/"};
+
+  private static final Pattern ANY_OF = Pattern.compile("\\b(fix|bug|regression)\\b");
+
+  @Param({"10000", "100000"})
+  public int commitCount;
+
+  @Param({"fix|bug|regression", "fix path:src/main/java/app/client/", "regress* refactor|revert"})
+  public String query;
+
+  // The middle third of the history.
+  private Instant since;
+  private Instant until;
+
+  private CommitIndex index;
+  private CommitQuery parsedQuery;
+  private List<Commit> commits;
+
+  record Commit(String sha, long time, String message, List<String> paths) {
+  }
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    index = new CommitIndex();
+    commits = new ArrayList<>(commitCount);
+    for (int i = 0; i < commitCount; i++) {
+      String sha = String.format("%040x", i);
+      long time = 1_700_000_000L + i * 60L;
+      String message = VERBS[random.nextInt(VERBS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+          + " in " + NOUNS[random.nextInt(NOUNS.length)] + "\n\nIssue #" + random.nextInt(5000);
+      List<String> paths = List.of(
+          DIRECTORIES[random.nextInt(DIRECTORIES.length)] + "File" + random.nextInt(300) + ".java",
+          DIRECTORIES[random.nextInt(DIRECTORIES.length)] + "File" + random.nextInt(300) + ".java");
+      commits.add(new Commit(sha, time, message, paths));
+      index.addCommit(sha, Instant.ofEpochSecond(time), message);
+      index.addPaths(sha, paths);
+    }
+    parsedQuery = CommitQuery.parse(query);
+    since = Instant.ofEpochSecond(1_700_000_000L + commitCount / 3 * 60L);
+    until = Instant.ofEpochSecond(1_700_000_000L + commitCount * 2 / 3 * 60L);
+  }
+
+  @Benchmark
+  public List<CommitIndex.Hit> index() {
+    return index.search(parsedQuery, null, null, 50);
+  }
+
+  @Benchmark
+  public List<CommitIndex.Hit> indexInTimeRange() {
+    return index.search(parsedQuery, since, until, 50);
+  }
+
+  /**
+   * Evaluates the same parsed query against every commit, lower-casing and matching message
+   * words and paths on the fly.
+   */
+  @Benchmark
+  public List<Commit> linearScan() {
+    List<Commit> hits = new ArrayList<>();
+    for (Commit commit : commits) {
+      if (matches(commit)) {
+        hits.add(commit);
+      }
+    }
+    hits.sort(Comparator.comparingLong(Commit::time).reversed());
+    return hits.subList(0, Math.min(50, hits.size()));
+  }
+
+  /**
+   * The usual hand-written alternative for the first query: a regular expression over the messages.
+   */
+  @Benchmark
+  public long regexScan() {
+    long count = 0;
+    for (Commit commit : commits) {
+      if (ANY_OF.matcher(commit.message().toLowerCase(Locale.ROOT)).find()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private boolean matches(Commit commit) {
+    List<String> words = List.of(commit.message().toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"));
+    for (CommitQuery.Clause clause : parsedQuery.clauses()) {
+      boolean any = false;
+      for (List<CommitQuery.Term> alternative : clause.alternatives()) {
+        boolean all = true;
+        for (CommitQuery.Term term : alternative) {
+          all &= clause.path() ? matchesPath(commit.paths(), term) : matchesWord(words, term);
+        }
+        any |= all;
+      }
+      if (!any) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean matchesWord(List<String> words, CommitQuery.Term term) {
+    for (String word : words) {
+      if (term.prefix() ? word.startsWith(term.text()) : word.equals(term.text())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean matchesPath(List<String> paths, CommitQuery.Term term) {
+    for (String path : paths) {
+      if (path.toLowerCase(Locale.ROOT).startsWith(term.text())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,45 @@
+package com.DailyDevlog.dailydevlog.benchmark;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.service.AutoReviewService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The commit filter of the automatic code review: keeps the latest and the bug-related commits.
+ * Branches longer than the recorded page repeat its commits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CommitSelectionBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int commitCount;
+
+  private List<GitHubCommit> commits;
+
+  @Setup
+  public void setUp() {
+    List<GitHubCommit> page = Fixtures.list("commits.json", GitHubCommit.class);
+    commits = new ArrayList<>(commitCount);
+    for (int i = 0; i < commitCount; i++) {
+      commits.add(page.get(i % page.size()));
+    }
+  }
+
+  @Benchmark
+  public List<GitHubCommit> selectCommits() {
+    return AutoReviewService.selectCommits(commits);
+  }
+}
@@ -0,0 +1,52 @@
+package com.DailyDevlog.dailydevlog.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Loads the recorded GitHub responses under {@code fixtures/github} that drive the benchmarks.
+ */
+final class Fixtures {
+
+  // Configured like the mapper GitHubService parses responses with.
+  static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private Fixtures() {
+  }
+
+  /**
+   * Reads a recorded response body.
+   *
+   * @param name The fixture file name, e.g. "commits.json".
+   * @return The raw response bytes.
+   */
+  static byte[] bytes(String name) {
+    try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/github/" + name)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing fixture " + name);
+      }
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Parses a recorded JSON array.
+   *
+   * @param name The fixture file name.
+   * @param type The element type.
+   * @return The parsed elements.
+   */
+  static <T> List<T> list(String name, Class<T> type) {
+    try {
+      return MAPPER.readerForListOf(type).readValue(bytes(name));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
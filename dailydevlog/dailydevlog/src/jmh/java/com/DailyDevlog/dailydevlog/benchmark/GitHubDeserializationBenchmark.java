@@ -0,0 +1,71 @@
+package com.DailyDevlog.dailydevlog.benchmark;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds recorded GitHub responses to the model records, the way GitHubService reads them:
+ * commit pages element by element, commit details as a single document.
+ * The commit page is also read as a generic Map tree, the way it was read before the records existed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class GitHubDeserializationBenchmark {
+
+  private byte[] commitPage;
+  private byte[] commitDetail;
+  private byte[] commitDetails;
+  private ObjectReader commitReader;
+  private ObjectReader detailReader;
+  private ObjectReader detailListReader;
+
+  @Setup
+  public void setUp() {
+    commitPage = Fixtures.bytes("commits.json"); // 100 commits
+    commitDetail = Fixtures.bytes("commit-detail.json");
+    commitDetails = Fixtures.bytes("commit-details-large.json"); // 20 commits with large patches
+    commitReader = Fixtures.MAPPER.readerFor(GitHubCommit.class);
+    detailReader = Fixtures.MAPPER.readerFor(GitHubCommitDetail.class);
+    detailListReader = Fixtures.MAPPER.readerForListOf(GitHubCommitDetail.class);
+  }
+
+  @Benchmark
+  public void commitList(Blackhole blackhole) throws IOException {
+    try (MappingIterator<GitHubCommit> iterator = commitReader.readValues(commitPage)) {
+      while (iterator.hasNext()) {
+        blackhole.consume(iterator.next());
+      }
+    }
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> commitListAsMaps() throws IOException {
+    return Fixtures.MAPPER.readerForListOf(Map.class).readValue(commitPage);
+  }
+
+  @Benchmark
+  public GitHubCommitDetail commitDetail() throws IOException {
+    return detailReader.readValue(commitDetail);
+  }
+
+  @Benchmark
+  public List<GitHubCommitDetail> largeCommitDetails() throws IOException {
+    return detailListReader.readValue(commitDetails);
+  }
+}
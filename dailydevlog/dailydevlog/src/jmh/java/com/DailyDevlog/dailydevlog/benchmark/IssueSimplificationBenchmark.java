@@ -0,0 +1,57 @@
+package com.DailyDevlog.dailydevlog.benchmark;
+
+import com.DailyDevlog.dailydevlog.model.GitHubIssue;
+import com.DailyDevlog.dailydevlog.model.IssueSummary;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The issue listing of getRepositoryIssues: binds a recorded page of 50 issues,
+ * maps them to the simplified view and writes the response body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class IssueSimplificationBenchmark {
+
+  private byte[] issuePage;
+  private ObjectReader issueReader;
+  private ObjectWriter summaryWriter;
+
+  @Setup
+  public void setUp() {
+    issuePage = Fixtures.bytes("issues.json");
+    issueReader = Fixtures.MAPPER.readerFor(GitHubIssue.class);
+    summaryWriter = Fixtures.MAPPER.writerFor(Fixtures.MAPPER.getTypeFactory()
+        .constructCollectionType(List.class, IssueSummary.class));
+  }
+
+  @Benchmark
+  public List<IssueSummary> simplify() throws IOException {
+    List<IssueSummary> simplifiedIssues = new ArrayList<>();
+    try (MappingIterator<GitHubIssue> iterator = issueReader.readValues(issuePage)) {
+      while (iterator.hasNext()) {
+        simplifiedIssues.add(IssueSummary.from(iterator.next()));
+      }
+    }
+    return simplifiedIssues;
+  }
+
+  @Benchmark
+  public byte[] simplifyAndWrite() throws IOException {
+    return summaryWriter.writeValueAsBytes(simplify());
+  }
+}
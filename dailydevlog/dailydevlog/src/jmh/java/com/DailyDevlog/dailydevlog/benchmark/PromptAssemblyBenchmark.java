@@ -0,0 +1,50 @@
+package com.DailyDevlog.dailydevlog.benchmark;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.DailyDevlog.dailydevlog.prompt.PromptBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembles the review prompt from the 20 recorded commit details:
+ * diff compaction, token estimation and packing within the budget.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PromptAssemblyBenchmark {
+
+  @Param({"3000", "12000"})
+  public int budgetTokens;
+
+  private PromptBuilder promptBuilder;
+  private List<String> messages;
+  private List<GitHubCommitFile> files;
+
+  @Setup
+  public void setUp() {
+    promptBuilder = new PromptBuilder(budgetTokens, 1);
+    messages = new ArrayList<>();
+    files = new ArrayList<>();
+    for (GitHubCommitDetail detail : Fixtures.list("commit-details-large.json", GitHubCommitDetail.class)) {
+      messages.add(detail.commit().message());
+      files.addAll(detail.files());
+    }
+  }
+
+  @Benchmark
+  public PromptBuilder.ReviewPrompt build() {
+    return promptBuilder.build(messages, files);
+  }
+}
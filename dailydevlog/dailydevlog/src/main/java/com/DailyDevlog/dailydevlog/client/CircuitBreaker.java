@@ -0,0 +1,88 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A circuit breaker over the calls to one upstream service.
+ * <ul>
+ *   <li>CLOSED: calls go through; {@code failureThreshold} failures in a row open the circuit.</li>
+ *   <li>OPEN: calls are refused at once for {@code openMillis}, so callers don't wait on a service
+ *       that is down.</li>
+ *   <li>HALF_OPEN: a single trial call goes through; its success closes the circuit,
+ *       its failure opens it again.</li>
+ * </ul>
+ */
+public class CircuitBreaker {
+
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final int failureThreshold;
+  private final long openNanos;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAt;
+  private boolean trialInFlight;
+
+  public CircuitBreaker(int failureThreshold, long openMillis) {
+    this.failureThreshold = Math.max(1, failureThreshold);
+    this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+  }
+
+  /**
+   * Returns whether a call may go through now. A caller that is allowed through must report
+   * the outcome with {@link #onSuccess()}, {@link #onFailure()} or {@link #onAbandoned()}.
+   */
+  public synchronized boolean tryAcquire() {
+    if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+      state = State.HALF_OPEN;
+    }
+    return switch (state) {
+      case CLOSED -> true;
+      case OPEN -> false;
+      case HALF_OPEN -> {
+        if (trialInFlight) {
+          yield false;
+        }
+        trialInFlight = true;
+        yield true;
+      }
+    };
+  }
+
+  /**
+   * Reports a call the upstream answered, including with a client error.
+   */
+  public synchronized void onSuccess() {
+    consecutiveFailures = 0;
+    trialInFlight = false;
+    state = State.CLOSED;
+  }
+
+  /**
+   * Reports a call that failed for the upstream's sake: a timeout, connection error or 5xx/429 response.
+   */
+  public synchronized void onFailure() {
+    trialInFlight = false;
+    consecutiveFailures++;
+    if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+      state = State.OPEN;
+      openedAt = System.nanoTime();
+    }
+  }
+
+  /**
+   * Reports a call that was let through but never reached the upstream.
+   */
+  public synchronized void onAbandoned() {
+    // A half-open circuit lets the next call make the trial instead.
+    trialInFlight = false;
+  }
+
+  public synchronized State state() {
+    if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+      return State.HALF_OPEN;
+    }
+    return state;
+  }
+}
@@ -0,0 +1,345 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import com.DailyDevlog.dailydevlog.client.GitHubRequestContext.Priority;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * GitHubRateLimiter schedules every GitHub API call against the quota GitHub reports in its
+ * X-RateLimit-* headers. Quotas are tracked separately for the application's credentials and
+ * for each user access token.
+ * <ul>
+ *   <li>Once less than {@code pace-below} of a quota is left, calls are spread evenly over the
+ *       time until the quota resets instead of running it dry.</li>
+ *   <li>Background calls wait while interactive calls are waiting on the same quota,
+ *       and leave the last {@code background-reserve} of it to interactive calls.</li>
+ *   <li>Secondary rate limit responses (403/429 with Retry-After, or an exhausted quota) are
+ *       retried after the indicated delay, or with exponential backoff.</li>
+ * </ul>
+ * A call that would have to wait longer than its maximum wait fails with 429 Too Many Requests.
+ */
+@Component // Registers this scheduler as a Spring-managed bean.
+public class GitHubRateLimiter implements MeterBinder {
+
+  // Quota key of calls made with the application's own credentials.
+  public static final String APP_QUOTA = "app";
+
+  // How often a background call re-checks whether interactive calls are still waiting.
+  private static final long BACKGROUND_POLL_MILLIS = 50;
+
+  private final double paceBelow;
+  private final double backgroundReserve;
+  private final long maxWaitMillis;
+  private final long backgroundMaxWaitMillis;
+  private final int maxRetries;
+  private final long backoffMillis;
+
+  private final Map<String, Quota> quotas = new ConcurrentHashMap<>();
+
+  private final AtomicLong delayed = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+
+  @Autowired
+  public GitHubRateLimiter(
+      @Value("${github.rate-limit.pace-below:0.5}") double paceBelow,
+      @Value("${github.rate-limit.background-reserve:0.1}") double backgroundReserve,
+      @Value("${github.rate-limit.max-wait-ms:30000}") long maxWaitMillis,
+      @Value("${github.rate-limit.background-max-wait-ms:900000}") long backgroundMaxWaitMillis,
+      @Value("${github.rate-limit.max-retries:3}") int maxRetries,
+      @Value("${github.rate-limit.backoff-ms:1000}") long backoffMillis
+  ) {
+    this.paceBelow = paceBelow;
+    this.backgroundReserve = backgroundReserve;
+    this.maxWaitMillis = maxWaitMillis;
+    this.backgroundMaxWaitMillis = backgroundMaxWaitMillis;
+    this.maxRetries = maxRetries;
+    this.backoffMillis = backoffMillis;
+  }
+
+  /**
+   * Returns the quota a call with the given Authorization header is charged to.
+   * Tokens are identified by a hash so that they are never kept in memory in clear text.
+   *
+   * @param authorization The Authorization header of the call, or null for the application's credentials.
+   * @return The quota key.
+   */
+  public static String quotaKey(String authorization) {
+    if (authorization == null || authorization.isBlank()) {
+      return APP_QUOTA;
+    }
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(authorization.getBytes(StandardCharsets.UTF_8));
+      return "token:" + HexFormat.of().formatHex(digest, 0, 8);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Performs a GitHub call under the quota's schedule, records the quota reported by the response,
+   * and retries rate-limited responses.
+   *
+   * @param quotaKey The quota the call is charged to.
+   * @param priority The priority of the call.
+   * @param call The HTTP call.
+   * @return The response of the first attempt that was not rate limited.
+   */
+  public <T> ResponseEntity<T> execute(String quotaKey, Priority priority, Supplier<ResponseEntity<T>> call) {
+    for (int attempt = 0; ; attempt++) {
+      acquire(quotaKey, priority);
+      try {
+        ResponseEntity<T> response = call.get();
+        update(quotaKey, response.getHeaders());
+        return response;
+      } catch (HttpStatusCodeException e) {
+        update(quotaKey, e.getResponseHeaders());
+        if (!isRateLimited(e) || attempt >= maxRetries) {
+          throw e;
+        }
+        backoff(quotaKey, e.getResponseHeaders(), attempt);
+      }
+    }
+  }
+
+  /**
+   * Waits until the quota allows another call of the given priority.
+   *
+   * @param quotaKey The quota the call is charged to.
+   * @param priority The priority of the call.
+   * @throws ResponseStatusException 429 if the call would have to wait longer than its maximum wait.
+   */
+  public void acquire(String quotaKey, Priority priority) {
+    Quota quota = quotas.computeIfAbsent(quotaKey, key -> new Quota());
+    boolean interactive = priority == Priority.INTERACTIVE;
+    long deadline = System.currentTimeMillis() + (interactive ? maxWaitMillis : backgroundMaxWaitMillis);
+    boolean waited = false;
+
+    synchronized (quota) {
+      if (interactive) {
+        quota.waitingInteractive++;
+      }
+      try {
+        while (true) {
+          long now = System.currentTimeMillis();
+          long readyAt = readyAt(quota, priority, now);
+          if (readyAt <= now) {
+            grant(quota, now);
+            return;
+          }
+          if (readyAt > deadline) {
+            rejected.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "GitHub rate limit reached, retry after " + Instant.ofEpochMilli(readyAt));
+          }
+          if (!waited) {
+            delayed.incrementAndGet();
+            waited = true;
+          }
+          quota.wait(readyAt - now);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the GitHub rate limit", e);
+      } finally {
+        if (interactive) {
+          quota.waitingInteractive--;
+          quota.notifyAll(); // Lets waiting background calls re-check.
+        }
+      }
+    }
+  }
+
+  /**
+   * Records the quota reported in a response's X-RateLimit-* headers.
+   *
+   * @param quotaKey The quota the call was charged to.
+   * @param headers The response headers; may be null.
+   */
+  public void update(String quotaKey, HttpHeaders headers) {
+    if (headers == null) {
+      return;
+    }
+    long limit = parseLong(headers.getFirst("X-RateLimit-Limit"));
+    long remaining = parseLong(headers.getFirst("X-RateLimit-Remaining"));
+    long reset = parseLong(headers.getFirst("X-RateLimit-Reset"));
+    if (remaining < 0 || reset < 0) {
+      return;
+    }
+
+    Quota quota = quotas.computeIfAbsent(quotaKey, key -> new Quota());
+    synchronized (quota) {
+      long resetAtMillis = reset * 1000;
+      if (resetAtMillis == quota.resetAtMillis && quota.remaining >= 0) {
+        // Responses of concurrent calls arrive in any order; the lowest count is the latest.
+        quota.remaining = Math.min(quota.remaining, remaining);
+      } else {
+        quota.remaining = remaining;
+      }
+      quota.limit = limit > 0 ? limit : quota.limit;
+      quota.resetAtMillis = resetAtMillis;
+      quota.notifyAll();
+    }
+  }
+
+  /**
+   * Holds back all calls of a quota after a rate-limited response: for the Retry-After delay,
+   * until the quota resets if it is exhausted, or for an exponentially growing backoff otherwise.
+   *
+   * @param quotaKey The quota the call was charged to.
+   * @param headers The headers of the rate-limited response; may be null.
+   * @param attempt The number of attempts already made, starting at 0.
+   * @return The delay in milliseconds.
+   */
+  public long backoff(String quotaKey, HttpHeaders headers, int attempt) {
+    long now = System.currentTimeMillis();
+    long delay;
+    long retryAfter = headers != null ? parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER)) : -1;
+    long reset = headers != null ? parseLong(headers.getFirst("X-RateLimit-Reset")) : -1;
+    if (retryAfter >= 0) {
+      delay = retryAfter * 1000;
+    } else if (headers != null && "0".equals(headers.getFirst("X-RateLimit-Remaining")) && reset > 0) {
+      delay = Math.max(0, reset * 1000 - now);
+    } else {
+      delay = (backoffMillis << Math.min(attempt, 10)) + ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+    }
+
+    retries.incrementAndGet();
+    Quota quota = quotas.computeIfAbsent(quotaKey, key -> new Quota());
+    synchronized (quota) {
+      quota.blockedUntilMillis = Math.max(quota.blockedUntilMillis, now + delay);
+      quota.notifyAll();
+    }
+    return delay;
+  }
+
+  /**
+   * Returns whether GitHub rejected a call because of a primary or secondary rate limit,
+   * as opposed to a missing permission.
+   */
+  public static boolean isRateLimited(HttpStatusCodeException e) {
+    int status = e.getStatusCode().value();
+    if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+      return true;
+    }
+    if (status != HttpStatus.FORBIDDEN.value()) {
+      return false;
+    }
+    HttpHeaders headers = e.getResponseHeaders();
+    return (headers != null && (headers.getFirst(HttpHeaders.RETRY_AFTER) != null
+        || "0".equals(headers.getFirst("X-RateLimit-Remaining"))))
+        || e.getResponseBodyAsString().toLowerCase().contains("rate limit");
+  }
+
+  // Earliest time at which a call of the given priority may start.
+  private long readyAt(Quota quota, Priority priority, long now) {
+    long readyAt = Math.max(quota.blockedUntilMillis, quota.nextSlotMillis);
+    boolean known = quota.remaining >= 0 && quota.resetAtMillis > now;
+    if (known && quota.remaining == 0) {
+      readyAt = Math.max(readyAt, quota.resetAtMillis);
+    }
+    if (priority == Priority.BACKGROUND) {
+      if (known && quota.limit > 0 && quota.remaining <= quota.limit * backgroundReserve) {
+        readyAt = Math.max(readyAt, quota.resetAtMillis);
+      }
+      if (quota.waitingInteractive > 0) {
+        readyAt = Math.max(readyAt, now + BACKGROUND_POLL_MILLIS);
+      }
+    }
+    return readyAt;
+  }
+
+  // Charges one call to the quota and schedules the next slot.
+  private void grant(Quota quota, long now) {
+    if (quota.resetAtMillis <= now) {
+      quota.remaining = -1; // The window has reset; the next response reports the new quota.
+    }
+    if (quota.remaining > 0) {
+      quota.remaining--;
+    }
+    long interval = 0;
+    if (quota.remaining >= 0 && quota.limit > 0 && quota.remaining < quota.limit * paceBelow) {
+      interval = (quota.resetAtMillis - now) / Math.max(1, quota.remaining);
+    }
+    quota.nextSlotMillis = now + interval;
+  }
+
+  private static long parseLong(String value) {
+    if (value == null) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      return -1; // e.g. a Retry-After given as an HTTP date.
+    }
+  }
+
+  /**
+   * Returns the remaining calls last reported for a quota, or -1 if unknown.
+   */
+  public long remaining(String quotaKey) {
+    Quota quota = quotas.get(quotaKey);
+    if (quota == null) {
+      return -1;
+    }
+    synchronized (quota) {
+      return quota.remaining;
+    }
+  }
+
+  public long delayedCount() {
+    return delayed.get();
+  }
+
+  public long retryCount() {
+    return retries.get();
+  }
+
+  public long rejectedCount() {
+    return rejected.get();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("github.ratelimit.delayed", this, GitHubRateLimiter::delayedCount)
+        .register(registry);
+    FunctionCounter.builder("github.ratelimit.retries", this, GitHubRateLimiter::retryCount)
+        .register(registry);
+    FunctionCounter.builder("github.ratelimit.rejected", this, GitHubRateLimiter::rejectedCount)
+        .register(registry);
+    Gauge.builder("github.ratelimit.remaining", this, limiter -> limiter.remaining(APP_QUOTA))
+        .tag("quota", APP_QUOTA).register(registry);
+  }
+
+  // Quota state of one set of credentials; guarded by its own monitor.
+  private static final class Quota {
+    long limit = -1;
+    long remaining = -1;
+    long resetAtMillis;
+    long blockedUntilMillis;
+    long nextSlotMillis;
+    int waitingInteractive;
+  }
+}
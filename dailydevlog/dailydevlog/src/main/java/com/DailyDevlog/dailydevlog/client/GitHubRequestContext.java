@@ -0,0 +1,79 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import java.util.function.Supplier;
+
+/**
+ * Who a GitHub call is made for and how urgent it is.
+ * The context is bound to the calling thread, so that the rate limiter can charge the right
+ * quota and let interactive requests go ahead of background work without every service method
+ * taking extra parameters. Code that hands GitHub calls to other threads captures the
+ * context with {@link #current()} and re-binds it there.
+ *
+ * @param authorization The Authorization header of the user the call is made for,
+ *                      or null to use the application's own credentials.
+ * @param priority Whether a user is waiting for the result.
+ */
+public record GitHubRequestContext(String authorization, Priority priority) {
+
+  /**
+   * Interactive requests are served first; background requests (e.g. repository sync)
+   * yield to them and leave part of the quota untouched.
+   */
+  public enum Priority { INTERACTIVE, BACKGROUND }
+
+  private static final GitHubRequestContext DEFAULT = new GitHubRequestContext(null, Priority.INTERACTIVE);
+
+  private static final ThreadLocal<GitHubRequestContext> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Returns the context bound to the current thread; application credentials and interactive priority by default.
+   */
+  public static GitHubRequestContext current() {
+    GitHubRequestContext context = CURRENT.get();
+    return context != null ? context : DEFAULT;
+  }
+
+  /**
+   * Returns the current context with background priority.
+   */
+  public static GitHubRequestContext background() {
+    return new GitHubRequestContext(current().authorization(), Priority.BACKGROUND);
+  }
+
+  /**
+   * Returns the current context acting for the user with the given Authorization header.
+   */
+  public static GitHubRequestContext withAuthorization(String authorization) {
+    return new GitHubRequestContext(authorization, current().priority());
+  }
+
+  /**
+   * Runs the action with this context bound to the current thread, restoring the previous one afterwards.
+   *
+   * @param action The work that makes GitHub calls.
+   * @return The action's result.
+   */
+  public <T> T call(Supplier<T> action) {
+    GitHubRequestContext previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return action.get();
+    } finally {
+      if (previous != null) {
+        CURRENT.set(previous);
+      } else {
+        CURRENT.remove();
+      }
+    }
+  }
+
+  /**
+   * Runs the action with this context bound to the current thread.
+   */
+  public void run(Runnable action) {
+    call(() -> {
+      action.run();
+      return null;
+    });
+  }
+}
@@ -0,0 +1,186 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * GitHubResponseCache keeps recent GitHub API response bodies together with their
+ * ETag / Last-Modified validators, so that repeated reads can be sent as conditional
+ * requests (a 304 does not count against the rate limit) or, for immutable resources
+ * such as a commit looked up by SHA, be served straight from memory.
+ * Entries are evicted least-recently-used first once the total body size exceeds the limit.
+ */
+@Component // Registers this cache as a Spring-managed bean.
+public class GitHubResponseCache implements MeterBinder {
+
+  /**
+   * A cached response body and the validators needed to revalidate it.
+   *
+   * @param body The raw response body.
+   * @param etag The ETag header of the response, if any.
+   * @param lastModified The Last-Modified header of the response, if any.
+   * @param link The Link header of the response, used for pagination.
+   * @param immutable Whether the resource can never change and needs no revalidation.
+   */
+  public record CachedResponse(byte[] body, String etag, String lastModified, String link,
+      boolean immutable) {
+
+    long sizeInBytes() {
+      return body.length
+          + (etag != null ? etag.length() : 0)
+          + (lastModified != null ? lastModified.length() : 0)
+          + (link != null ? link.length() : 0);
+    }
+  }
+
+  private final long maxBytes;
+
+  // Access-ordered map, so iteration starts at the least recently used entry.
+  private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long currentBytes;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong revalidations = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public GitHubResponseCache(@Value("${github.cache.max-bytes:16777216}") long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Looks up a cached response without recording a hit or miss.
+   *
+   * @param key The cache key, normally the request URL.
+   * @return The cached response, or null if none is stored.
+   */
+  public synchronized CachedResponse get(String key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Stores a response, evicting least recently used entries until the cache fits its byte limit.
+   * Responses larger than the whole cache are not stored.
+   *
+   * @param key The cache key, normally the request URL.
+   * @param response The response to store.
+   */
+  public synchronized void put(String key, CachedResponse response) {
+    long size = key.length() + response.sizeInBytes();
+    if (size > maxBytes) {
+      return;
+    }
+
+    CachedResponse previous = entries.put(key, response);
+    if (previous != null) {
+      currentBytes -= key.length() + previous.sizeInBytes();
+    }
+    currentBytes += size;
+
+    Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+    while (currentBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<String, CachedResponse> eldest = iterator.next();
+      currentBytes -= eldest.getKey().length() + eldest.getValue().sizeInBytes();
+      iterator.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  /**
+   * Removes a single entry.
+   *
+   * @param key The cache key to remove.
+   */
+  public synchronized void invalidate(String key) {
+    CachedResponse removed = entries.remove(key);
+    if (removed != null) {
+      currentBytes -= key.length() + removed.sizeInBytes();
+    }
+  }
+
+  /**
+   * Removes the entries of resources that can change, such as listings, whose key matches.
+   * Immutable entries are kept.
+   *
+   * @param keyFilter Selects the cache keys to remove.
+   * @return The number of removed entries.
+   */
+  public synchronized int invalidateMutable(Predicate<String> keyFilter) {
+    int removed = 0;
+    Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, CachedResponse> entry = iterator.next();
+      if (!entry.getValue().immutable() && keyFilter.test(entry.getKey())) {
+        currentBytes -= entry.getKey().length() + entry.getValue().sizeInBytes();
+        iterator.remove();
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  // Served from memory without contacting GitHub.
+  public void recordHit() {
+    hits.incrementAndGet();
+  }
+
+  // Fetched with a full 200 response.
+  public void recordMiss() {
+    misses.incrementAndGet();
+  }
+
+  // Revalidated by GitHub with a 304 Not Modified.
+  public void recordRevalidation() {
+    revalidations.incrementAndGet();
+  }
+
+  public long hitCount() {
+    return hits.get();
+  }
+
+  public long missCount() {
+    return misses.get();
+  }
+
+  public long revalidationCount() {
+    return revalidations.get();
+  }
+
+  public long evictionCount() {
+    return evictions.get();
+  }
+
+  public synchronized long sizeInBytes() {
+    return currentBytes;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("github.cache.requests", this, GitHubResponseCache::hitCount)
+        .tag("result", "hit").register(registry);
+    FunctionCounter.builder("github.cache.requests", this, GitHubResponseCache::missCount)
+        .tag("result", "miss").register(registry);
+    FunctionCounter.builder("github.cache.requests", this, GitHubResponseCache::revalidationCount)
+        .tag("result", "revalidated").register(registry);
+    FunctionCounter.builder("github.cache.evictions", this, GitHubResponseCache::evictionCount)
+        .register(registry);
+    Gauge.builder("github.cache.size", this, GitHubResponseCache::sizeInBytes)
+        .baseUnit("bytes").register(registry);
+    Gauge.builder("github.cache.entries", this, GitHubResponseCache::size)
+        .register(registry);
+  }
+}
@@ -0,0 +1,226 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenAiBulkhead isolates the OpenAI calls from the rest of the application, so that a slow or
+ * failing OpenAI can't tie up the request threads that serve unrelated endpoints.
+ * <ul>
+ *   <li>Calls run on a dedicated pool and the caller waits at most {@code call-timeout-ms}.</li>
+ *   <li>At most {@code limit} calls run at once. The limit adapts to OpenAI's latency (AIMD):
+ *       it grows by one for every {@code limit} calls that succeed faster than {@code slow-call-ms},
+ *       and is cut by {@code backoff-ratio} on every slow, timed-out or failed call.</li>
+ *   <li>A caller waits at most {@code max-wait-ms} for a free slot.</li>
+ *   <li>A {@link CircuitBreaker} refuses calls for a while after repeated failures.</li>
+ * </ul>
+ * Refused calls fail with 503 Service Unavailable and timed-out calls with 504 Gateway Timeout,
+ * so callers can fall back without waiting.
+ */
+@Component // Registers this bulkhead as a Spring-managed bean.
+public class OpenAiBulkhead implements MeterBinder {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final long slowCallNanos;
+  private final long callTimeoutMillis;
+  private final long maxWaitMillis;
+
+  private final CircuitBreaker circuitBreaker;
+
+  // Runs the calls; the slots bound the number of busy threads, so the pool itself is unbounded.
+  private final ThreadPoolExecutor executor;
+
+  // Adaptive limit and the calls currently running against it, guarded by `this`.
+  private double limit;
+  private int inFlight;
+
+  private final AtomicLong rejectedFull = new AtomicLong();
+  private final AtomicLong rejectedOpen = new AtomicLong();
+  private final AtomicLong timeouts = new AtomicLong();
+
+  @Autowired
+  public OpenAiBulkhead(
+      @Value("${openai.bulkhead.initial-limit:8}") int initialLimit,
+      @Value("${openai.bulkhead.min-limit:1}") int minLimit,
+      @Value("${openai.bulkhead.max-limit:32}") int maxLimit,
+      @Value("${openai.bulkhead.backoff-ratio:0.5}") double backoffRatio,
+      @Value("${openai.bulkhead.slow-call-ms:20000}") long slowCallMillis,
+      @Value("${openai.bulkhead.call-timeout-ms:60000}") long callTimeoutMillis,
+      @Value("${openai.bulkhead.max-wait-ms:1000}") long maxWaitMillis,
+      @Value("${openai.circuit-breaker.failure-threshold:5}") int failureThreshold,
+      @Value("${openai.circuit-breaker.open-ms:30000}") long openMillis
+  ) {
+    this.minLimit = Math.max(1, minLimit);
+    this.maxLimit = Math.max(this.minLimit, maxLimit);
+    this.backoffRatio = backoffRatio;
+    this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+    this.callTimeoutMillis = callTimeoutMillis;
+    this.maxWaitMillis = maxWaitMillis;
+    this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+    this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        0, Integer.MAX_VALUE,
+        60L, TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        runnable -> {
+          Thread thread = new Thread(runnable, "openai-call-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+    );
+  }
+
+  /**
+   * Runs an OpenAI call inside the bulkhead.
+   *
+   * @param call The HTTP call.
+   * @return The call's result.
+   * @throws ResponseStatusException 503 if the circuit is open or no slot freed up in time,
+   *         504 if the call did not finish within the call timeout.
+   */
+  public <T> T execute(Callable<T> call) {
+    if (!circuitBreaker.tryAcquire()) {
+      rejectedOpen.incrementAndGet();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "OpenAI circuit breaker is open");
+    }
+    if (!acquireSlot()) {
+      rejectedFull.incrementAndGet();
+      circuitBreaker.onAbandoned();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent OpenAI calls");
+    }
+
+    long start = System.nanoTime();
+    // The slot is released when the call really ends, not when the caller stops waiting for it,
+    // so abandoned calls still count against the limit.
+    Future<T> future = executor.submit(() -> {
+      boolean failed = true;
+      try {
+        T result = call.call();
+        failed = false;
+        return result;
+      } catch (HttpStatusCodeException e) {
+        failed = isUpstreamFailure(e);
+        throw e;
+      } finally {
+        release(failed, System.nanoTime() - start);
+      }
+    });
+
+    try {
+      T result = future.get(callTimeoutMillis, TimeUnit.MILLISECONDS);
+      circuitBreaker.onSuccess();
+      return result;
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      timeouts.incrementAndGet();
+      circuitBreaker.onFailure();
+      throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "OpenAI did not answer in time", e);
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while calling OpenAI", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      boolean upstreamFailure = cause instanceof ResourceAccessException
+          || (cause instanceof HttpStatusCodeException statusException && isUpstreamFailure(statusException));
+      if (upstreamFailure) {
+        circuitBreaker.onFailure();
+      } else {
+        circuitBreaker.onSuccess(); // OpenAI answered; the request itself was at fault.
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("OpenAI call failed", cause);
+    }
+  }
+
+  // Waits up to max-wait for the number of running calls to drop below the limit.
+  private synchronized boolean acquireSlot() {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    while (inFlight >= (int) limit) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      try {
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    inFlight++;
+    return true;
+  }
+
+  // Additive increase on fast successes, multiplicative decrease on slow or failed calls.
+  private synchronized void release(boolean failed, long elapsedNanos) {
+    inFlight--;
+    if (failed || elapsedNanos > slowCallNanos) {
+      limit = Math.max(minLimit, limit * backoffRatio);
+    } else {
+      limit = Math.min(maxLimit, limit + 1.0 / limit);
+    }
+    notifyAll();
+  }
+
+  // Rate limits and server errors say OpenAI is overloaded or down; other 4xx are the caller's fault.
+  private static boolean isUpstreamFailure(HttpStatusCodeException e) {
+    return e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+  }
+
+  public synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  public CircuitBreaker.State getCircuitState() {
+    return circuitBreaker.state();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("openai.bulkhead.limit", this, OpenAiBulkhead::getLimit).register(registry);
+    Gauge.builder("openai.bulkhead.in.flight", this, OpenAiBulkhead::getInFlight).register(registry);
+    FunctionCounter.builder("openai.bulkhead.rejected", rejectedFull, AtomicLong::get)
+        .tag("reason", "full").register(registry);
+    FunctionCounter.builder("openai.bulkhead.rejected", rejectedOpen, AtomicLong::get)
+        .tag("reason", "circuit-open").register(registry);
+    FunctionCounter.builder("openai.bulkhead.timeouts", timeouts, AtomicLong::get).register(registry);
+    // 0 = closed, 1 = open, 2 = half open.
+    Gauge.builder("openai.circuit.state", this, bulkhead -> bulkhead.getCircuitState().ordinal()).register(registry);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
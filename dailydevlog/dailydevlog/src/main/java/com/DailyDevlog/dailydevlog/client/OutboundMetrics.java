@@ -0,0 +1,127 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records latency histograms and payload sizes of the calls made to GitHub and OpenAI,
+ * and the tokens billed by OpenAI.
+ * <ul>
+ *   <li>{@code github.client.requests} / {@code openai.client.requests}: call latency by operation and status</li>
+ *   <li>{@code github.client.response.size}: response body bytes by operation</li>
+ *   <li>{@code openai.client.request.size} / {@code openai.client.response.size}: payload bytes</li>
+ *   <li>{@code openai.tokens}: prompt and completion tokens from the {@code usage} field</li>
+ *   <li>{@code github.client.coalesced}: GitHub calls saved by sharing an identical in-flight call,
+ *       and {@code github.client.coalesced.cancelled}: shared calls cancelled because every caller left</li>
+ * </ul>
+ * Only calls that actually go over the network are recorded; cache hits are counted by the caches.
+ */
+@Component // Registers this recorder as a Spring-managed bean.
+public class OutboundMetrics {
+
+  private final MeterRegistry registry;
+
+  public OutboundMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Times a GitHub API call and records the size of its response body.
+   *
+   * @param operation What is fetched, e.g. "commits" or "commit-detail".
+   * @param call The HTTP call.
+   * @return The call's response.
+   */
+  public ResponseEntity<byte[]> gitHub(String operation, Supplier<ResponseEntity<byte[]>> call) {
+    long start = System.nanoTime();
+    String status = "IO_ERROR";
+    try {
+      ResponseEntity<byte[]> response = call.get();
+      status = String.valueOf(response.getStatusCode().value());
+      if (response.getBody() != null) {
+        size("github.client.response.size", operation).record(response.getBody().length);
+      }
+      return response;
+    } catch (HttpStatusCodeException e) {
+      status = String.valueOf(e.getStatusCode().value());
+      throw e;
+    } finally {
+      timer("github.client.requests", operation, status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Times an OpenAI API call and records the size of its request body.
+   *
+   * @param operation The kind of call, e.g. "completion" or "completion-stream".
+   * @param requestBytes The size of the request body.
+   * @param call The HTTP call.
+   * @return The call's result.
+   */
+  public <T> T openAi(String operation, long requestBytes, Supplier<T> call) {
+    size("openai.client.request.size", operation).record(requestBytes);
+    long start = System.nanoTime();
+    String status = "IO_ERROR";
+    try {
+      T result = call.get();
+      status = "200";
+      return result;
+    } catch (HttpStatusCodeException e) {
+      status = String.valueOf(e.getStatusCode().value());
+      throw e;
+    } finally {
+      timer("openai.client.requests", operation, status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Records the size of an OpenAI response body.
+   */
+  public void openAiResponseSize(String operation, long bytes) {
+    if (bytes >= 0) {
+      size("openai.client.response.size", operation).record(bytes);
+    }
+  }
+
+  /**
+   * Counts the tokens OpenAI billed for a completion.
+   */
+  public void openAiTokens(int promptTokens, int completionTokens) {
+    registry.counter("openai.tokens", "type", "prompt").increment(promptTokens);
+    registry.counter("openai.tokens", "type", "completion").increment(completionTokens);
+  }
+
+  /**
+   * Publishes how many GitHub calls were saved by coalescing identical reads.
+   */
+  public void gitHubCoalescing(SingleFlight<?, ?> upstreamCalls) {
+    FunctionCounter.builder("github.client.coalesced", upstreamCalls, SingleFlight::sharedCount)
+        .register(registry);
+    FunctionCounter.builder("github.client.coalesced.cancelled", upstreamCalls, SingleFlight::cancelledCount)
+        .register(registry);
+  }
+
+  private Timer timer(String name, String operation, String status) {
+    return Timer.builder(name)
+        .tag("operation", operation)
+        .tag("status", status)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  private DistributionSummary size(String name, String operation) {
+    return DistributionSummary.builder(name)
+        .tag("operation", operation)
+        .baseUnit("bytes")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+}
@@ -0,0 +1,179 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight collapses concurrent calls for the same key into one execution.
+ * The first caller runs the supplier; callers arriving while it is in flight wait for
+ * and share its result, including any exception it throws.
+ * <p>
+ * With {@link #executeDetached} the supplier runs on an executor instead, so any caller
+ * may stop waiting; the call is cancelled once every caller has left.
+ *
+ * @param <K> The key type identifying identical calls.
+ * @param <V> The result type.
+ */
+public class SingleFlight<K, V> {
+
+  /**
+   * The result of a call, and whether it was shared from another caller's execution.
+   */
+  public record Outcome<V>(V value, boolean shared) {
+  }
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<K, Flight> detached = new ConcurrentHashMap<>();
+  private final AtomicLong sharedCalls = new AtomicLong();
+  private final AtomicLong cancelledCalls = new AtomicLong();
+
+  // A detached call and the number of callers still waiting for it; waiters is guarded by the map.
+  private final class Flight extends FutureTask<V> {
+
+    private final K key;
+    private int waiters;
+
+    private Flight(K key, Supplier<V> supplier) {
+      super(supplier::get);
+      this.key = key;
+    }
+
+    @Override
+    protected void done() {
+      detached.remove(key, this);
+    }
+
+    // Fails the flight without running it; every caller that joined it receives the exception.
+    private void reject(RuntimeException e) {
+      setException(e);
+    }
+  }
+
+  /**
+   * Runs the supplier, unless an identical call is already in flight, in which case its result is shared.
+   *
+   * @param key Identifies identical calls.
+   * @param supplier Produces the result; only invoked by the first caller.
+   * @return The result and whether it was shared.
+   */
+  public Outcome<V> execute(K key, Supplier<V> supplier) {
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      sharedCalls.incrementAndGet();
+      return new Outcome<>(await(existing), true);
+    }
+
+    try {
+      V value = supplier.get();
+      flight.complete(value);
+      return new Outcome<>(value, false);
+    } catch (RuntimeException | Error e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  /**
+   * Runs the supplier on {@code executor}, unless an identical call is already in flight,
+   * in which case the caller waits for that call instead.
+   * A waiting caller that is interrupted leaves; when the last one leaves before the call
+   * completes, the call is cancelled (its thread is interrupted) and its result discarded.
+   *
+   * @param key Identifies identical calls.
+   * @param supplier Produces the result; runs once per flight on the executor.
+   * @param executor Runs the supplier.
+   * @return The result and whether it was shared.
+   * @throws CancellationException If the caller was interrupted while waiting; the interrupt flag is kept.
+   * @throws RejectedExecutionException If the executor refused the call; callers that joined it get the same.
+   */
+  public Outcome<V> executeDetached(K key, Supplier<V> supplier, Executor executor) {
+    boolean[] created = {false};
+    Flight flight = detached.compute(key, (k, current) -> {
+      if (current == null) {
+        current = new Flight(k, supplier);
+        created[0] = true;
+      }
+      current.waiters++;
+      return current;
+    });
+    if (created[0]) {
+      try {
+        executor.execute(flight);
+      } catch (RejectedExecutionException e) {
+        flight.reject(e);
+      }
+    } else {
+      sharedCalls.incrementAndGet();
+    }
+
+    try {
+      return new Outcome<>(flight.get(), !created[0]);
+    } catch (InterruptedException e) {
+      leave(flight);
+      Thread.currentThread().interrupt();
+      CancellationException cancellation = new CancellationException("Interrupted while waiting for a shared call");
+      cancellation.initCause(e);
+      throw cancellation;
+    } catch (ExecutionException e) {
+      // Rethrows the original exception to every waiter.
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  // Removes a waiter; the last one to leave an unfinished flight cancels it.
+  private void leave(Flight flight) {
+    boolean[] abandoned = {false};
+    detached.computeIfPresent(flight.key, (k, current) -> {
+      if (current != flight || --current.waiters > 0) {
+        return current;
+      }
+      abandoned[0] = true;
+      return null;
+    });
+    if (abandoned[0] && flight.cancel(true)) {
+      cancelledCalls.incrementAndGet();
+    }
+  }
+
+  // Number of calls that were answered by another caller's execution.
+  public long sharedCount() {
+    return sharedCalls.get();
+  }
+
+  // Number of detached calls cancelled because every caller left.
+  public long cancelledCount() {
+    return cancelledCalls.get();
+  }
+
+  private V await(CompletableFuture<V> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException e) {
+      // Rethrows the leader's original exception to every waiter.
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+}
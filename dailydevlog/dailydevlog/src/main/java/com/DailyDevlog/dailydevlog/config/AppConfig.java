@@ -1,7 +1,20 @@
 package com.DailyDevlog.dailydevlog.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -9,23 +22,95 @@ import org.springframework.web.client.RestTemplate;
  * This class is responsible for defining and managing beans in the Spring application context.
  */
 @Configuration // Marks this class as a source of bean definitions for the application context.
+@EnableScheduling // Runs the periodic background ingestion.
 public class AppConfig {
 
+  /**
+   * Creates the connection pool shared by all outbound HTTP traffic (GitHub and OpenAI).
+   *
+   * Connections are kept alive and reused per host (route), so repeated calls to the same
+   * API skip the TCP and TLS handshakes. Idle connections expire after their time-to-live.
+   *
+   * @param maxTotal The maximum number of pooled connections across all hosts.
+   * @param maxPerRoute The maximum number of pooled connections per host.
+   * @param connectTimeoutMillis The TCP connect timeout in milliseconds.
+   * @param readTimeoutMillis The socket read timeout in milliseconds.
+   * @return a pooling connection manager
+   */
+  @Bean(destroyMethod = "close")
+  public PoolingHttpClientConnectionManager httpConnectionManager(
+      @Value("${http.client.max-total:100}") int maxTotal,
+      @Value("${http.client.max-per-route:20}") int maxPerRoute,
+      @Value("${http.client.connect-timeout-ms:5000}") long connectTimeoutMillis,
+      @Value("${http.client.read-timeout-ms:60000}") long readTimeoutMillis
+  ) {
+    return PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(maxTotal)
+        .setMaxConnPerRoute(maxPerRoute)
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+            .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+            .setTimeToLive(TimeValue.ofMinutes(5))
+            .build())
+        .build();
+  }
+
+  /**
+   * Creates the pooled HTTP client backing every RestTemplate in the application.
+   *
+   * Gzip/deflate response decoding is enabled by default in the Apache client.
+   * HTTP/2 is not available on its classic (blocking) API, so connections use HTTP/1.1 keep-alive.
+   *
+   * @param connectionManager The shared connection pool.
+   * @param connectionRequestTimeoutMillis How long a request may wait for a free pooled connection.
+   * @param readTimeoutMillis How long to wait for a response once the request is sent.
+   * @return a pooled HTTP client
+   */
+  @Bean(destroyMethod = "close")
+  public CloseableHttpClient httpClient(
+      PoolingHttpClientConnectionManager connectionManager,
+      @Value("${http.client.connection-request-timeout-ms:5000}") long connectionRequestTimeoutMillis,
+      @Value("${http.client.read-timeout-ms:60000}") long readTimeoutMillis
+  ) {
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMillis))
+            .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+            .build())
+        .evictIdleConnections(TimeValue.ofSeconds(30))
+        .build();
+  }
+
   /**
    * Creates and registers a RestTemplate bean.
    *
    * RestTemplate is a synchronous client to perform HTTP requests,
    * exposing a simple, template-based API over underlying HTTP client libraries.
-   * It is commonly used to communicate with RESTful web services.
+   * This instance is backed by the shared pooled HTTP client and is injected
+   * into every service that calls GitHub or OpenAI.
    *
    * Example usage:
    * RestTemplate restTemplate = applicationContext.getBean(RestTemplate.class);
    * ResponseEntity<String> response = restTemplate.getForEntity("https://example.com", String.class);
    *
-   * @return a new instance of RestTemplate
+   * @param httpClient The pooled HTTP client.
+   * @return a RestTemplate using pooled, keep-alive connections
    */
   @Bean // Indicates that this method produces a bean to be managed by the Spring container.
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
+  public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+    return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+  }
+
+  /**
+   * Publishes connection pool utilization (leased, available, pending and max connections)
+   * as "httpcomponents.httpclient.pool.*" metrics.
+   *
+   * @param connectionManager The shared connection pool.
+   * @return a meter binder for the pool
+   */
+  @Bean
+  public MeterBinder httpConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+    return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "outbound");
   }
-}
\ No newline at end of file
+}
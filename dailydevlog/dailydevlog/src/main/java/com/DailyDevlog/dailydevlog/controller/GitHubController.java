@@ -1,7 +1,12 @@
 package com.DailyDevlog.dailydevlog.controller;
 
-import com.DailyDevlog.dailydevlog.service.CodeReviewService;
+import com.DailyDevlog.dailydevlog.model.IssueSummary;
+import com.DailyDevlog.dailydevlog.search.CommitIndex;
+import com.DailyDevlog.dailydevlog.service.AutoReviewService;
+import com.DailyDevlog.dailydevlog.service.CommitSearchService;
 import com.DailyDevlog.dailydevlog.service.GitHubService;
+import com.DailyDevlog.dailydevlog.service.SyncService;
+import com.DailyDevlog.dailydevlog.service.UserSessionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,15 +17,17 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.Map;
 import io.swagger.v3.oas.annotations.Parameter;
 import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -34,6 +41,9 @@ import java.util.Map;
 @Tag(name = "GitHub OAuth", description = "GitHub login and user information API")
 public class GitHubController {
 
+  // Media type of the streaming listings: one JSON document per line.
+  private static final String NDJSON = "application/x-ndjson";
+
   // Injecting GitHub OAuth client ID, secret, and redirect URI from application properties.
   @Value("${github.client.id}")
   private String clientId;
@@ -74,7 +84,6 @@ public class GitHubController {
         clientId, clientSecret, code
     );
 
-    RestTemplate restTemplate = new RestTemplate();
     Map<String, String> response = restTemplate.postForObject(accessTokenUrl, null, Map.class);
 
     String accessToken = response.get("access_token");
@@ -93,24 +102,11 @@ public class GitHubController {
   @Operation(summary = "User Information Inquiry", security = {@SecurityRequirement(name = "Bearer Authentication")})
   @GetMapping("/user")
   public ResponseEntity<?> getUserInfo(@RequestHeader("Authorization") String accessToken) {
-    System.out.println("Authorization Header: " + accessToken);
     try {
-      HttpHeaders headers = new HttpHeaders();
-      headers.set("Authorization", accessToken);
-
-      HttpEntity<String> entity = new HttpEntity<>(headers);
-      ResponseEntity<String> response = restTemplate.exchange(
-          "https://api.github.com/user",
-          HttpMethod.GET,
-          entity,
-          String.class
-      );
-
-      if (response.getStatusCode() == HttpStatus.OK) {
-        return ResponseEntity.ok(response.getBody());
-      } else {
-        return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
-      }
+      // Served from the session cache; GitHub is only asked again once the session has expired.
+      return ResponseEntity.ok(userSessionService.resolve(accessToken).profile());
+    } catch (ResponseStatusException e) {
+      return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
     } catch (Exception e) {
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
           .body("Error getting user information: " + e.getMessage());
@@ -120,6 +116,9 @@ public class GitHubController {
   @Autowired
   private GitHubService gitHubService;
 
+  @Autowired
+  private UserSessionService userSessionService;
+
   /**
    * Retrieves a list of commits from a specific GitHub repository.
    *
@@ -149,15 +148,115 @@ public class GitHubController {
    */
   @Operation(summary = "GitHub Issue Simplified Inquiry", description = "Briefly look up the list of issues in a particular repository.")
   @GetMapping("/issues")
-  public List<Map<String, Object>> getSimplifiedRepositoryIssues(
+  public List<IssueSummary> getSimplifiedRepositoryIssues(
       @Parameter(description = "GitHub Repository Owner", required = true) @RequestParam String owner,
       @Parameter(description = "GitHub Repository Name", required = true) @RequestParam String repo
   ) {
     return gitHubService.getRepositoryIssues(owner, repo);
   }
 
+  /**
+   * Streams the full commit history of a repository branch as newline-delimited JSON.
+   * Pages are written to the client while later pages are still being fetched.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The GitHub ID of the commit author.
+   * @param branch (Optional) The repository branch, defaults to "main".
+   * @param since (Optional) Only commits at or after this ISO-8601 time.
+   * @param until (Optional) Only commits at or before this ISO-8601 time.
+   * @return A streaming NDJSON response with one commit per line.
+   */
+  @Operation(summary = "GitHub Commit History Stream", description = "Stream every commit of a branch as NDJSON, following GitHub pagination.")
+  @GetMapping(value = "/commits/stream", produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> streamGitHubCommits(
+      @Parameter(description = "GitHub a repository owner", required = true) @RequestParam String owner,
+      @Parameter(description = "GitHub Repository Name", required = true) @RequestParam String repo,
+      @Parameter(description = "Commit Author GitHub ID", required = false) @RequestParam(required = false) String author,
+      @Parameter(description = "Branch name (Default value: main)", required = false) @RequestParam(required = false, defaultValue = "main") String branch,
+      @Parameter(description = "Start of the time range (ISO-8601)", required = false) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+      @Parameter(description = "End of the time range (ISO-8601)", required = false) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until
+  ) {
+    StreamingResponseBody body = out -> gitHubService.streamCommits(owner, repo, author, branch, since, until, out);
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+  }
+
+  /**
+   * Streams all issues of a repository as newline-delimited simplified issues.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param since (Optional) Only issues updated at or after this ISO-8601 time.
+   * @param until (Optional) Only issues updated at or before this ISO-8601 time.
+   * @return A streaming NDJSON response with one issue per line.
+   */
+  @Operation(summary = "GitHub Issue Stream", description = "Stream every issue of a repository as simplified NDJSON, following GitHub pagination.")
+  @GetMapping(value = "/issues/stream", produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> streamRepositoryIssues(
+      @Parameter(description = "GitHub Repository Owner", required = true) @RequestParam String owner,
+      @Parameter(description = "GitHub Repository Name", required = true) @RequestParam String repo,
+      @Parameter(description = "Start of the time range (ISO-8601)", required = false) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+      @Parameter(description = "End of the time range (ISO-8601)", required = false) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until
+  ) {
+    StreamingResponseBody body = out -> gitHubService.streamRepositoryIssues(owner, repo, since, until, out);
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+  }
+
   @Autowired
-  private CodeReviewService codeReviewService;
+  private SyncService syncService;
+
+  /**
+   * Brings the local store of a repository up to date with GitHub.
+   * Only commits and issues that are new since the previous sync are fetched.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param branch (Optional) The branch to mirror, defaults to "main".
+   * @return The number of newly stored commits and updated issues.
+   */
+  @Operation(summary = "Repository Sync", description = "Incrementally copy new commits, patches and issues of a repository into the local store.")
+  @PostMapping("/sync")
+  public SyncService.SyncResult syncRepository(
+      @Parameter(description = "GitHub Repository Owner", required = true) @RequestParam String owner,
+      @Parameter(description = "GitHub Repository Name", required = true) @RequestParam String repo,
+      @Parameter(description = "Branch name (Default value: main)", required = false) @RequestParam(required = false, defaultValue = "main") String branch
+  ) {
+    return syncService.sync(owner, repo, branch);
+  }
+
+  @Autowired
+  private CommitSearchService commitSearchService;
+
+  /**
+   * Searches the commit messages and changed file paths of a synced repository.
+   * Clauses separated by spaces must all match; "|" separates alternatives, a trailing "*" matches
+   * a prefix and "path:" matches changed paths, e.g. "fix|bug|regress* path:src/main/".
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param q (Optional) The query; without one, every commit in the time range matches.
+   * @param since (Optional) Only commits at or after this ISO-8601 time.
+   * @param until (Optional) Only commits at or before this ISO-8601 time.
+   * @param limit (Optional) The maximum number of commits to return, defaults to 50.
+   * @return The matching commits, newest first.
+   */
+  @Operation(summary = "GitHub Commit Search", description = "Search the commit messages and changed paths of a synced repository.")
+  @GetMapping("/commits/search")
+  public List<CommitIndex.Hit> searchCommits(
+      @Parameter(description = "GitHub Repository Owner", required = true) @RequestParam String owner,
+      @Parameter(description = "GitHub Repository Name", required = true) @RequestParam String repo,
+      @Parameter(description = "Query, e.g. fix|bug|regress* path:src/main/", required = false) @RequestParam(required = false) String q,
+      @Parameter(description = "Start of the time range (ISO-8601)", required = false) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+      @Parameter(description = "End of the time range (ISO-8601)", required = false) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until,
+      @Parameter(description = "Maximum number of commits (Default value: 50)", required = false) @RequestParam(required = false, defaultValue = "50") int limit
+  ) {
+    return commitSearchService.search(owner, repo, q, since, until, limit)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+            "Repository is not synced: " + owner + "/" + repo));
+  }
+
+  @Autowired
+  private AutoReviewService autoReviewService;
 
   /**
    * Automatically performs a code review using GPT by analyzing commit messages and code changes.
@@ -166,56 +265,29 @@ public class GitHubController {
    * @param repo The repository name.
    * @param author (Optional) The commit author.
    * @param branch (Optional) The branch to review, defaults to "main".
-   * @return Code review suggestions from GPT.
+   * @param chunked (Optional) Whether to review large change sets in parts merged into one review.
+   * @param q (Optional) A commit search query selecting the commits of a synced repository; defaults to bug-related ones.
+   * @param since (Optional) Only review commits at or after this time.
+   * @param until (Optional) Only review commits at or before this time.
+   * @return Code review suggestions from GPT; for a chunked review, the merged review together with
+   *         the number of parts, the parts that failed, and the files that were reviewed or left out.
    */
   @Operation(summary = "Automatic GPT Code Review", description = "Automatically import commitments and code changes from the GitHub repository and conduct code reviews through GPT.")
   @GetMapping("/auto-code-review")
-  public String autoCodeReview(
+  public ResponseEntity<?> autoCodeReview(
       @Parameter(description = "GitHub Repository Owner", required = true) @RequestParam String owner,
       @Parameter(description = "GitHub Repository Name", required = true) @RequestParam String repo,
       @Parameter(description = "Commit Author GitHub ID", required = false) @RequestParam(required = false) String author,
-      @Parameter(description = "Branch name (Default value: main)", required = false) @RequestParam(required = false, defaultValue = "main") String branch
+      @Parameter(description = "Branch name (Default value: main)", required = false) @RequestParam(required = false, defaultValue = "main") String branch,
+      @Parameter(description = "Review large change sets in parts (Default value: false)", required = false) @RequestParam(required = false, defaultValue = "false") boolean chunked,
+      @Parameter(description = "Query selecting the commits of a synced repository, e.g. fix|bug|regress* path:src/main/", required = false) @RequestParam(required = false) String q,
+      @Parameter(description = "Start of the time range (ISO-8601)", required = false) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+      @Parameter(description = "End of the time range (ISO-8601)", required = false) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until
   ) {
-    // 1. Fetch all commits from the GitHub repository
-    List<Map<String, Object>> commits = gitHubService.getUserCommits(owner, repo, author, branch);
-
-    StringBuilder commitMessages = new StringBuilder();
-    StringBuilder codeChanges = new StringBuilder();
-
-    // 2. Iterate over the commits and filter only the latest and 'bug' related commits
-    for (int i = 0; i < commits.size(); i++) {
-      Map<String, Object> commit = commits.get(i);
-      Map<String, Object> commitData = (Map<String, Object>) commit.get("commit");
-
-      String message = (String) commitData.get("message");
-
-      // 3. Always add the latest commit and filter commits containing 'bug' keyword
-      if (i == 0 || message.toLowerCase().contains("bug")) {
-        commitMessages.append(message).append("\n");
-
-        String sha = (String) commit.get("sha");
-        Map<String, Object> commitDetails = gitHubService.getCommitChanges(owner, repo, sha);
-
-        // 4. Extract and append code changes related to filtered commits
-        List<Map<String, Object>> files = (List<Map<String, Object>>) commitDetails.get("files");
-        for (Map<String, Object> file : files) {
-          codeChanges.append("File: ").append(file.get("filename")).append("\n")
-              .append(file.get("patch")).append("\n\n");
-        }
-      }
-    }
-
-    // 5. Truncate the commit messages and code changes to avoid exceeding token limits
-    if (commitMessages.length() > 5000) {
-      commitMessages.setLength(5000); // Limit commit messages to 5000 characters
+    AutoReviewService.Selection selection = new AutoReviewService.Selection(q, since, until);
+    if (chunked) {
+      return ResponseEntity.ok(autoReviewService.reviewChunked(owner, repo, author, branch, selection));
     }
-    if (codeChanges.length() > 10000) {
-      codeChanges.setLength(10000); // Limit code changes to 10000 characters
-    }
-
-    // 6. Send the filtered and truncated data to the GPT API for analysis
-    return codeReviewService.analyzeCodeAndSuggestImprovements(
-        commitMessages.toString(), codeChanges.toString()
-    );
+    return ResponseEntity.ok(autoReviewService.review(owner, repo, author, branch, selection));
   }
 }
@@ -0,0 +1,93 @@
+package com.DailyDevlog.dailydevlog.controller;
+
+import com.DailyDevlog.dailydevlog.service.IngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controller class for the background ingestion: which repositories each user wants kept
+ * up to date, and how far behind GitHub they are.
+ */
+@RestController // Indicates that this class handles HTTP requests and returns JSON responses.
+@RequestMapping("/api/v1/github/ingestion") // Base URL for all ingestion endpoints.
+@Tag(name = "Ingestion", description = "Scheduled repository sync API")
+public class IngestionController {
+
+  @Autowired
+  private IngestionService ingestionService;
+
+  /**
+   * Registers a repository to be synced periodically for a user.
+   *
+   * @param login The user's GitHub login.
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param branch (Optional) The branch to mirror, defaults to "main".
+   * @return All repositories registered by the user; 409 if the repository is already mirrored on another branch.
+   */
+  @Operation(summary = "Register Repository", description = "Keep a repository's commits and issues synced in the background.")
+  @PostMapping("/users/{login}/repos")
+  public Set<String> registerRepository(
+      @Parameter(description = "GitHub login of the user", required = true) @PathVariable String login,
+      @Parameter(description = "GitHub Repository Owner", required = true) @RequestParam String owner,
+      @Parameter(description = "GitHub Repository Name", required = true) @RequestParam String repo,
+      @Parameter(description = "Branch name (Default value: main)", required = false) @RequestParam(required = false, defaultValue = "main") String branch
+  ) {
+    return ingestionService.register(login, owner, repo, branch);
+  }
+
+  /**
+   * Stops syncing a repository for a user.
+   *
+   * @param login The user's GitHub login.
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @return The repositories still registered by the user.
+   */
+  @Operation(summary = "Unregister Repository", description = "Stop syncing a repository in the background for a user.")
+  @DeleteMapping("/users/{login}/repos")
+  public Set<String> unregisterRepository(
+      @Parameter(description = "GitHub login of the user", required = true) @PathVariable String login,
+      @Parameter(description = "GitHub Repository Owner", required = true) @RequestParam String owner,
+      @Parameter(description = "GitHub Repository Name", required = true) @RequestParam String repo
+  ) {
+    return ingestionService.unregister(login, owner, repo);
+  }
+
+  /**
+   * Lists the repositories registered by a user.
+   *
+   * @param login The user's GitHub login.
+   * @return The repositories' full names.
+   */
+  @Operation(summary = "Registered Repositories", description = "Look up the repositories synced in the background for a user.")
+  @GetMapping("/users/{login}/repos")
+  public Set<String> getRegisteredRepositories(
+      @Parameter(description = "GitHub login of the user", required = true) @PathVariable String login
+  ) {
+    return ingestionService.registeredRepos(login);
+  }
+
+  /**
+   * Shows how long ago each repository synced by this instance was last brought up to date.
+   *
+   * @return Seconds since the last sync, per repository.
+   */
+  @Operation(summary = "Ingestion Lag", description = "Seconds since the last sync of each repository owned by this instance.")
+  @GetMapping("/lag")
+  public Map<String, Long> getIngestionLag() {
+    return ingestionService.lagSeconds();
+  }
+}
@@ -0,0 +1,46 @@
+package com.DailyDevlog.dailydevlog.controller;
+
+import com.DailyDevlog.dailydevlog.service.RetrospectiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * Controller class for daily retrospectives over all repositories a user registered for ingestion.
+ */
+@RestController // Indicates that this class handles HTTP requests and returns JSON responses.
+@RequestMapping("/api/v1/github/retrospectives") // Base URL for all retrospective endpoints.
+@Tag(name = "Retrospective", description = "Daily retrospective API")
+public class RetrospectiveController {
+
+  @Autowired
+  private RetrospectiveService retrospectiveService;
+
+  /**
+   * Returns a user's daily retrospective across all of their registered repositories.
+   * Reports precomputed off-peak are returned as stored; otherwise the retrospective is generated now.
+   *
+   * @param login The user's GitHub login.
+   * @param day (Optional) The day to look back on, defaults to yesterday.
+   * @param refresh (Optional) Whether to generate the retrospective again instead of reading the stored one.
+   * @return The retrospective.
+   */
+  @Operation(summary = "Daily Retrospective", description = "Retrospective of a user's commits on one day across all registered repositories, written by GPT.")
+  @GetMapping("/users/{login}")
+  public RetrospectiveService.Retrospective getRetrospective(
+      @Parameter(description = "GitHub login of the user", required = true) @PathVariable String login,
+      @Parameter(description = "Day (ISO-8601, e.g. 2025-03-01; Default value: yesterday)", required = false) @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
+      @Parameter(description = "Generate again instead of reading the stored report (Default value: false)", required = false) @RequestParam(required = false, defaultValue = "false") boolean refresh
+  ) {
+    return retrospectiveService.retrospective(login, day != null ? day : retrospectiveService.previousDay(), refresh);
+  }
+}
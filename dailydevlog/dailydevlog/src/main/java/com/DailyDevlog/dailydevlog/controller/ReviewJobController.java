@@ -0,0 +1,82 @@
+package com.DailyDevlog.dailydevlog.controller;
+
+import com.DailyDevlog.dailydevlog.service.ReviewJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+
+/**
+ * Controller class for asynchronous GPT code reviews.
+ * A review is submitted as a job; its result can be polled or followed live over server-sent events.
+ */
+@RestController // Indicates that this class handles HTTP requests and returns JSON responses.
+@RequestMapping("/api/v1/github/review-jobs") // Base URL for all review job endpoints.
+@Tag(name = "Review Jobs", description = "Asynchronous GPT code review API")
+public class ReviewJobController {
+
+  @Autowired
+  private ReviewJobService reviewJobService;
+
+  /**
+   * Queues an automatic code review of a repository.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch (Optional) The branch to review, defaults to "main".
+   * @return 202 Accepted with the queued job, or 429 if the job queue is full.
+   */
+  @Operation(summary = "Submit Code Review Job", description = "Queue an automatic GPT code review and return its job id immediately.")
+  @PostMapping
+  public ResponseEntity<ReviewJobService.JobView> submitReviewJob(
+      @Parameter(description = "GitHub Repository Owner", required = true) @RequestParam String owner,
+      @Parameter(description = "GitHub Repository Name", required = true) @RequestParam String repo,
+      @Parameter(description = "Commit Author GitHub ID", required = false) @RequestParam(required = false) String author,
+      @Parameter(description = "Branch name (Default value: main)", required = false) @RequestParam(required = false, defaultValue = "main") String branch
+  ) {
+    ReviewJobService.JobView job = reviewJobService.submit(owner, repo, author, branch);
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/v1/github/review-jobs/" + job.id()))
+        .body(job);
+  }
+
+  /**
+   * Returns the status of a review job, including the review text generated so far.
+   *
+   * @param id The job id.
+   * @return The job, or 404 if it is unknown or expired.
+   */
+  @Operation(summary = "Code Review Job Status", description = "Look up the status and result of a code review job.")
+  @GetMapping("/{id}")
+  public ReviewJobService.JobView getReviewJob(@PathVariable String id) {
+    return reviewJobService.find(id)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown review job: " + id));
+  }
+
+  /**
+   * Follows a review job over server-sent events while GPT generates the review.
+   *
+   * @param id The job id.
+   * @return An event stream of "status", "delta" and finally "done" or "error" events.
+   */
+  @Operation(summary = "Code Review Job Events", description = "Stream the review text of a job as server-sent events while it is generated.")
+  @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter followReviewJob(@PathVariable String id) {
+    return reviewJobService.subscribe(id)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown review job: " + id));
+  }
+}
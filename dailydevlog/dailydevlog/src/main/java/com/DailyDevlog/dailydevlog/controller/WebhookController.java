@@ -0,0 +1,60 @@
+package com.DailyDevlog.dailydevlog.controller;
+
+import com.DailyDevlog.dailydevlog.service.WebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Controller class receiving GitHub webhook deliveries.
+ * Deliveries are only verified and queued here; they are applied to the local store in the background.
+ */
+@RestController // Indicates that this class handles HTTP requests and returns JSON responses.
+@RequestMapping("/api/v1/github") // Base URL for all GitHub-related API endpoints.
+@Tag(name = "Webhook", description = "GitHub webhook receiver")
+public class WebhookController {
+
+  @Autowired
+  private WebhookService webhookService;
+
+  /**
+   * Receives a GitHub webhook delivery.
+   *
+   * @param event The event name from the X-GitHub-Event header, e.g. "push" or "issues".
+   * @param deliveryId The unique delivery id from the X-GitHub-Delivery header.
+   * @param signature The X-Hub-Signature-256 header.
+   * @param payload The raw JSON body; the signature is computed over these exact bytes.
+   * @return 202 when the event was queued, 200 for duplicates and unhandled events,
+   *         401 for a bad signature and 503 when the queue is full.
+   */
+  @Operation(summary = "GitHub Webhook", description = "Receive push and issues events from a GitHub webhook.")
+  @PostMapping("/webhook")
+  public ResponseEntity<Map<String, String>> receive(
+      @RequestHeader("X-GitHub-Event") String event,
+      @RequestHeader("X-GitHub-Delivery") String deliveryId,
+      @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+      @RequestBody byte[] payload
+  ) {
+    if (!webhookService.isSignatureValid(payload, signature)) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid signature"));
+    }
+
+    WebhookService.Outcome outcome = webhookService.accept(deliveryId, event, payload);
+    HttpStatus status = switch (outcome) {
+      case ACCEPTED -> HttpStatus.ACCEPTED;
+      case DUPLICATE, IGNORED -> HttpStatus.OK;
+      case QUEUE_FULL -> HttpStatus.SERVICE_UNAVAILABLE;
+    };
+    return ResponseEntity.status(status).body(Map.of("status", outcome.name().toLowerCase(Locale.ROOT)));
+  }
+}
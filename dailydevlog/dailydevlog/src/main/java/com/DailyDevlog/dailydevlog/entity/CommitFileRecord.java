@@ -0,0 +1,123 @@
+package com.DailyDevlog.dailydevlog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A file changed by a stored commit. The unified diff is kept gzip-compressed,
+ * since patches are the bulk of the stored data and compress well.
+ */
+@Entity
+@Table(name = "commit_file_records", indexes = {
+    @Index(name = "idx_commit_file_records_commit", columnList = "commit_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class CommitFileRecord implements Persistable<String> {
+
+  // "{commit id}#{position}"
+  @Id
+  @Column(length = 260)
+  private String id;
+
+  @Column(name = "commit_id", nullable = false, length = 250)
+  private String commitId;
+
+  // Position of the file within the commit, so files are read back in GitHub's order.
+  private int position;
+
+  @Column(length = 1000)
+  private String filename;
+
+  private String status;
+
+  private int additions;
+
+  private int deletions;
+
+  @Lob
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private byte[] patchGzip;
+
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean newEntity = true;
+
+  public CommitFileRecord(String commitId, int position) {
+    this.id = commitId + "#" + position;
+    this.commitId = commitId;
+    this.position = position;
+  }
+
+  /**
+   * Returns the decompressed unified diff, or null if the file had none (e.g. binary files).
+   */
+  public String getPatch() {
+    if (patchGzip == null) {
+      return null;
+    }
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(patchGzip))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Corrupt stored patch for " + id, e);
+    }
+  }
+
+  /**
+   * Stores the unified diff gzip-compressed.
+   *
+   * @param patch The unified diff, or null if the file had none.
+   */
+  public void setPatch(String patch) {
+    if (patch == null) {
+      patchGzip = null;
+      return;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(patch.length() / 3 + 32);
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(patch.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    patchGzip = bytes.toByteArray();
+  }
+
+  // Size of the patch as stored, for comparing against the raw diff.
+  public int getStoredPatchSize() {
+    return patchGzip != null ? patchGzip.length : 0;
+  }
+
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    newEntity = false;
+  }
+}
@@ -0,0 +1,92 @@
+package com.DailyDevlog.dailydevlog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * A commit of a tracked repository.
+ * The id is assigned ("owner/repo@sha"), and the entity reports itself as new until it is
+ * persisted, so that saveAll() issues batched inserts instead of a select per row.
+ */
+@Entity
+@Table(name = "commit_records", indexes = {
+    @Index(name = "idx_commit_records_repo_date", columnList = "repo_full_name, committed_at"),
+    @Index(name = "idx_commit_records_repo_stored", columnList = "repo_full_name, stored_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class CommitRecord implements Persistable<String> {
+
+  @Id
+  @Column(length = 250)
+  private String id;
+
+  @Column(name = "repo_full_name", nullable = false, length = 200)
+  private String repoFullName;
+
+  @Column(nullable = false, length = 40)
+  private String sha;
+
+  @Lob
+  private String message;
+
+  // GitHub login of the author, if the commit is linked to an account.
+  private String authorLogin;
+
+  // Name from the git author signature.
+  private String authorName;
+
+  @Column(name = "committed_at")
+  private Instant committedAt;
+
+  private String htmlUrl;
+
+  // Whether the changed files of this commit have been stored.
+  private boolean detailsFetched;
+
+  // When the row or its changed files were last written; search indexes catch up in this order,
+  // since commit dates say nothing about when a commit reached the store.
+  @Column(name = "stored_at")
+  private Instant storedAt;
+
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean newEntity = true;
+
+  public CommitRecord(String repoFullName, String sha) {
+    this.id = key(repoFullName, sha);
+    this.repoFullName = repoFullName;
+    this.sha = sha;
+  }
+
+  public static String key(String repoFullName, String sha) {
+    return repoFullName + "@" + sha;
+  }
+
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    newEntity = false;
+  }
+}
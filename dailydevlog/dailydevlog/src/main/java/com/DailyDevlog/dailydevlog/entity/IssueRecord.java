@@ -0,0 +1,77 @@
+package com.DailyDevlog.dailydevlog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * An issue of a tracked repository, keyed by GitHub's global issue id.
+ */
+@Entity
+@Table(name = "issue_records", indexes = {
+    @Index(name = "idx_issue_records_repo_updated", columnList = "repo_full_name, updated_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class IssueRecord implements Persistable<Long> {
+
+  @Id
+  private Long id;
+
+  @Column(name = "repo_full_name", nullable = false, length = 200)
+  private String repoFullName;
+
+  private int number;
+
+  @Column(length = 1000)
+  private String title;
+
+  @Lob
+  private String body;
+
+  private String state;
+
+  private String htmlUrl;
+
+  private String authorLogin;
+
+  private Instant createdAt;
+
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean newEntity = true;
+
+  public IssueRecord(Long id, String repoFullName) {
+    this.id = id;
+    this.repoFullName = repoFullName;
+  }
+
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    newEntity = false;
+  }
+}
@@ -0,0 +1,48 @@
+package com.DailyDevlog.dailydevlog.entity;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A user whose repositories are kept up to date by the scheduled ingestion.
+ * Several users may register the same repository; it is synced once for all of them.
+ */
+@Entity
+@Table(name = "registered_users")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RegisteredUser {
+
+  // GitHub login of the user.
+  @Id
+  @Column(length = 100)
+  private String login;
+
+  @Column(nullable = false)
+  private Instant registeredAt;
+
+  // Full names ("owner/repo") of the tracked repositories this user wants kept warm.
+  @ElementCollection(fetch = FetchType.EAGER)
+  @CollectionTable(name = "registered_user_repos", joinColumns = @JoinColumn(name = "login"))
+  @Column(name = "repo_full_name", length = 200)
+  private Set<String> repoFullNames = new HashSet<>();
+
+  public RegisteredUser(String login) {
+    this.login = login;
+    this.registeredAt = Instant.now();
+  }
+}
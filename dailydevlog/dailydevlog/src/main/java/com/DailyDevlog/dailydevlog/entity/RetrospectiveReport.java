@@ -0,0 +1,57 @@
+package com.DailyDevlog.dailydevlog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A generated daily retrospective of one user's activity across their registered repositories.
+ * Reports are precomputed off-peak and read back by the retrospective endpoint.
+ * The id is assigned ("login@yyyy-mm-dd").
+ */
+@Entity
+@Table(name = "retrospective_reports")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RetrospectiveReport {
+
+  @Id
+  @Column(length = 120)
+  private String id;
+
+  // GitHub login of the user.
+  @Column(nullable = false, length = 100)
+  private String login;
+
+  @Column(name = "report_day", nullable = false)
+  private LocalDate day;
+
+  @Lob
+  private String content;
+
+  // Repositories with activity on the day, and the distinct commits the report covers.
+  private int repoCount;
+
+  private int commitCount;
+
+  private Instant generatedAt;
+
+  public RetrospectiveReport(String login, LocalDate day) {
+    this.id = key(login, day);
+    this.login = login;
+    this.day = day;
+  }
+
+  public static String key(String login, LocalDate day) {
+    return login + "@" + day;
+  }
+}
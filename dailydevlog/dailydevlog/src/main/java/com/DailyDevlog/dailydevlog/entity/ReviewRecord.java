@@ -0,0 +1,49 @@
+package com.DailyDevlog.dailydevlog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A stored GPT review, keyed by the SHA-256 hash of the model, parameters and prompt,
+ * so that cached reviews survive restarts.
+ */
+@Entity
+@Table(name = "review_records", indexes = @Index(name = "idx_review_records_created", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReviewRecord {
+
+  @Id
+  @Column(length = 64)
+  private String promptHash;
+
+  @Lob
+  private String content;
+
+  private int promptTokens;
+
+  private int completionTokens;
+
+  private Instant createdAt;
+
+  // Whether this is the latest review of a subject rather than of one prompt; kept past the TTL as a fallback.
+  private boolean latest;
+
+  public ReviewRecord(String promptHash, String content, int promptTokens, int completionTokens, Instant createdAt) {
+    this.promptHash = promptHash;
+    this.content = content;
+    this.promptTokens = promptTokens;
+    this.completionTokens = completionTokens;
+    this.createdAt = createdAt;
+  }
+}
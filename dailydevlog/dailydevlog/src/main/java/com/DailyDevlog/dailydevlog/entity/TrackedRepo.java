@@ -0,0 +1,61 @@
+package com.DailyDevlog.dailydevlog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A GitHub repository whose commits and issues are mirrored in the local store,
+ * together with the watermarks used for incremental sync.
+ */
+@Entity
+@Table(name = "tracked_repos")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TrackedRepo {
+
+  // "owner/repo", the same form GitHub uses for full_name.
+  @Id
+  @Column(name = "full_name", length = 200)
+  private String fullName;
+
+  @Column(nullable = false)
+  private String owner;
+
+  @Column(nullable = false)
+  private String name;
+
+  // The branch whose history is mirrored.
+  @Column(nullable = false)
+  private String branch;
+
+  // Newest stored commit; the next sync stops once it reaches this SHA.
+  private String lastCommitSha;
+
+  // Commit date of the newest stored commit.
+  private Instant lastCommitDate;
+
+  // When the commit history was last brought up to date.
+  private Instant commitsSyncedAt;
+
+  // When the issues were last brought up to date; sent as since= on the next sync.
+  private Instant issuesSyncedAt;
+
+  public TrackedRepo(String owner, String name, String branch) {
+    this.fullName = fullName(owner, name);
+    this.owner = owner;
+    this.name = name;
+    this.branch = branch;
+  }
+
+  public static String fullName(String owner, String name) {
+    return owner + "/" + name;
+  }
+}
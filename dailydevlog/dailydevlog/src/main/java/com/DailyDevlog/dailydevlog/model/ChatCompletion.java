@@ -0,0 +1,11 @@
+package com.DailyDevlog.dailydevlog.model;
+
+/**
+ * The text and token usage of a GPT chat completion.
+ *
+ * @param content The generated message content.
+ * @param promptTokens The number of prompt tokens billed, from the response's usage field.
+ * @param completionTokens The number of completion tokens billed, from the response's usage field.
+ */
+public record ChatCompletion(String content, int promptTokens, int completionTokens) {
+}
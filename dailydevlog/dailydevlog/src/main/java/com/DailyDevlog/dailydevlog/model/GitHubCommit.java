@@ -0,0 +1,48 @@
+package com.DailyDevlog.dailydevlog.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A commit as returned by GitHub's commit list endpoint.
+ * Only the fields used by the application are bound; everything else in the payload is skipped.
+ *
+ * @param sha The commit SHA.
+ * @param htmlUrl The URL of the commit on GitHub.
+ * @param commit The git commit data (message, author and committer).
+ * @param author The GitHub account linked to the commit author, if any.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record GitHubCommit(String sha, String htmlUrl, CommitInfo commit, GitHubUser author) {
+
+  /**
+   * The git-level part of a commit.
+   *
+   * @param message The full commit message.
+   * @param author The git author signature.
+   * @param committer The git committer signature.
+   */
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public record CommitInfo(String message, Signature author, Signature committer) {
+  }
+
+  /**
+   * A git author or committer signature.
+   *
+   * @param name The name recorded in the commit.
+   * @param email The e-mail recorded in the commit.
+   * @param date The ISO-8601 timestamp of the signature.
+   */
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public record Signature(String name, String email, String date) {
+  }
+
+  /**
+   * Returns the commit message, or an empty string if the payload had none.
+   */
+  public String message() {
+    return commit != null && commit.message() != null ? commit.message() : "";
+  }
+}
@@ -0,0 +1,28 @@
+package com.DailyDevlog.dailydevlog.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.util.List;
+
+/**
+ * A single commit with its changed files, as returned by GitHub's commit detail endpoint.
+ *
+ * @param sha The commit SHA.
+ * @param commit The git commit data (message, author and committer).
+ * @param author The GitHub account linked to the commit author, if any.
+ * @param files The files changed by the commit.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record GitHubCommitDetail(String sha, GitHubCommit.CommitInfo commit, GitHubUser author,
+    List<GitHubCommitFile> files) {
+
+  /**
+   * Returns the changed files, or an empty list if the payload had none.
+   */
+  public List<GitHubCommitFile> files() {
+    return files != null ? files : List.of();
+  }
+}
@@ -0,0 +1,21 @@
+package com.DailyDevlog.dailydevlog.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A file changed by a commit.
+ *
+ * @param filename The path of the file in the repository.
+ * @param status The change type (added, modified, removed, renamed, ...).
+ * @param additions The number of added lines.
+ * @param deletions The number of deleted lines.
+ * @param changes The total number of changed lines.
+ * @param patch The unified diff of the file; absent for binary or very large files.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record GitHubCommitFile(String filename, String status, int additions, int deletions,
+    int changes, String patch) {
+}
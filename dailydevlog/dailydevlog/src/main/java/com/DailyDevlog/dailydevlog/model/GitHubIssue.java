@@ -0,0 +1,24 @@
+package com.DailyDevlog.dailydevlog.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * An issue as returned by GitHub's issue list endpoint.
+ *
+ * @param id The global GitHub issue id.
+ * @param number The issue number within the repository.
+ * @param title The issue title.
+ * @param body The issue body text.
+ * @param state The issue state (open or closed).
+ * @param htmlUrl The URL of the issue on GitHub.
+ * @param user The account that opened the issue.
+ * @param createdAt The ISO-8601 creation time.
+ * @param updatedAt The ISO-8601 time of the last update.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record GitHubIssue(long id, int number, String title, String body, String state, String htmlUrl,
+    GitHubUser user, String createdAt, String updatedAt) {
+}
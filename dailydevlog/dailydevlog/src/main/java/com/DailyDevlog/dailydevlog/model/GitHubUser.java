@@ -0,0 +1,13 @@
+package com.DailyDevlog.dailydevlog.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A GitHub account reference embedded in commit and issue payloads.
+ *
+ * @param login The GitHub username.
+ * @param id The numeric GitHub account id.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitHubUser(String login, Long id) {
+}
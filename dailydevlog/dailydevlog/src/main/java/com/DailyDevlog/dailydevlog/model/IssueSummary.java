@@ -0,0 +1,24 @@
+package com.DailyDevlog.dailydevlog.model;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * The simplified issue view returned by the issue listing endpoints.
+ *
+ * @param title The issue title.
+ * @param body The issue body text.
+ * @param state The issue state (open or closed).
+ * @param url The URL of the issue on GitHub.
+ * @param createdAt The ISO-8601 creation time.
+ * @param updatedAt The ISO-8601 time of the last update.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record IssueSummary(String title, String body, String state, String url, String createdAt,
+    String updatedAt) {
+
+  public static IssueSummary from(GitHubIssue issue) {
+    return new IssueSummary(issue.title(), issue.body(), issue.state(), issue.htmlUrl(),
+        issue.createdAt(), issue.updatedAt());
+  }
+}
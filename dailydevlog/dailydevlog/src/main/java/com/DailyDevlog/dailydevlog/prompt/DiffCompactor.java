@@ -0,0 +1,170 @@
+package com.DailyDevlog.dailydevlog.prompt;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * DiffCompactor removes the parts of a commit's unified diff that carry no review value:
+ * lock files, vendored and generated code, binaries, hunks that only change whitespace,
+ * and unchanged context lines beyond a small margin around each change.
+ */
+public class DiffCompactor {
+
+  // Dependency lock files; their diffs are large and machine-written.
+  private static final Set<String> LOCK_FILES = Set.of(
+      "package-lock.json", "npm-shrinkwrap.json", "yarn.lock", "pnpm-lock.yaml", "bun.lockb",
+      "gemfile.lock", "poetry.lock", "pipfile.lock", "cargo.lock", "composer.lock",
+      "go.sum", "gradle.lockfile", "packages.lock.json", "podfile.lock", "mix.lock"
+  );
+
+  // Directories holding third-party code or tool state, at any depth.
+  private static final List<String> VENDORED_DIRECTORIES = List.of(
+      "vendor/", "node_modules/", "third_party/", "third-party/", "bower_components/", ".gradle/", ".idea/",
+      "generated/", "generated-sources/"
+  );
+
+  // Build output directories; only at the repository root, since names such as "build/" are also used for sources.
+  private static final List<String> OUTPUT_DIRECTORIES = List.of("dist/", "build/", "out/", "target/");
+
+  // File name endings of generated code.
+  private static final List<String> GENERATED_SUFFIXES = List.of(
+      ".min.js", ".min.css", ".map", ".pb.go", "_pb2.py", ".pb.java", ".g.dart", ".designer.cs"
+  );
+
+  // File name part of generated code, e.g. "schema.generated.ts".
+  private static final String GENERATED_INFIX = ".generated.";
+
+  private static final Set<String> BINARY_EXTENSIONS = Set.of(
+      "png", "jpg", "jpeg", "gif", "bmp", "ico", "webp", "svgz", "pdf", "zip", "gz", "tgz", "jar",
+      "war", "class", "so", "dll", "dylib", "exe", "bin", "woff", "woff2", "ttf", "otf", "eot",
+      "mp3", "mp4", "mov", "avi", "wav", "psd", "sketch", "db", "sqlite"
+  );
+
+  // Unchanged lines kept before and after each change.
+  private final int contextLines;
+
+  public DiffCompactor(int contextLines) {
+    this.contextLines = Math.max(0, contextLines);
+  }
+
+  /**
+   * Returns whether a file's diff is worth sending for review at all.
+   *
+   * @param file A changed file of a commit.
+   * @return false for binaries, lock files, vendored and generated files.
+   */
+  public boolean isReviewable(GitHubCommitFile file) {
+    if (file.patch() == null || file.patch().isEmpty()) {
+      return false; // GitHub omits the patch for binary and very large files.
+    }
+    String path = file.filename().toLowerCase(Locale.ROOT);
+    String name = path.substring(path.lastIndexOf('/') + 1);
+    if (LOCK_FILES.contains(name)) {
+      return false;
+    }
+    String rooted = "/" + path;
+    for (String directory : VENDORED_DIRECTORIES) {
+      if (rooted.contains("/" + directory)) {
+        return false;
+      }
+    }
+    for (String directory : OUTPUT_DIRECTORIES) {
+      if (path.startsWith(directory)) {
+        return false;
+      }
+    }
+    for (String suffix : GENERATED_SUFFIXES) {
+      if (name.endsWith(suffix)) {
+        return false;
+      }
+    }
+    if (name.contains(GENERATED_INFIX)) {
+      return false;
+    }
+    int dot = name.lastIndexOf('.');
+    return dot < 0 || !BINARY_EXTENSIONS.contains(name.substring(dot + 1));
+  }
+
+  /**
+   * Compacts a unified diff: hunks that only change whitespace are dropped, and context
+   * lines further than {@code contextLines} from a change are removed.
+   * Hunk headers are kept so the reviewer still sees where each change is.
+   *
+   * @param patch The unified diff of one file, as returned by GitHub.
+   * @return The compacted lines; empty if no hunk changes anything but whitespace.
+   */
+  public List<String> compact(String patch) {
+    List<String> result = new ArrayList<>();
+    List<String> hunk = new ArrayList<>();
+    for (String line : patch.split("\n", -1)) {
+      if (line.startsWith("@@") && !hunk.isEmpty()) {
+        appendHunk(hunk, result);
+        hunk.clear();
+      }
+      if (line.startsWith("\\")) {
+        continue; // "\ No newline at end of file"
+      }
+      hunk.add(line);
+    }
+    appendHunk(hunk, result);
+    return result;
+  }
+
+  private void appendHunk(List<String> hunk, List<String> result) {
+    if (hunk.isEmpty() || isWhitespaceOnly(hunk)) {
+      return;
+    }
+
+    // Marks the lines within contextLines of a change.
+    boolean[] keep = new boolean[hunk.size()];
+    for (int i = 0; i < hunk.size(); i++) {
+      String line = hunk.get(i);
+      if (line.startsWith("@@")) {
+        keep[i] = true;
+      } else if (isChange(line)) {
+        for (int j = Math.max(0, i - contextLines); j <= Math.min(hunk.size() - 1, i + contextLines); j++) {
+          keep[j] = true;
+        }
+      }
+    }
+    for (int i = 0; i < hunk.size(); i++) {
+      if (keep[i] && !(hunk.get(i).isEmpty() && i == hunk.size() - 1)) {
+        result.add(hunk.get(i));
+      }
+    }
+  }
+
+  // A hunk is whitespace-only when its removed and added lines are equal once all whitespace is ignored.
+  private static boolean isWhitespaceOnly(List<String> hunk) {
+    StringBuilder removed = new StringBuilder();
+    StringBuilder added = new StringBuilder();
+    boolean changed = false;
+    for (String line : hunk) {
+      if (line.startsWith("-")) {
+        appendNonWhitespace(removed, line);
+        changed = true;
+      } else if (line.startsWith("+")) {
+        appendNonWhitespace(added, line);
+        changed = true;
+      }
+    }
+    return !changed || removed.toString().contentEquals(added);
+  }
+
+  private static void appendNonWhitespace(StringBuilder target, String line) {
+    for (int i = 1; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (!Character.isWhitespace(c)) {
+        target.append(c);
+      }
+    }
+  }
+
+  private static boolean isChange(String line) {
+    return line.startsWith("+") || line.startsWith("-");
+  }
+}
@@ -0,0 +1,505 @@
+package com.DailyDevlog.dailydevlog.prompt;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * PromptBuilder assembles the code review prompt within a fixed token budget.
+ * Diffs are compacted first, files with the most churn are included first,
+ * and the last file that does not fit whole is cut at a line boundary so the budget is used up.
+ * Commit messages get up to a quarter of the budget, plus whatever the diffs leave over.
+ * Change sets too large for one prompt can instead be split into several budget-sized prompts,
+ * reviewed separately and merged by a final prompt.
+ * The same budgeting also builds the daily retrospective prompt over a user's activity in several repositories.
+ */
+@Component // Marks this class as a Spring-managed component.
+public class PromptBuilder {
+
+  /**
+   * An assembled prompt with the numbers behind it.
+   *
+   * @param text The prompt to send to GPT.
+   * @param estimatedTokens The estimated size of {@code text}.
+   * @param includedFiles Files included in full.
+   * @param truncatedFiles Files cut to fit the budget.
+   * @param omittedFiles Files dropped as not reviewable or left out for lack of budget.
+   */
+  public record ReviewPrompt(String text, int estimatedTokens, int includedFiles, int truncatedFiles,
+      int omittedFiles) {
+  }
+
+  /**
+   * A change set split into prompts that each fit the budget.
+   *
+   * @param chunks One prompt per part of the change set; each accounts for the files it contains.
+   * @param reviewedFiles Files included in at least one chunk, whole or in part.
+   * @param omittedFiles Files dropped as not reviewable or left out because every chunk was full.
+   */
+  public record ChunkedPrompt(List<ReviewPrompt> chunks, int reviewedFiles, int omittedFiles) {
+  }
+
+  // Share of the budget reserved for commit messages before diffs are added.
+  private static final int MESSAGE_SHARE_DIVISOR = 4;
+
+  // Share of the budget left unused, since the token estimate can still fall short of the real count.
+  static final int SAFETY_MARGIN_PERCENT = 5;
+
+  // Prompt tokens available for instructions, commit messages and diffs.
+  private final int budgetTokens;
+
+  // Prompt tokens actually filled: the budget less the safety margin.
+  private final int fillTokens;
+
+  private final DiffCompactor compactor;
+
+  @Autowired
+  public PromptBuilder(
+      @Value("${openai.prompt.max-tokens:3000}") int budgetTokens,
+      @Value("${openai.prompt.context-lines:1}") int contextLines
+  ) {
+    this.budgetTokens = budgetTokens;
+    this.fillTokens = budgetTokens - budgetTokens * SAFETY_MARGIN_PERCENT / 100;
+    this.compactor = new DiffCompactor(contextLines);
+  }
+
+  /**
+   * Formats the code review prompt around the given commit messages and code changes.
+   *
+   * @param commitMessages The commit messages, one per line.
+   * @param codeChanges The code changes to review.
+   * @return The complete user prompt.
+   */
+  public static String format(String commitMessages, String codeChanges) {
+    return "Here are the GitHub commit messages and code changes. " +
+        "Please evaluate code quality, and let me know good habits and things to improve.\n\n" +
+        "Commit message: " + commitMessages + "\n\n" +
+        "Code change history: " + codeChanges + "\n\n" +
+        "Explain good and bad habits with specific examples, " +
+        "Please suggest a way to improve your bad habits.";
+  }
+
+  /**
+   * Formats the prompt for one part of a change set that is reviewed in several parts.
+   *
+   * @param commitMessages The commit messages, one per line.
+   * @param codeChanges The code changes of this part.
+   * @param part The number of this part, from 1.
+   * @param parts The number of parts.
+   * @return The complete user prompt.
+   */
+  public static String formatChunk(String commitMessages, String codeChanges, int part, int parts) {
+    return "Here are the GitHub commit messages and part " + part + " of " + parts + " of the code changes. " +
+        "Please evaluate the code quality of this part, and list good habits and things to improve " +
+        "as short findings, naming the file of each finding.\n\n" +
+        "Commit message: " + commitMessages + "\n\n" +
+        "Code change history: " + codeChanges;
+  }
+
+  /**
+   * Formats the prompt that merges the reviews of the parts of a change set into one review.
+   *
+   * @param findings The reviews of the parts, each headed with its part number.
+   * @param missingParts The number of parts that could not be reviewed.
+   * @return The complete user prompt.
+   */
+  public static String formatReduce(String findings, int missingParts) {
+    return "Here are code reviews of the parts of one change set of GitHub commits. " +
+        "Please merge them into a single review: remove duplicates, group related findings, " +
+        "and keep the specific examples.\n\n" +
+        findings + "\n" +
+        (missingParts > 0
+            ? missingParts + " part(s) of the change set could not be reviewed; say that the review is incomplete.\n\n"
+            : "") +
+        "Explain good and bad habits with specific examples, " +
+        "Please suggest a way to improve your bad habits.";
+  }
+
+  /**
+   * Formats the daily retrospective prompt over one user's activity across repositories.
+   *
+   * @param day The day the activity belongs to, e.g. "2025-03-01".
+   * @param commitMessages The commit messages, one per line, each prefixed with its repository.
+   * @param codeChanges The code changes, each file prefixed with its repository.
+   * @return The complete user prompt.
+   */
+  public static String formatRetrospective(String day, String commitMessages, String codeChanges) {
+    return "Here are the GitHub commit messages and code changes I made on " + day + " across my repositories. " +
+        "Please write a short daily retrospective: summarize what I worked on in each repository, " +
+        "evaluate the code quality, and let me know good habits and things to improve.\n\n" +
+        "Commit message: " + commitMessages + "\n\n" +
+        "Code change history: " + codeChanges + "\n\n" +
+        "Explain good and bad habits with specific examples, " +
+        "Please suggest a way to improve your bad habits tomorrow.";
+  }
+
+  public int getBudgetTokens() {
+    return budgetTokens;
+  }
+
+  /**
+   * Estimates how many prompt tokens a file would take after compaction.
+   * Lets callers stop fetching commits once there is enough material to fill the budget.
+   *
+   * @param file A changed file of a commit.
+   * @return The estimated tokens, or 0 if the file would be dropped.
+   */
+  public int estimateFile(GitHubCommitFile file) {
+    if (!compactor.isReviewable(file)) {
+      return 0;
+    }
+    List<String> lines = compactor.compact(file.patch());
+    return lines.isEmpty() ? 0 : cost(lines, 0, lines.size()) + lineCost(fileHeader(file));
+  }
+
+  /**
+   * Builds the review prompt for the given commits.
+   *
+   * @param commitMessages The commit messages, newest first.
+   * @param files The changed files of the selected commits.
+   * @return The prompt and its token accounting.
+   */
+  public ReviewPrompt build(List<String> commitMessages, List<GitHubCommitFile> files) {
+    return build(commitMessages, files, PromptBuilder::format);
+  }
+
+  /**
+   * Builds the daily retrospective prompt within the same budget as a review prompt.
+   *
+   * @param day The day the activity belongs to.
+   * @param commitMessages The commit messages, newest first, already deduplicated.
+   * @param files The changed files of those commits, already deduplicated.
+   * @return The prompt and its token accounting.
+   */
+  public ReviewPrompt buildRetrospective(String day, List<String> commitMessages, List<GitHubCommitFile> files) {
+    return build(commitMessages, files, (messages, changes) -> formatRetrospective(day, messages, changes));
+  }
+
+  // Fills the template's commit message and code change slots within the budget.
+  private ReviewPrompt build(List<String> commitMessages, List<GitHubCommitFile> files,
+      BinaryOperator<String> template) {
+    int available = Math.max(0, fillTokens - TokenEstimator.estimate(template.apply("", "")));
+
+    // 1. Commit messages, line by line, up to their share of the budget
+    List<String> messageLines = new ArrayList<>();
+    for (String message : commitMessages) {
+      messageLines.addAll(List.of(message.split("\n")));
+    }
+    StringBuilder messages = new StringBuilder();
+    int messageTokens = 0;
+    int nextMessageLine = 0;
+    int messageBudget = Math.min(available / MESSAGE_SHARE_DIVISOR, cost(messageLines, 0, messageLines.size()));
+    while (nextMessageLine < messageLines.size()) {
+      int lineCost = lineCost(messageLines.get(nextMessageLine));
+      if (messageTokens + lineCost > messageBudget) {
+        break;
+      }
+      messages.append(messageLines.get(nextMessageLine++)).append('\n');
+      messageTokens += lineCost;
+    }
+
+    // 2. Compacted diffs, highest churn first
+    List<CompactedFile> candidates = new ArrayList<>();
+    int omitted = 0;
+    for (GitHubCommitFile file : files) {
+      List<String> lines = compactor.isReviewable(file) ? compactor.compact(file.patch()) : List.of();
+      if (lines.isEmpty()) {
+        omitted++;
+      } else {
+        candidates.add(new CompactedFile(file, lines));
+      }
+    }
+    candidates.sort(Comparator.comparingInt((CompactedFile candidate) -> candidate.churn()).reversed());
+
+    int remaining = available - messageTokens;
+    List<String> included = new ArrayList<>();
+    int[] keptLines = new int[candidates.size()];
+
+    // Whole files first, skipping any that do not fit...
+    for (int i = 0; i < candidates.size(); i++) {
+      CompactedFile candidate = candidates.get(i);
+      if (candidate.cost() <= remaining) {
+        keptLines[i] = candidate.lines().size();
+        remaining -= candidate.cost();
+      }
+    }
+    // ...then the skipped files, cut at a line boundary, until the budget is spent.
+    int truncated = 0;
+    for (int i = 0; i < candidates.size() && remaining > 0; i++) {
+      CompactedFile candidate = candidates.get(i);
+      if (keptLines[i] > 0) {
+        continue;
+      }
+      int used = lineCost(candidate.header());
+      int lines = 0;
+      while (lines < candidate.lines().size() && used + lineCost(candidate.lines().get(lines)) <= remaining) {
+        used += lineCost(candidate.lines().get(lines++));
+      }
+      if (lines > 0) {
+        keptLines[i] = lines;
+        remaining -= used;
+        truncated++;
+      }
+    }
+
+    StringBuilder changes = new StringBuilder();
+    int whole = 0;
+    for (int i = 0; i < candidates.size(); i++) {
+      if (keptLines[i] == 0) {
+        omitted++;
+        continue;
+      }
+      CompactedFile candidate = candidates.get(i);
+      if (keptLines[i] == candidate.lines().size()) {
+        whole++;
+      }
+      changes.append(candidate.header()).append('\n');
+      for (String line : candidate.lines().subList(0, keptLines[i])) {
+        changes.append(line).append('\n');
+      }
+    }
+
+    // 3. Budget the diffs left over goes to the remaining commit messages
+    while (nextMessageLine < messageLines.size() && lineCost(messageLines.get(nextMessageLine)) <= remaining) {
+      remaining -= lineCost(messageLines.get(nextMessageLine));
+      messages.append(messageLines.get(nextMessageLine++)).append('\n');
+    }
+
+    String text = template.apply(messages.toString(), changes.toString());
+    return new ReviewPrompt(text, TokenEstimator.estimate(text), whole, truncated, omitted);
+  }
+
+  /**
+   * Splits a change set into at most {@code maxChunks} prompts within the token budget.
+   * Files are split at hunk boundaries, and hunks larger than a whole prompt at line boundaries;
+   * the pieces are packed highest churn first into the first prompt with room left.
+   * Every prompt carries the commit messages, up to their share of the budget, as context.
+   *
+   * @param commitMessages The commit messages, newest first.
+   * @param files The changed files of the selected commits.
+   * @param maxChunks The maximum number of prompts.
+   * @return The prompts, and how many files they cover.
+   */
+  public ChunkedPrompt buildChunks(List<String> commitMessages, List<GitHubCommitFile> files, int maxChunks) {
+    int available = Math.max(0, fillTokens - TokenEstimator.estimate(formatChunk("", "", maxChunks, maxChunks)));
+
+    // 1. Commit messages, line by line, up to their share of the budget
+    StringBuilder messages = new StringBuilder();
+    int messageTokens = 0;
+    messageLines:
+    for (String message : commitMessages) {
+      for (String line : message.split("\n")) {
+        if (messageTokens + lineCost(line) > available / MESSAGE_SHARE_DIVISOR) {
+          break messageLines;
+        }
+        messages.append(line).append('\n');
+        messageTokens += lineCost(line);
+      }
+    }
+    int diffBudget = available - messageTokens;
+
+    // 2. Compacted diffs, highest churn first, cut into pieces that fit one prompt
+    List<CompactedFile> candidates = new ArrayList<>();
+    int omitted = 0;
+    for (GitHubCommitFile file : files) {
+      List<String> lines = compactor.isReviewable(file) ? compactor.compact(file.patch()) : List.of();
+      if (lines.isEmpty()) {
+        omitted++;
+      } else {
+        candidates.add(new CompactedFile(file, lines));
+      }
+    }
+    candidates.sort(Comparator.comparingInt((CompactedFile candidate) -> candidate.churn()).reversed());
+
+    List<Piece> pieces = new ArrayList<>();
+    int[] pieceCount = new int[candidates.size()];
+    boolean[] cut = new boolean[candidates.size()];
+    for (int i = 0; i < candidates.size(); i++) {
+      List<Piece> filePieces = split(i, candidates.get(i), diffBudget);
+      pieceCount[i] = filePieces.size();
+      // Lines larger than a whole prompt are left out, so such a file is never reviewed whole.
+      cut[i] = filePieces.stream().mapToInt(piece -> piece.lines().size()).sum() < candidates.get(i).lines().size();
+      pieces.addAll(filePieces);
+    }
+
+    // 3. First fit: each piece goes into the first chunk with room, or opens a new one
+    List<List<Piece>> chunks = new ArrayList<>();
+    List<Integer> chunkRemaining = new ArrayList<>();
+    int[] placed = new int[candidates.size()];
+    for (Piece piece : pieces) {
+      int target = -1;
+      for (int c = 0; c < chunks.size() && target < 0; c++) {
+        if (chunkRemaining.get(c) >= piece.cost()) {
+          target = c;
+        }
+      }
+      if (target < 0 && chunks.size() < maxChunks) {
+        chunks.add(new ArrayList<>());
+        chunkRemaining.add(diffBudget);
+        target = chunks.size() - 1;
+      }
+      if (target >= 0) {
+        chunks.get(target).add(piece);
+        chunkRemaining.set(target, chunkRemaining.get(target) - piece.cost());
+        placed[piece.file()]++;
+      }
+    }
+
+    int reviewed = 0;
+    for (int i = 0; i < candidates.size(); i++) {
+      if (placed[i] > 0) {
+        reviewed++;
+      } else {
+        omitted++;
+      }
+    }
+
+    List<ReviewPrompt> prompts = new ArrayList<>();
+    for (int c = 0; c < chunks.size(); c++) {
+      Map<Integer, Integer> piecesOfFile = new LinkedHashMap<>();
+      StringBuilder changes = new StringBuilder();
+      for (Piece piece : chunks.get(c)) {
+        piecesOfFile.merge(piece.file(), 1, Integer::sum);
+        changes.append(piece.header()).append('\n');
+        for (String line : piece.lines()) {
+          changes.append(line).append('\n');
+        }
+      }
+      int whole = 0;
+      for (Map.Entry<Integer, Integer> entry : piecesOfFile.entrySet()) {
+        if (entry.getValue() == pieceCount[entry.getKey()] && !cut[entry.getKey()]) {
+          whole++;
+        }
+      }
+      String text = formatChunk(messages.toString(), changes.toString(), c + 1, chunks.size());
+      prompts.add(new ReviewPrompt(text, TokenEstimator.estimate(text), whole, piecesOfFile.size() - whole, 0));
+    }
+    return new ChunkedPrompt(prompts, reviewed, omitted);
+  }
+
+  /**
+   * Builds the prompt merging the reviews of the parts of a change set. Each review gets an
+   * equal share of the budget and is cut at a line boundary if it is longer.
+   *
+   * @param reviews The reviews of the parts that were reviewed, in part order.
+   * @param missingParts The number of parts that could not be reviewed.
+   * @return The complete user prompt.
+   */
+  public String buildReduce(List<String> reviews, int missingParts) {
+    int available = Math.max(0, fillTokens - TokenEstimator.estimate(formatReduce("", missingParts)));
+    int share = reviews.isEmpty() ? 0 : available / reviews.size();
+
+    StringBuilder findings = new StringBuilder();
+    for (int i = 0; i < reviews.size(); i++) {
+      String heading = "Review of part " + (i + 1) + ":";
+      int used = lineCost(heading);
+      findings.append(heading).append('\n');
+      for (String line : reviews.get(i).split("\n")) {
+        if (used + lineCost(line) > share) {
+          break;
+        }
+        findings.append(line).append('\n');
+        used += lineCost(line);
+      }
+      findings.append('\n');
+    }
+    return formatReduce(findings.toString(), missingParts);
+  }
+
+  // Cuts a file into pieces of at most `budget` tokens, each with the file header: whole hunks
+  // where they fit, and hunks larger than a piece at line boundaries.
+  private static List<Piece> split(int fileIndex, CompactedFile file, int budget) {
+    List<Piece> pieces = new ArrayList<>();
+    String header = file.header();
+    int headerCost = lineCost(header);
+    List<String> current = new ArrayList<>();
+    int currentCost = headerCost;
+
+    for (List<String> hunk : hunks(file.lines())) {
+      int hunkCost = cost(hunk, 0, hunk.size());
+      if (currentCost + hunkCost > budget && !current.isEmpty()) {
+        pieces.add(new Piece(fileIndex, header, List.copyOf(current), currentCost));
+        current.clear();
+        currentCost = headerCost;
+      }
+      if (headerCost + hunkCost <= budget) {
+        current.addAll(hunk);
+        currentCost += hunkCost;
+        continue;
+      }
+      for (String line : hunk) {
+        int lineCost = lineCost(line);
+        if (headerCost + lineCost > budget) {
+          continue; // A single line larger than a whole prompt can't be reviewed; the file counts as truncated.
+        }
+        if (currentCost + lineCost > budget) {
+          pieces.add(new Piece(fileIndex, header, List.copyOf(current), currentCost));
+          current.clear();
+          currentCost = headerCost;
+        }
+        current.add(line);
+        currentCost += lineCost;
+      }
+    }
+    if (!current.isEmpty()) {
+      pieces.add(new Piece(fileIndex, header, List.copyOf(current), currentCost));
+    }
+    return pieces;
+  }
+
+  // Groups compacted diff lines into hunks, each starting at its "@@" line.
+  private static List<List<String>> hunks(List<String> lines) {
+    List<List<String>> hunks = new ArrayList<>();
+    for (String line : lines) {
+      if (hunks.isEmpty() || line.startsWith("@@")) {
+        hunks.add(new ArrayList<>());
+      }
+      hunks.get(hunks.size() - 1).add(line);
+    }
+    return hunks;
+  }
+
+  private static String fileHeader(GitHubCommitFile file) {
+    return "File: " + file.filename() + " (" + file.status() + ", +" + file.additions() + " -" + file.deletions() + ")";
+  }
+
+  // Lines are measured with their line break; the sum never under-estimates the joined text.
+  private static int lineCost(String line) {
+    return TokenEstimator.estimate(line) + 1;
+  }
+
+  private static int cost(List<String> lines, int from, int to) {
+    int total = 0;
+    for (int i = from; i < to; i++) {
+      total += lineCost(lines.get(i));
+    }
+    return total;
+  }
+
+  // Part of a file's compacted diff that fits one prompt; `file` indexes the sorted candidates.
+  private record Piece(int file, String header, List<String> lines, int cost) {
+  }
+
+  private record CompactedFile(GitHubCommitFile file, List<String> lines) {
+
+    int churn() {
+      return file.additions() + file.deletions();
+    }
+
+    String header() {
+      return fileHeader(file);
+    }
+
+    int cost() {
+      return lineCost(header()) + PromptBuilder.cost(lines, 0, lines.size());
+    }
+  }
+}
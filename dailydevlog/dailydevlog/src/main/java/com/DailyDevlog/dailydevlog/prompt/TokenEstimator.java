@@ -0,0 +1,93 @@
+package com.DailyDevlog.dailydevlog.prompt;
+
+/**
+ * TokenEstimator approximates how many tokens the GPT tokenizer produces for a piece of text,
+ * without shipping the tokenizer's vocabulary.
+ * The estimate follows how the GPT tokenizer (cl100k) splits text before BPE merges: letters and
+ * digits never share a token, digit runs are split into groups of at most three, and a word is
+ * further split at camel-case humps and underscores. Each letter piece costs one token per six
+ * characters, a leading space merges into the next word, punctuation costs one token per character,
+ * and a run of indentation or line breaks costs one token.
+ * Since every piece is at least one real token, SHAs, numbers and identifiers are never under-counted
+ * by their split alone; long rare words still can be, so {@link PromptBuilder} keeps a safety margin.
+ */
+public final class TokenEstimator {
+
+  private TokenEstimator() {
+  }
+
+  /**
+   * Estimates the number of tokens in the given text.
+   *
+   * @param text The text to measure.
+   * @return The estimated token count; zero for empty text.
+   */
+  public static int estimate(CharSequence text) {
+    int tokens = 0;
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c) || c == '_') {
+        int start = i;
+        while (i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+          i++;
+        }
+        tokens += wordTokens(text, start, i);
+      } else if (c == ' ' && i + 1 < length && isWordChar(text.charAt(i + 1))) {
+        i++; // A single space is part of the following word's token.
+      } else if (Character.isWhitespace(c)) {
+        while (i < length && Character.isWhitespace(text.charAt(i))) {
+          i++;
+        }
+        tokens++;
+      } else {
+        // Punctuation and symbols; non-ASCII characters often take more than one token.
+        tokens += c < 128 ? 1 : 2;
+        i++;
+      }
+    }
+    return tokens;
+  }
+
+  // Splits a word into digit runs and letter pieces, and charges each piece separately.
+  private static int wordTokens(CharSequence text, int start, int end) {
+    int tokens = 0;
+    int i = start;
+    while (i < end) {
+      int pieceStart = i;
+      if (Character.isDigit(text.charAt(i))) {
+        while (i < end && Character.isDigit(text.charAt(i))) {
+          i++;
+        }
+        tokens += (i - pieceStart + 2) / 3; // At most three digits per token.
+        continue;
+      }
+      // A letter piece: an optional underscore, then letters up to the next digit, underscore or hump.
+      i++;
+      while (i < end && !Character.isDigit(text.charAt(i)) && text.charAt(i) != '_'
+          && !(Character.isUpperCase(text.charAt(i)) && Character.isLowerCase(text.charAt(i - 1)))) {
+        i++;
+      }
+      tokens += letterTokens(text, pieceStart, i);
+    }
+    return tokens;
+  }
+
+  private static int letterTokens(CharSequence text, int start, int end) {
+    int tokens = 0;
+    int ascii = 0;
+    for (int i = start; i < end; i++) {
+      if (text.charAt(i) < 128) {
+        ascii++;
+      } else {
+        tokens++;
+      }
+    }
+    return ascii == 0 ? tokens : tokens + 1 + (ascii - 1) / 6;
+  }
+
+  private static boolean isWordChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
+}
@@ -0,0 +1,30 @@
+package com.DailyDevlog.dailydevlog.repository;
+
+import com.DailyDevlog.dailydevlog.entity.CommitFileRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CommitFileRecordRepository extends JpaRepository<CommitFileRecord, String> {
+
+  List<CommitFileRecord> findByCommitIdOrderByPositionAsc(String commitId);
+
+  /**
+   * Returns the file names changed by the commits whose id starts with the prefix, i.e. by the
+   * commits of one repository ("owner/repo@"), without loading the patches.
+   */
+  List<ChangedPath> findByCommitIdStartingWith(String commitIdPrefix);
+
+  /**
+   * Returns the file names changed by the given commits, without loading the patches.
+   */
+  List<ChangedPath> findByCommitIdIn(Collection<String> commitIds);
+
+  interface ChangedPath {
+
+    String getCommitId();
+
+    String getFilename();
+  }
+}
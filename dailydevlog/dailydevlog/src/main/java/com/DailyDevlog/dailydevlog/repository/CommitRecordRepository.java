@@ -0,0 +1,47 @@
+package com.DailyDevlog.dailydevlog.repository;
+
+import com.DailyDevlog.dailydevlog.entity.CommitRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface CommitRecordRepository extends JpaRepository<CommitRecord, String> {
+
+  List<CommitRecord> findByRepoFullNameOrderByCommittedAtDesc(String repoFullName, Pageable pageable);
+
+  List<CommitRecord> findByRepoFullNameAndAuthorLoginOrderByCommittedAtDesc(
+      String repoFullName, String authorLogin, Pageable pageable);
+
+  /**
+   * Returns the commits of an author committed in [since, until), newest first.
+   */
+  List<CommitRecord> findByRepoFullNameAndAuthorLoginAndCommittedAtGreaterThanEqualAndCommittedAtLessThanOrderByCommittedAtDesc(
+      String repoFullName, String authorLogin, Instant since, Instant until, Pageable pageable);
+
+  /**
+   * Returns the searchable fields of every commit of a repository, oldest first, without loading whole entities.
+   */
+  List<SearchableCommit> findByRepoFullNameOrderByCommittedAtAsc(String repoFullName);
+
+  /**
+   * Returns the searchable fields of the commits of a repository written to the store at or after a time,
+   * in commit date order.
+   */
+  List<SearchableCommit> findByRepoFullNameAndStoredAtGreaterThanEqualOrderByCommittedAtAsc(
+      String repoFullName, Instant since);
+
+  interface SearchableCommit {
+
+    String getSha();
+
+    String getMessage();
+
+    Instant getCommittedAt();
+
+    Instant getStoredAt();
+
+    String getAuthorLogin();
+  }
+}
@@ -0,0 +1,12 @@
+package com.DailyDevlog.dailydevlog.repository;
+
+import com.DailyDevlog.dailydevlog.entity.IssueRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface IssueRecordRepository extends JpaRepository<IssueRecord, Long> {
+
+  List<IssueRecord> findByRepoFullNameOrderByUpdatedAtDesc(String repoFullName, Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package com.DailyDevlog.dailydevlog.repository;
+
+import com.DailyDevlog.dailydevlog.entity.RegisteredUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RegisteredUserRepository extends JpaRepository<RegisteredUser, String> {
+
+  // Whether any user still registers the repository.
+  boolean existsByRepoFullNamesContaining(String repoFullName);
+}
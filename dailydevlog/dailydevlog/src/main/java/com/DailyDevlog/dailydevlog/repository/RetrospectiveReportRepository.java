@@ -0,0 +1,7 @@
+package com.DailyDevlog.dailydevlog.repository;
+
+import com.DailyDevlog.dailydevlog.entity.RetrospectiveReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RetrospectiveReportRepository extends JpaRepository<RetrospectiveReport, String> {
+}
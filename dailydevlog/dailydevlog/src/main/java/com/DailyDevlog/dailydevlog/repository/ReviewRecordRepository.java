@@ -0,0 +1,30 @@
+package com.DailyDevlog.dailydevlog.repository;
+
+import com.DailyDevlog.dailydevlog.entity.ReviewRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ReviewRecordRepository extends JpaRepository<ReviewRecord, String> {
+
+  // Deletes expired prompt reviews in one statement; latest reviews of a subject are kept.
+  @Transactional
+  @Modifying
+  @Query("delete from ReviewRecord r where r.latest = false and r.createdAt < :cutoff")
+  int deleteReviewsCreatedBefore(@Param("cutoff") Instant cutoff);
+
+  // Deletes every review, including latest ones, created before the cutoff.
+  @Transactional
+  @Modifying
+  @Query("delete from ReviewRecord r where r.createdAt < :cutoff")
+  int deleteAllCreatedBefore(@Param("cutoff") Instant cutoff);
+
+  @Query("select r.createdAt from ReviewRecord r order by r.createdAt desc")
+  List<Instant> findCreatedAtNewestFirst(Pageable pageable);
+}
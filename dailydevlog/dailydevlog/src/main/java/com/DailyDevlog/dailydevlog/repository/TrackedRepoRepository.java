@@ -0,0 +1,21 @@
+package com.DailyDevlog.dailydevlog.repository;
+
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface TrackedRepoRepository extends JpaRepository<TrackedRepo, String> {
+
+  /**
+   * Reads a tracked repository and locks its row until the transaction ends,
+   * so that writers of the same repository take turns, on every instance.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select t from TrackedRepo t where t.fullName = :fullName")
+  Optional<TrackedRepo> lockById(@Param("fullName") String fullName);
+}
@@ -0,0 +1,380 @@
+package com.DailyDevlog.dailydevlog.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory inverted index over the commits of one repository: commit message words and
+ * touched file paths map to the commits containing them.
+ * <p>
+ * Commits are numbered in the order they are added, and a query is evaluated as bitsets over
+ * those numbers, so its cost depends on the number of matching commits rather than on the
+ * length of the history. Matches are collected from the last added commit backwards, which
+ * finds the newest ones first when commits are added oldest first. Commits and paths can be added at any time; adding one twice has no effect.
+ * Safe for concurrent use: queries share a read lock, additions take the write lock.
+ */
+public class CommitIndex {
+
+  // Stands in for commits without a commit date; they never match a time range.
+  private static final long NO_TIME = Long.MIN_VALUE;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Per-commit columns, indexed by commit number.
+  private String[] shas = new String[64];
+  private long[] times = new long[64];
+  private String[] subjects = new String[64];
+  private String[] authors = new String[64];
+  private boolean[] pathsIndexed = new boolean[64];
+  private int size;
+
+  // Whether commits were added in commit date order, as the store loads them; searches then
+  // stop at the first `limit` matches, counting down from the last added commit.
+  private boolean dateOrdered = true;
+
+  private final Map<String, Integer> docBySha = new HashMap<>();
+
+  // Sorted, so that prefix terms ("regress*", "path:src/") are a range lookup.
+  private final TreeMap<String, Postings> messageTerms = new TreeMap<>();
+  private final TreeMap<String, Postings> pathTerms = new TreeMap<>();
+
+  /**
+   * A matching commit.
+   *
+   * @param sha The commit SHA.
+   * @param committedAt The commit date, or null if unknown.
+   * @param subject The first line of the commit message.
+   */
+  public record Hit(String sha, Instant committedAt, String subject) {
+  }
+
+  /**
+   * Adds a commit and the words of its message, unless it is already indexed.
+   *
+   * @param sha The commit SHA.
+   * @param committedAt The commit date, or null if unknown.
+   * @param message The full commit message, or null.
+   */
+  public void addCommit(String sha, Instant committedAt, String message) {
+    addCommit(sha, committedAt, message, null);
+  }
+
+  /**
+   * Same as {@link #addCommit(String, Instant, String)}, and records the commit's GitHub author.
+   *
+   * @param sha The commit SHA.
+   * @param committedAt The commit date, or null if unknown.
+   * @param message The full commit message, or null.
+   * @param authorLogin (Optional) The GitHub login of the author.
+   */
+  public void addCommit(String sha, Instant committedAt, String message, String authorLogin) {
+    String text = message != null ? message : "";
+    // Tokenizes outside the lock; only the postings update is exclusive.
+    Set<String> words = Set.copyOf(Tokenizer.words(text));
+
+    lock.writeLock().lock();
+    try {
+      if (docBySha.containsKey(sha)) {
+        return;
+      }
+      int doc = newDoc(sha, committedAt != null ? committedAt.getEpochSecond() : NO_TIME, subjectOf(text),
+          authorLogin);
+      for (String word : words) {
+        messageTerms.computeIfAbsent(word, key -> new Postings()).add(doc);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds the paths touched by an indexed commit. Only the first call per commit has an effect,
+   * since the changed files of a commit never change; unknown commits are ignored.
+   *
+   * @param sha The commit SHA.
+   * @param paths The file paths changed by the commit.
+   * @return Whether the paths were added.
+   */
+  public boolean addPaths(String sha, Collection<String> paths) {
+    List<String> terms = new ArrayList<>();
+    for (String path : paths) {
+      if (path != null) {
+        terms.addAll(Tokenizer.pathTerms(path));
+      }
+    }
+
+    lock.writeLock().lock();
+    try {
+      Integer doc = docBySha.get(sha);
+      if (doc == null || pathsIndexed[doc]) {
+        return false;
+      }
+      pathsIndexed[doc] = true;
+      for (String term : terms) {
+        Postings postings = pathTerms.computeIfAbsent(term, key -> new Postings());
+        // Files of one commit share directories; a commit is listed once per term.
+        if (postings.last() != doc) {
+          postings.add(doc);
+        }
+      }
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the newest commits matching a query within a time range.
+   *
+   * @param query The parsed query; a query without clauses matches every commit.
+   * @param since (Optional) Only commits at or after this time.
+   * @param until (Optional) Only commits at or before this time.
+   * @param limit The maximum number of commits to return.
+   * @return The matching commits, newest first.
+   */
+  public List<Hit> search(CommitQuery query, Instant since, Instant until, int limit) {
+    return search(query, null, since, until, limit);
+  }
+
+  /**
+   * Same as {@link #search(CommitQuery, Instant, Instant, int)}, but only returns commits of one author.
+   *
+   * @param query The parsed query; a query without clauses matches every commit.
+   * @param authorLogin (Optional) Only commits linked to this GitHub login, ignoring case.
+   * @param since (Optional) Only commits at or after this time.
+   * @param until (Optional) Only commits at or before this time.
+   * @param limit The maximum number of commits to return.
+   * @return The matching commits, newest first.
+   */
+  public List<Hit> search(CommitQuery query, String authorLogin, Instant since, Instant until, int limit) {
+    long from = since != null ? since.getEpochSecond() : NO_TIME;
+    long to = until != null ? until.getEpochSecond() : Long.MAX_VALUE;
+    boolean ranged = since != null || until != null;
+
+    lock.readLock().lock();
+    try {
+      long[] matches = null;
+      for (CommitQuery.Clause clause : query.clauses()) {
+        long[] clauseMatches = evaluate(clause);
+        matches = matches == null ? clauseMatches : and(matches, clauseMatches);
+      }
+      if (matches == null) {
+        matches = all();
+      }
+
+      // Keeps the newest `limit` matches in a min-heap; its root is the oldest of them.
+      int[] heap = new int[Math.max(0, limit)];
+      int heapSize = 0;
+      collect:
+      for (int word = matches.length - 1; word >= 0; word--) {
+        long bits = matches[word];
+        while (bits != 0) {
+          int bit = 63 - Long.numberOfLeadingZeros(bits);
+          int doc = word * 64 + bit;
+          bits &= ~(1L << bit);
+          long time = times[doc];
+          if (ranged && (time == NO_TIME || time < from || time > to)) {
+            continue;
+          }
+          if (authorLogin != null && !authorLogin.equalsIgnoreCase(authors[doc])) {
+            continue;
+          }
+          if (heapSize < heap.length) {
+            heap[heapSize] = doc;
+            siftUp(heap, heapSize++);
+          } else if (dateOrdered) {
+            break collect; // Every remaining match is older.
+          } else if (heapSize > 0 && isOlder(heap[0], doc)) {
+            heap[0] = doc;
+            siftDown(heap, heapSize);
+          }
+        }
+      }
+
+      List<Hit> hits = new ArrayList<>(heapSize);
+      while (heapSize > 0) {
+        int doc = heap[0];
+        heap[0] = heap[--heapSize];
+        siftDown(heap, heapSize);
+        hits.add(new Hit(shas[doc], times[doc] != NO_TIME ? Instant.ofEpochSecond(times[doc]) : null, subjects[doc]));
+      }
+      Collections.reverse(hits);
+      return hits;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of indexed commits.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // Commits matching any alternative of the clause.
+  private long[] evaluate(CommitQuery.Clause clause) {
+    TreeMap<String, Postings> terms = clause.path() ? pathTerms : messageTerms;
+    long[] result = new long[words()];
+    for (List<CommitQuery.Term> alternative : clause.alternatives()) {
+      long[] alternativeMatches = null;
+      for (CommitQuery.Term term : alternative) {
+        long[] termMatches = lookup(terms, term);
+        alternativeMatches = alternativeMatches == null ? termMatches : and(alternativeMatches, termMatches);
+      }
+      or(result, alternativeMatches);
+    }
+    return result;
+  }
+
+  private long[] lookup(TreeMap<String, Postings> terms, CommitQuery.Term term) {
+    long[] bits = new long[words()];
+    if (!term.prefix()) {
+      Postings postings = terms.get(term.text());
+      if (postings != null) {
+        postings.setBits(bits);
+      }
+      return bits;
+    }
+    // Every term starting with text sorts between text and text followed by the highest char.
+    for (Postings postings : terms.subMap(term.text(), true, term.text() + Character.MAX_VALUE, false).values()) {
+      postings.setBits(bits);
+    }
+    return bits;
+  }
+
+  // Orders by commit date, then by insertion for commits with the same date.
+  private boolean isOlder(int doc, int other) {
+    return times[doc] < times[other] || (times[doc] == times[other] && doc < other);
+  }
+
+  private void siftUp(int[] heap, int index) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (!isOlder(heap[index], heap[parent])) {
+        return;
+      }
+      swap(heap, index, parent);
+      index = parent;
+    }
+  }
+
+  private void siftDown(int[] heap, int size) {
+    int index = 0;
+    while (true) {
+      int oldest = index;
+      int left = 2 * index + 1;
+      int right = left + 1;
+      if (left < size && isOlder(heap[left], heap[oldest])) {
+        oldest = left;
+      }
+      if (right < size && isOlder(heap[right], heap[oldest])) {
+        oldest = right;
+      }
+      if (oldest == index) {
+        return;
+      }
+      swap(heap, index, oldest);
+      index = oldest;
+    }
+  }
+
+  private static void swap(int[] heap, int i, int j) {
+    int doc = heap[i];
+    heap[i] = heap[j];
+    heap[j] = doc;
+  }
+
+  private long[] all() {
+    long[] bits = new long[words()];
+    Arrays.fill(bits, -1L);
+    if (size % 64 != 0) {
+      bits[bits.length - 1] = (1L << (size % 64)) - 1;
+    }
+    return bits;
+  }
+
+  private int words() {
+    return (size + 63) / 64;
+  }
+
+  private static long[] and(long[] left, long[] right) {
+    for (int i = 0; i < left.length; i++) {
+      left[i] &= right[i];
+    }
+    return left;
+  }
+
+  private static void or(long[] target, long[] bits) {
+    for (int i = 0; i < target.length; i++) {
+      target[i] |= bits[i];
+    }
+  }
+
+  private int newDoc(String sha, long time, String subject, String authorLogin) {
+    if (size == shas.length) {
+      int capacity = size * 2;
+      shas = Arrays.copyOf(shas, capacity);
+      times = Arrays.copyOf(times, capacity);
+      subjects = Arrays.copyOf(subjects, capacity);
+      authors = Arrays.copyOf(authors, capacity);
+      pathsIndexed = Arrays.copyOf(pathsIndexed, capacity);
+    }
+    int doc = size++;
+    if (doc > 0 && time < times[doc - 1]) {
+      dateOrdered = false;
+    }
+    shas[doc] = sha;
+    times[doc] = time;
+    subjects[doc] = subject;
+    authors[doc] = authorLogin;
+    docBySha.put(sha, doc);
+    return doc;
+  }
+
+  private static String subjectOf(String message) {
+    int newline = message.indexOf('\n');
+    return (newline >= 0 ? message.substring(0, newline) : message).strip();
+  }
+
+  /**
+   * The commit numbers containing one term, in the order they were added.
+   */
+  private static final class Postings {
+
+    private int[] docs = new int[4];
+    private int count;
+
+    void add(int doc) {
+      if (count == docs.length) {
+        docs = Arrays.copyOf(docs, count * 2);
+      }
+      docs[count++] = doc;
+    }
+
+    int last() {
+      return count > 0 ? docs[count - 1] : -1;
+    }
+
+    void setBits(long[] bits) {
+      for (int i = 0; i < count; i++) {
+        bits[docs[i] >>> 6] |= 1L << docs[i];
+      }
+    }
+  }
+}
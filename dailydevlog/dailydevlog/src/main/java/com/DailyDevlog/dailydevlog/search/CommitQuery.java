@@ -0,0 +1,90 @@
+package com.DailyDevlog.dailydevlog.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A parsed commit search query.
+ * <p>
+ * Whitespace separates clauses, all of which must match. Within a clause, {@code |} separates
+ * alternatives, any of which may match. A trailing {@code *} turns a word into a prefix.
+ * Clauses starting with {@code path:} match the paths touched by the commit, by path prefix
+ * ({@code path:src/main/}) or path segment ({@code path:service}); all other clauses match words
+ * of the commit message. For example: {@code fix|bug|regress* path:service/}.
+ *
+ * @param clauses The clauses, all required.
+ */
+public record CommitQuery(List<Clause> clauses) {
+
+  private static final String PATH_PREFIX = "path:";
+
+  /**
+   * Words of the commit message or touched paths, any of whose alternatives may match.
+   *
+   * @param path Whether the clause matches touched paths instead of the message.
+   * @param alternatives The alternatives; each one is a list of terms that must all match.
+   */
+  public record Clause(boolean path, List<List<Term>> alternatives) {
+  }
+
+  /**
+   * A single word or path to look up.
+   *
+   * @param text The lower-case word or path.
+   * @param prefix Whether every indexed term starting with {@code text} matches.
+   */
+  public record Term(String text, boolean prefix) {
+  }
+
+  /**
+   * Parses a query string; a blank query matches every commit.
+   *
+   * @param query The query string.
+   * @return The parsed query.
+   */
+  public static CommitQuery parse(String query) {
+    List<Clause> clauses = new ArrayList<>();
+    if (query == null) {
+      return new CommitQuery(clauses);
+    }
+
+    for (String part : query.trim().split("\\s+")) {
+      boolean path = part.regionMatches(true, 0, PATH_PREFIX, 0, PATH_PREFIX.length());
+      String body = path ? part.substring(PATH_PREFIX.length()) : part;
+
+      List<List<Term>> alternatives = new ArrayList<>();
+      for (String alternative : body.split("\\|")) {
+        List<Term> terms = path ? pathTerms(alternative) : messageTerms(alternative);
+        if (!terms.isEmpty()) {
+          alternatives.add(terms);
+        }
+      }
+      if (!alternatives.isEmpty()) {
+        clauses.add(new Clause(path, alternatives));
+      }
+    }
+    return new CommitQuery(clauses);
+  }
+
+  // A path is matched as a whole, always by prefix.
+  private static List<Term> pathTerms(String alternative) {
+    String text = stripWildcard(alternative).toLowerCase(Locale.ROOT);
+    return text.isEmpty() ? List.of() : List.of(new Term(text, true));
+  }
+
+  // "null-pointer*" becomes the terms "null" and "pointer*", both required.
+  private static List<Term> messageTerms(String alternative) {
+    boolean prefix = alternative.endsWith("*");
+    List<String> words = Tokenizer.words(stripWildcard(alternative));
+    List<Term> terms = new ArrayList<>();
+    for (int i = 0; i < words.size(); i++) {
+      terms.add(new Term(words.get(i), prefix && i == words.size() - 1));
+    }
+    return terms;
+  }
+
+  private static String stripWildcard(String text) {
+    return text.endsWith("*") ? text.substring(0, text.length() - 1) : text;
+  }
+}
@@ -0,0 +1,52 @@
+package com.DailyDevlog.dailydevlog.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits commit messages and file paths into the lower-case terms the commit index stores.
+ */
+final class Tokenizer {
+
+  private Tokenizer() {
+  }
+
+  /**
+   * Returns the words of a text: maximal runs of letters and digits, lower-cased, in order.
+   */
+  static List<String> words(String text) {
+    List<String> words = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+    return words;
+  }
+
+  /**
+   * Returns the terms of a file path: the whole lower-cased path, so that directories can be
+   * matched by prefix, and each of its segments and words, e.g. "src/Main.java" yields
+   * "src/main.java", "src", "main.java", "main" and "java".
+   */
+  static Set<String> pathTerms(String path) {
+    Set<String> terms = new LinkedHashSet<>();
+    String lower = path.toLowerCase(Locale.ROOT);
+    terms.add(lower);
+    for (String segment : lower.split("/")) {
+      if (!segment.isEmpty()) {
+        terms.add(segment);
+      }
+    }
+    terms.addAll(words(lower));
+    return terms;
+  }
+}
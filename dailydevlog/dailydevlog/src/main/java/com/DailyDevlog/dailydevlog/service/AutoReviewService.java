@@ -0,0 +1,311 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.DailyDevlog.dailydevlog.prompt.PromptBuilder;
+import com.DailyDevlog.dailydevlog.search.CommitIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * AutoReviewService runs the automatic code review pipeline:
+ * it selects the interesting commits of a repository, gathers their code changes,
+ * and asks GPT to review them.
+ * Commits of a repository tracked on the reviewed branch are selected through the {@link CommitSearchService};
+ * otherwise the latest and the bug-related commits of the latest page are reviewed.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class AutoReviewService {
+
+  @Autowired
+  private GitHubService gitHubService;
+
+  @Autowired
+  private CommitFanOutService commitFanOutService;
+
+  @Autowired
+  private CodeReviewService codeReviewService;
+
+  @Autowired
+  private PromptBuilder promptBuilder;
+
+  @Autowired
+  private ChunkedReviewService chunkedReviewService;
+
+  // Selects the commits of tracked repositories from their in-memory index.
+  @Autowired
+  private CommitSearchService commitSearchService;
+
+  // Query used when none is given: words starting with "bug" ("bug", "bugs", "bugfix"). Unlike the
+  // heuristic's substring match, it does not match words that merely contain it, such as "debug".
+  private static final String DEFAULT_QUERY = "bug*";
+
+  // Upper bound of the commits selected by a search.
+  private static final int MAX_SELECTED = 100;
+
+  // Counts the commits and files flowing through each stage, and the size of the prompts.
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /**
+   * The commit messages and changed files selected for one review.
+   */
+  public record ReviewInput(List<String> commitMessages, List<GitHubCommitFile> files) {
+  }
+
+  /**
+   * Which commits to review.
+   *
+   * @param query (Optional) A commit search query, see {@link com.DailyDevlog.dailydevlog.search.CommitQuery};
+   *              without one, the latest and the bug-related commits are reviewed.
+   * @param since (Optional) Only commits at or after this time.
+   * @param until (Optional) Only commits at or before this time.
+   */
+  public record Selection(String query, Instant since, Instant until) {
+
+    public static final Selection DEFAULT = new Selection(null, null, null);
+  }
+
+  /**
+   * Reviews the latest and bug-related commits of a repository and returns the full review.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch The branch to review.
+   * @return Code review suggestions from GPT.
+   */
+  public String review(String owner, String repo, String author, String branch) {
+    return review(owner, repo, author, branch, Selection.DEFAULT);
+  }
+
+  /**
+   * Same as {@link #review(String, String, String, String)}, but reviews the selected commits.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch The branch to review.
+   * @param selection Which commits to review.
+   * @return Code review suggestions from GPT.
+   */
+  public String review(String owner, String repo, String author, String branch, Selection selection) {
+    return codeReviewService.review(buildPrompt(owner, repo, author, branch, selection).text(),
+        subjectOf(owner, repo, author, branch, selection));
+  }
+
+  /**
+   * Reviews the same commits as {@link #review}, but gathers enough changes for several prompts
+   * and reviews them in parts that are merged into one review, so large change sets are covered.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch The branch to review.
+   * @param selection Which commits to review.
+   * @return The merged review and how much of the change set it covers.
+   */
+  public ChunkedReviewService.ChunkedReview reviewChunked(String owner, String repo, String author, String branch,
+      Selection selection) {
+    int budget = promptBuilder.getBudgetTokens() * chunkedReviewService.getMaxChunks();
+    ReviewInput input = collect(owner, repo, author, branch, selection, budget);
+    return chunkedReviewService.review(input.commitMessages(), input.files());
+  }
+
+  /**
+   * Same as {@link #review}, but hands the review text to {@code onDelta} while GPT generates it.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch The branch to review.
+   * @param onDelta Receives the review text incrementally.
+   * @return Code review suggestions from GPT.
+   */
+  public String streamReview(String owner, String repo, String author, String branch, Consumer<String> onDelta) {
+    return codeReviewService.streamReview(buildPrompt(owner, repo, author, branch).text(),
+        subjectOf(owner, repo, author, branch, Selection.DEFAULT), onDelta);
+  }
+
+  /**
+   * Collects the commits to review and assembles them into a prompt within the token budget.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch The branch to review.
+   * @return The assembled prompt.
+   */
+  public PromptBuilder.ReviewPrompt buildPrompt(String owner, String repo, String author, String branch) {
+    return buildPrompt(owner, repo, author, branch, Selection.DEFAULT);
+  }
+
+  /**
+   * Same as {@link #buildPrompt(String, String, String, String)}, but for the selected commits.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch The branch to review.
+   * @param selection Which commits to review.
+   * @return The assembled prompt.
+   */
+  public PromptBuilder.ReviewPrompt buildPrompt(String owner, String repo, String author, String branch,
+      Selection selection) {
+    ReviewInput input = collect(owner, repo, author, branch, selection, promptBuilder.getBudgetTokens());
+    PromptBuilder.ReviewPrompt prompt = promptBuilder.build(input.commitMessages(), input.files());
+    meterRegistry.summary("review.prompt.tokens").record(prompt.estimatedTokens());
+    return prompt;
+  }
+
+  /**
+   * Selects the commits to review and gathers their messages and changed files.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch The branch to review.
+   * @return The commit messages and changed files, newest commit first.
+   */
+  public ReviewInput collect(String owner, String repo, String author, String branch) {
+    return collect(owner, repo, author, branch, Selection.DEFAULT, promptBuilder.getBudgetTokens());
+  }
+
+  /**
+   * Same as {@link #collect(String, String, String, String)}, but selects the commits as given
+   * and stops fetching commits once the changes can fill the given number of prompt tokens.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch The branch to review.
+   * @param selection Which commits to review.
+   * @param budgetTokens The prompt tokens the collected changes should fill.
+   * @return The commit messages and changed files, newest commit first.
+   */
+  public ReviewInput collect(String owner, String repo, String author, String branch, Selection selection,
+      int budgetTokens) {
+    // 1. Fetch the latest commits from the GitHub repository
+    List<GitHubCommit> commits = gitHubService.listCommits(owner, repo, author, branch);
+
+    List<String> commitMessages = new ArrayList<>();
+    List<GitHubCommitFile> files = new ArrayList<>();
+    List<String> selectedShas = new ArrayList<>();
+
+    // 2. Search the repository's index if it is tracked; otherwise keep the latest and 'bug' related commits
+    List<GitHubCommit> selected = searchCommits(owner, repo, author, branch, selection, commits)
+        .orElseGet(() -> selectCommits(withinWindow(commits, selection)));
+    for (GitHubCommit commit : selected) {
+      commitMessages.add(commit.message());
+      selectedShas.add(commit.sha());
+    }
+
+    // 3. Fetch the filtered commits' details concurrently, in commit order,
+    //    and stop fetching once the compacted changes can fill the prompt budget
+    int[] collectedTokens = {0};
+    commitFanOutService.fetchInOrder(owner, repo, selectedShas, commitDetails -> {
+      for (GitHubCommitFile file : commitDetails.files()) {
+        files.add(file);
+        collectedTokens[0] += promptBuilder.estimateFile(file);
+      }
+      return collectedTokens[0] < budgetTokens;
+    });
+
+    meterRegistry.counter("review.commits", "stage", "listed").increment(commits.size());
+    meterRegistry.counter("review.commits", "stage", "selected").increment(selectedShas.size());
+    meterRegistry.counter("review.files", "stage", "fetched").increment(files.size());
+    return new ReviewInput(commitMessages, files);
+  }
+
+  // Identifies the review, so the previous one can be shown while GPT is unavailable.
+  private static String subjectOf(String owner, String repo, String author, String branch, Selection selection) {
+    return owner + "/" + repo + "@" + branch + (author != null ? "#" + author : "")
+        + (selection.equals(Selection.DEFAULT) ? "" : "?" + selection);
+  }
+
+  // Selects the commits matching the query in the repository's index, newest first, with the latest
+  // commit too when no query is given. Empty if the repository is not tracked on the branch.
+  private Optional<List<GitHubCommit>> searchCommits(String owner, String repo, String author, String branch,
+      Selection selection, List<GitHubCommit> latest) {
+    String query = selection.query() != null && !selection.query().isBlank() ? selection.query() : DEFAULT_QUERY;
+    Optional<List<CommitIndex.Hit>> hits = commitSearchService.search(owner, repo, branch, author, query,
+        selection.since(), selection.until(), MAX_SELECTED);
+    if (hits.isEmpty()) {
+      return Optional.empty();
+    }
+
+    // The index searches the full history but only keeps subjects; the latest page has full messages.
+    Map<String, GitHubCommit> listed = latest.stream()
+        .collect(Collectors.toMap(GitHubCommit::sha, Function.identity(), (first, second) -> first, LinkedHashMap::new));
+    Map<String, GitHubCommit> selected = new LinkedHashMap<>();
+    if (selection.query() == null || selection.query().isBlank()) {
+      withinWindow(latest, selection).stream().findFirst().ifPresent(commit -> selected.put(commit.sha(), commit));
+    }
+    for (CommitIndex.Hit hit : hits.get()) {
+      GitHubCommit commit = listed.get(hit.sha());
+      if (commit == null) {
+        commit = new GitHubCommit(hit.sha(), null, new GitHubCommit.CommitInfo(hit.subject(), null, null), null);
+      }
+      selected.putIfAbsent(hit.sha(), commit);
+    }
+    return Optional.of(new ArrayList<>(selected.values()));
+  }
+
+  // The commits whose committer date lies in the selection's time range; commits without a date are kept.
+  private static List<GitHubCommit> withinWindow(List<GitHubCommit> commits, Selection selection) {
+    if (selection.since() == null && selection.until() == null) {
+      return commits;
+    }
+    List<GitHubCommit> within = new ArrayList<>();
+    for (GitHubCommit commit : commits) {
+      Instant committedAt = committedAt(commit);
+      if (committedAt == null || ((selection.since() == null || !committedAt.isBefore(selection.since()))
+          && (selection.until() == null || !committedAt.isAfter(selection.until())))) {
+        within.add(commit);
+      }
+    }
+    return within;
+  }
+
+  private static Instant committedAt(GitHubCommit commit) {
+    if (commit.commit() == null || commit.commit().committer() == null || commit.commit().committer().date() == null) {
+      return null;
+    }
+    try {
+      return Instant.parse(commit.commit().committer().date());
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Selects the commits worth reviewing: the latest one and every commit mentioning a bug.
+   *
+   * @param commits The commits of the branch, newest first.
+   * @return The selected commits, in the same order.
+   */
+  public static List<GitHubCommit> selectCommits(List<GitHubCommit> commits) {
+    List<GitHubCommit> selected = new ArrayList<>();
+    for (int i = 0; i < commits.size(); i++) {
+      GitHubCommit commit = commits.get(i);
+
+      // Always add the latest commit and filter commits containing 'bug' keyword
+      if (i == 0 || commit.message().toLowerCase().contains("bug")) {
+        selected.add(commit);
+      }
+    }
+    return selected;
+  }
+}
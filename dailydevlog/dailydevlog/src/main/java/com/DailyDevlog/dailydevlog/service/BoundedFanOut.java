@@ -0,0 +1,105 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * BoundedFanOut runs the independent tasks of one request on a shared worker pool.
+ * At most {@code concurrency} tasks of a call are in flight at a time, and tasks unfinished
+ * at the deadline are cancelled; their results are left out instead of failing the whole call.
+ */
+public final class BoundedFanOut {
+
+  /**
+   * The results of one fan-out.
+   *
+   * @param results The task results in task order; null where a task failed or did not finish in time.
+   * @param unfinished Tasks cancelled or never started because the deadline passed.
+   */
+  public record Outcome<T>(List<T> results, int unfinished) {
+  }
+
+  // Shared worker pool; its size caps the total number of tasks running across all calls.
+  private final ExecutorService executor;
+
+  /**
+   * Starts the worker pool.
+   *
+   * @param threadName Prefix of the worker thread names.
+   * @param poolSize The number of workers.
+   */
+  public BoundedFanOut(String threadName, int poolSize) {
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        Math.max(1, poolSize), Math.max(1, poolSize),
+        60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnable -> {
+          Thread thread = new Thread(runnable, threadName + "-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+    );
+  }
+
+  /**
+   * Runs the tasks, starting them in order and keeping at most {@code concurrency} in flight.
+   *
+   * @param tasks The tasks to run.
+   * @param concurrency The maximum number of tasks of this call running at the same time.
+   * @param timeoutMillis Time allowed for all tasks; what is still running then is cancelled.
+   * @param onFailure Receives the index and the cause of every task that failed.
+   * @return The results in task order and the number of tasks that ran out of time.
+   */
+  public <T> Outcome<T> run(List<Callable<T>> tasks, int concurrency, long timeoutMillis,
+      BiConsumer<Integer, Throwable> onFailure) {
+    List<T> results = new ArrayList<>(Collections.nCopies(tasks.size(), null));
+    CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+    Map<Future<T>, Integer> inFlight = new HashMap<>();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    int limit = Math.max(1, concurrency);
+    int next = 0;
+
+    try {
+      while (next < tasks.size() || !inFlight.isEmpty()) {
+        while (next < tasks.size() && inFlight.size() < limit) {
+          inFlight.put(completionService.submit(tasks.get(next)), next++);
+        }
+
+        Future<T> done = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        if (done == null) {
+          break; // Out of time; the finally block cancels what is still running.
+        }
+        int index = inFlight.remove(done);
+        try {
+          results.set(index, done.get());
+        } catch (ExecutionException e) {
+          onFailure.accept(index, e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      inFlight.keySet().forEach(future -> future.cancel(true));
+    }
+    return new Outcome<>(results, tasks.size() - next + inFlight.size());
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
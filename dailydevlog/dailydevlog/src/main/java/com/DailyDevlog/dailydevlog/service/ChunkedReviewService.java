@@ -0,0 +1,169 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.model.ChatCompletion;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.DailyDevlog.dailydevlog.prompt.PromptBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * ChunkedReviewService reviews change sets too large for a single prompt in a map-reduce fashion:
+ * the change set is split into budget-sized parts, the parts are reviewed concurrently,
+ * and a final GPT call merges their reviews into one.
+ * The number of parts and the time spent on them are bounded; parts that fail or run out of time
+ * are left out, and the review says so instead of failing as a whole.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class ChunkedReviewService {
+
+  private static final Logger log = LoggerFactory.getLogger(ChunkedReviewService.class);
+
+  private static final String FAILED = "Code review failed, please check the input data.";
+
+  /**
+   * The merged review and how much of the change set it covers.
+   *
+   * @param review The review text.
+   * @param chunks The number of parts the change set was split into.
+   * @param failedChunks Parts whose review failed or did not finish in time.
+   * @param reviewedFiles Files included in at least one part.
+   * @param omittedFiles Files not reviewed at all.
+   */
+  public record ChunkedReview(String review, int chunks, int failedChunks, int reviewedFiles, int omittedFiles) {
+  }
+
+  private final CodeReviewService codeReviewService;
+  private final PromptBuilder promptBuilder;
+  private final MeterRegistry meterRegistry;
+
+  // Maximum number of parts per review; coverage beyond this many prompts is dropped.
+  private final int maxChunks;
+
+  // Maximum number of parts of one review sent to GPT at the same time.
+  private final int concurrency;
+
+  // Time allowed for reviewing all parts; the merge step runs after it.
+  private final long timeoutMillis;
+
+  // Shared worker pool; its size caps the total number of part reviews across all requests.
+  private final BoundedFanOut fanOut;
+
+  @Autowired
+  public ChunkedReviewService(
+      CodeReviewService codeReviewService,
+      PromptBuilder promptBuilder,
+      MeterRegistry meterRegistry,
+      @Value("${review.chunked.max-chunks:8}") int maxChunks,
+      @Value("${review.chunked.concurrency:4}") int concurrency,
+      @Value("${review.chunked.pool-size:16}") int poolSize,
+      @Value("${review.chunked.timeout-ms:120000}") long timeoutMillis
+  ) {
+    this.codeReviewService = codeReviewService;
+    this.promptBuilder = promptBuilder;
+    this.meterRegistry = meterRegistry;
+    this.maxChunks = Math.max(1, maxChunks);
+    this.concurrency = Math.max(1, concurrency);
+    this.timeoutMillis = timeoutMillis;
+    this.fanOut = new BoundedFanOut("review-chunk", poolSize);
+  }
+
+  public int getMaxChunks() {
+    return maxChunks;
+  }
+
+  /**
+   * Reviews a change set in parts and merges the part reviews.
+   * A change set that fits one prompt is reviewed with a single call and no merge step.
+   *
+   * @param commitMessages The commit messages, newest first.
+   * @param files The changed files to review.
+   * @return The merged review and its coverage.
+   */
+  public ChunkedReview review(List<String> commitMessages, List<GitHubCommitFile> files) {
+    PromptBuilder.ChunkedPrompt plan = promptBuilder.buildChunks(commitMessages, files, maxChunks);
+    List<PromptBuilder.ReviewPrompt> chunks = plan.chunks();
+    if (chunks.isEmpty()) {
+      return new ChunkedReview(FAILED, 0, 0, plan.reviewedFiles(), plan.omittedFiles());
+    }
+
+    // 1. Map: review the parts concurrently, in part order where possible
+    List<String> reviews = reviewChunks(chunks);
+    List<String> succeeded = new ArrayList<>();
+    for (String review : reviews) {
+      if (review != null) {
+        succeeded.add(review);
+      }
+    }
+    int failed = chunks.size() - succeeded.size();
+    meterRegistry.counter("review.chunks", "outcome", "reviewed").increment(succeeded.size());
+    meterRegistry.counter("review.chunks", "outcome", "failed").increment(failed);
+
+    // 2. Reduce: merge the part reviews; a single part needs no merging
+    String review;
+    if (succeeded.isEmpty()) {
+      review = FAILED;
+    } else if (chunks.size() == 1) {
+      review = succeeded.get(0);
+    } else {
+      review = merge(succeeded, failed);
+    }
+    return new ChunkedReview(review, chunks.size(), failed, plan.reviewedFiles(), plan.omittedFiles());
+  }
+
+  // Keeps at most `concurrency` parts in flight; parts unfinished at the deadline are cancelled.
+  private List<String> reviewChunks(List<PromptBuilder.ReviewPrompt> chunks) {
+    List<Callable<String>> tasks = new ArrayList<>();
+    for (PromptBuilder.ReviewPrompt chunk : chunks) {
+      tasks.add(() -> reviewChunk(chunk.text()));
+    }
+    BoundedFanOut.Outcome<String> outcome = fanOut.run(tasks, concurrency, timeoutMillis, (part, cause) ->
+        log.warn("Review of part {} of {} failed", part + 1, chunks.size(), cause));
+    if (outcome.unfinished() > 0) {
+      log.warn("Finished {} of {} parts before the deadline", chunks.size() - outcome.unfinished(), chunks.size());
+    }
+    return outcome.results();
+  }
+
+  private String reviewChunk(String prompt) {
+    ChatCompletion completion = codeReviewService.complete(prompt);
+    if (completion == null || completion.content() == null || completion.content().isBlank()) {
+      throw new IllegalStateException("GPT returned no review");
+    }
+    return completion.content();
+  }
+
+  // Falls back to the part reviews one after another if the merge call fails.
+  private String merge(List<String> reviews, int failed) {
+    try {
+      ChatCompletion merged = codeReviewService.complete(promptBuilder.buildReduce(reviews, failed));
+      if (merged != null && merged.content() != null && !merged.content().isBlank()) {
+        return merged.content();
+      }
+    } catch (RuntimeException e) {
+      log.warn("Merging {} part reviews failed", reviews.size(), e);
+    }
+
+    StringBuilder joined = new StringBuilder();
+    for (int i = 0; i < reviews.size(); i++) {
+      joined.append("Part ").append(i + 1).append(":\n").append(reviews.get(i)).append("\n\n");
+    }
+    if (failed > 0) {
+      joined.append(failed).append(" part(s) of the change set could not be reviewed.");
+    }
+    return joined.toString().strip();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    fanOut.shutdown();
+  }
+}
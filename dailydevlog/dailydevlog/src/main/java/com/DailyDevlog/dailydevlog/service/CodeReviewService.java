@@ -1,32 +1,89 @@
 package com.DailyDevlog.dailydevlog.service;
 
+import com.DailyDevlog.dailydevlog.client.OpenAiBulkhead;
+import com.DailyDevlog.dailydevlog.client.OutboundMetrics;
+import com.DailyDevlog.dailydevlog.model.ChatCompletion;
+import com.DailyDevlog.dailydevlog.prompt.PromptBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.core5.http.io.EofSensorInputStream;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * CodeReviewService is a service class that interacts with the GPT API
  * to analyze code quality and provide suggestions for improvement.
  * It uses GitHub commit messages and code changes as input for the analysis.
+ * Calls go through the {@link OpenAiBulkhead}; while GPT is unavailable, the last cached review
+ * of the same prompt or subject is returned instead.
  */
 @Service // Marks this class as a service component in the Spring application context.
 public class CodeReviewService {
 
+  // GPT model and sampling parameters; all of them are part of the review cache key.
+  private static final String MODEL = "gpt-3.5-turbo";
+  private static final double TEMPERATURE = 0.7;
+  private static final String SYSTEM_PROMPT = "You are a helpful assistant that reviews code.";
+
+  private static final String COMPLETIONS_PATH = "/v1/chat/completions";
+
+  private static final String FAILED = "Code review failed, please check the input data.";
+  private static final String UNAVAILABLE = "GPT is unavailable right now, please try again later.";
+  private static final String STALE_NOTE = "(GPT is unavailable right now; this is the most recent earlier review.)\n\n";
+
+  // Base URL of the OpenAI API; points at a local stand-in for load tests.
+  @Value("${openai.api.url:https://api.openai.com}")
+  private String openAiApiUrl;
+
   // Retrieves the GPT API key from application properties or environment variables.
   @Value("${GPT_API}")
   private String gptApiKey;
 
-  // RestTemplate is used to make HTTP requests to external APIs (e.g., GPT API).
-  private final RestTemplate restTemplate = new RestTemplate();
+  // Maximum length of a review; also part of the review cache key.
+  @Value("${openai.max-tokens:500}")
+  private int maxTokens;
+
+  // Shared pooled RestTemplate used to make HTTP requests to external APIs (e.g., GPT API).
+  @Autowired
+  private RestTemplate restTemplate;
+
+  // Reuses reviews of identical prompts instead of calling GPT again.
+  @Autowired
+  private ReviewCache reviewCache;
+
+  // Records latency, payload sizes and billed tokens of the OpenAI calls.
+  @Autowired
+  private OutboundMetrics outboundMetrics;
+
+  // Bounds concurrency and waiting time of the OpenAI calls, and fails fast during outages.
+  @Autowired
+  private OpenAiBulkhead openAiBulkhead;
+
+  // Serializes the requests, and parses the responses and the server-sent events of streamed completions.
+  private final ObjectMapper objectMapper = new ObjectMapper();
 
   /**
    * Sends commit messages and code changes to the GPT API for analysis.
@@ -36,57 +93,353 @@ public class CodeReviewService {
    * @return A review from GPT suggesting good practices and areas for improvement.
    */
   public String analyzeCodeAndSuggestImprovements(String commitMessage, String codeChanges) {
-    // Builds the prompt to send to the GPT model for code review analysis.
-    String prompt = "Here are the GitHub commit messages and code changes. " +
-        "Please evaluate code quality, and let me know good habits and things to improve.\n\n" +
-        "Commit message: " + commitMessage + "\n\n" +
-        "Code change history: " + codeChanges + "\n\n" +
-        "Explain good and bad habits with specific examples, " +
-        "Please suggest a way to improve your bad habits.";
+    return review(PromptBuilder.format(commitMessage, codeChanges));
+  }
+
+  /**
+   * Sends a prompt assembled by {@link PromptBuilder} to the GPT API for analysis.
+   *
+   * @param prompt The complete user prompt.
+   * @return A review from GPT suggesting good practices and areas for improvement.
+   */
+  public String review(String prompt) {
+    return review(prompt, null);
+  }
+
+  /**
+   * Same as {@link #review(String)}, and remembers the review as the latest one of its subject,
+   * which is returned instead while GPT is unavailable.
+   *
+   * @param prompt The complete user prompt.
+   * @param subject (Optional) What is reviewed, e.g. "owner/repo@branch".
+   * @return A review from GPT, or the latest earlier review if GPT is unavailable.
+   */
+  public String review(String prompt, String subject) {
+    try {
+      ChatCompletion completion = complete(prompt);
+      if (completion != null) {
+        rememberLatest(subject, completion);
+        return completion.content();
+      }
+    } catch (HttpClientErrorException e) {
+      if (isUnavailable(e)) {
+        return fallback(prompt, subject);
+      }
+      // Returns an error message if the GPT API call fails.
+      return "Error calling GPT API: " + e.getMessage();
+    } catch (ResponseStatusException | HttpServerErrorException | ResourceAccessException e) {
+      // Refused by the bulkhead, timed out, or OpenAI is failing.
+      return fallback(prompt, subject);
+    }
+
+    // Fallback response if no valid output is obtained from the GPT API.
+    return FAILED;
+  }
+
+  /**
+   * Same as {@link #review}, but requests a streamed completion and
+   * passes each piece of generated text to the consumer as soon as it arrives.
+   * A cached review, or one produced by an identical request already in flight, is delivered as a single piece.
+   *
+   * @param prompt The complete user prompt.
+   * @param onDelta Receives the review text incrementally.
+   * @return The complete review text.
+   */
+  public String streamReview(String prompt, Consumer<String> onDelta) {
+    return streamReview(prompt, null, onDelta);
+  }
+
+  /**
+   * Same as {@link #streamReview(String, Consumer)}, and remembers the review as the latest one
+   * of its subject, which is delivered instead while GPT is unavailable.
+   *
+   * @param prompt The complete user prompt.
+   * @param subject (Optional) What is reviewed, e.g. "owner/repo@branch".
+   * @param onDelta Receives the review text incrementally; nothing more after a failure or timeout was delivered.
+   * @return The complete review text.
+   */
+  public String streamReview(String prompt, String subject, Consumer<String> onDelta) {
+    CompletionStream stream = new CompletionStream(onDelta);
+    boolean[] streamed = {false};
+    try {
+      // Shares the single-flight key of complete(), so identical streamed and plain requests make one call.
+      ChatCompletion completion = reviewCache.getOrCompute(cacheKey(prompt), () -> {
+        streamed[0] = true;
+        ChatCompletion fresh = requestStreamingCompletion(prompt, stream);
+        if (fresh.content().isEmpty()) {
+          throw new EmptyCompletionException();
+        }
+        return fresh;
+      });
+      if (!streamed[0]) {
+        onDelta.accept(completion.content());
+      }
+      rememberLatest(subject, completion);
+      return completion.content();
+    } catch (EmptyCompletionException e) {
+      // Not cached, so the next request tries again.
+    } catch (HttpClientErrorException e) {
+      stream.abandon();
+      String error = isUnavailable(e) ? fallback(prompt, subject) : "Error calling GPT API: " + e.getMessage();
+      onDelta.accept(error);
+      return error;
+    } catch (ResponseStatusException | HttpServerErrorException | ResourceAccessException e) {
+      // A timed-out stream keeps running on the bulkhead's thread; it must not add to the fallback.
+      stream.abandon();
+      String fallback = fallback(prompt, subject);
+      onDelta.accept(fallback);
+      return fallback;
+    }
+
+    onDelta.accept(FAILED);
+    return FAILED;
+  }
+
+  /**
+   * One streamed completion, shared by the caller and the bulkhead thread reading it.
+   * Once the caller stops waiting, no more text is passed on and the connection is dropped.
+   */
+  private static final class CompletionStream {
+
+    private final Consumer<String> onDelta;
+    private InputStream body;
+    private boolean abandoned;
+
+    CompletionStream(Consumer<String> onDelta) {
+      this.onDelta = onDelta;
+    }
+
+    // Guarded by this, so a delta being delivered finishes before the caller's fallback.
+    synchronized void deliver(String delta) {
+      if (!abandoned) {
+        onDelta.accept(delta);
+      }
+    }
+
+    synchronized boolean isAbandoned() {
+      return abandoned;
+    }
+
+    synchronized void attach(InputStream body) throws IOException {
+      if (abandoned) {
+        throw new IOException("Completion stream was abandoned");
+      }
+      this.body = body;
+    }
 
+    void abandon() {
+      InputStream attached;
+      synchronized (this) {
+        abandoned = true;
+        attached = body;
+      }
+      // The pooled client's stream is aborted right away, which unblocks the reader; other streams
+      // would block until the next read returns, so their reader stops at the next line instead.
+      if (attached instanceof EofSensorInputStream sensor) {
+        try {
+          sensor.abort();
+        } catch (IOException e) {
+          // The connection is being discarded anyway.
+        }
+      }
+    }
+  }
+
+  private void rememberLatest(String subject, ChatCompletion completion) {
+    if (subject != null) {
+      reviewCache.putLatest(subject, completion);
+    }
+  }
+
+  // The expired review of the same prompt if there is one, else the latest review of the subject.
+  private String fallback(String prompt, String subject) {
+    ChatCompletion stale = reviewCache.peekStale(cacheKey(prompt));
+    if (stale == null && subject != null) {
+      stale = reviewCache.latest(subject);
+    }
+    return stale != null ? STALE_NOTE + stale.content() : UNAVAILABLE;
+  }
+
+  // 429 means OpenAI is overloaded rather than that the request is wrong.
+  private static boolean isUnavailable(HttpClientErrorException e) {
+    return e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+  }
+
+  private String cacheKey(String prompt) {
+    return ReviewCache.keyOf(MODEL, String.valueOf(maxTokens), String.valueOf(TEMPERATURE),
+        SYSTEM_PROMPT, prompt);
+  }
+
+  /**
+   * Returns the completion for a prompt, from the review cache when the exact same request
+   * (model, parameters and prompt) was answered before. Concurrent identical requests share one call.
+   *
+   * @param prompt The user prompt.
+   * @return The completion, or null if GPT returned no choices.
+   */
+  public ChatCompletion complete(String prompt) {
+    try {
+      return reviewCache.getOrCompute(cacheKey(prompt), () -> requestCompletion(prompt));
+    } catch (EmptyCompletionException e) {
+      return null; // Empty answers are not cached, so the next request tries again.
+    }
+  }
+
+  /**
+   * Calls the chat-completions API.
+   *
+   * @param prompt The user prompt.
+   * @return The first choice's content and the token usage.
+   */
+  private ChatCompletion requestCompletion(String prompt) {
     // Sets up the HTTP request headers, including authorization and content type.
     HttpHeaders headers = new HttpHeaders();
     headers.set("Authorization", "Bearer " + gptApiKey); // Sets the GPT API key as a Bearer token.
     headers.set("Content-Type", "application/json"); // Specifies JSON as the request body format.
 
-    // Prepares the request body for the GPT API in the expected format.
+    // Wraps the headers and the serialized body into an HttpEntity for the HTTP request.
+    byte[] requestBody = toJson(completionRequest(prompt));
+    HttpEntity<byte[]> entity = new HttpEntity<>(requestBody, headers);
+
+    // Sends a POST request to the GPT API and receives the response.
+    ResponseEntity<byte[]> response = openAiBulkhead.execute(() ->
+        outboundMetrics.openAi("completion", requestBody.length, () ->
+            restTemplate.exchange(
+                openAiApiUrl + COMPLETIONS_PATH,
+                HttpMethod.POST, // Specifies the HTTP method (POST).
+                entity, // The request entity containing headers and body.
+                byte[].class // Reads the raw body, so its size is known even without a Content-Length.
+            )
+        )
+    );
+    byte[] responseBytes = response.getBody() != null ? response.getBody() : new byte[0];
+    outboundMetrics.openAiResponseSize("completion", responseBytes.length);
+
+    // Extracts and processes the GPT API response.
+    Map<String, Object> responseBody = parseJson(responseBytes);
+    if (responseBody != null && responseBody.containsKey("choices")) {
+      // Retrieves the 'choices' array from the API response.
+      List<Map<String, Object>> choices = (List<Map<String, Object>>) responseBody.get("choices");
+      if (!choices.isEmpty()) {
+        // Reads the 'content' of the first choice message and the billed token counts.
+        String content = (String) ((Map<String, Object>) choices.get(0).get("message")).get("content");
+        Map<String, Object> usage = (Map<String, Object>) responseBody.getOrDefault("usage", Map.of());
+        ChatCompletion completion = new ChatCompletion(content, tokenCount(usage, "prompt_tokens"),
+            tokenCount(usage, "completion_tokens"));
+        outboundMetrics.openAiTokens(completion.promptTokens(), completion.completionTokens());
+        return completion;
+      }
+    }
+    throw new EmptyCompletionException();
+  }
+
+  /**
+   * Calls the chat-completions API with {@code stream=true} and reads the server-sent events,
+   * forwarding each content delta as it arrives.
+   *
+   * @param prompt The user prompt.
+   * @param stream Receives the generated text incrementally.
+   * @return The full content and the token usage reported in the final event.
+   */
+  private ChatCompletion requestStreamingCompletion(String prompt, CompletionStream stream) {
+    Map<String, Object> requestBody = completionRequest(prompt);
+    requestBody.put("stream", true);
+    requestBody.put("stream_options", Map.of("include_usage", true)); // Adds usage to the last event.
+    byte[] requestBytes = toJson(requestBody);
+
+    ChatCompletion completion = openAiBulkhead.execute(() ->
+        outboundMetrics.openAi("completion-stream", requestBytes.length, () ->
+            restTemplate.execute(
+                openAiApiUrl + COMPLETIONS_PATH,
+                HttpMethod.POST,
+                request -> {
+                  request.getHeaders().setBearerAuth(gptApiKey);
+                  request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                  request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                  request.getBody().write(requestBytes);
+                },
+                response -> readCompletionStream(response.getBody(), stream)
+            )
+        )
+    );
+    outboundMetrics.openAiTokens(completion.promptTokens(), completion.completionTokens());
+    return completion;
+  }
+
+  private ChatCompletion readCompletionStream(InputStream body, CompletionStream stream) throws IOException {
+    stream.attach(body);
+    StringBuilder content = new StringBuilder();
+    int promptTokens = 0;
+    int completionTokens = 0;
+    long responseBytes = 0;
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null && !stream.isAbandoned()) {
+      responseBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+      // Each event is a "data: {json}" line; the stream ends with "data: [DONE]".
+      if (!line.startsWith("data:")) {
+        continue;
+      }
+      String data = line.substring("data:".length()).trim();
+      if (data.equals("[DONE]")) {
+        break;
+      }
+
+      JsonNode chunk = objectMapper.readTree(data);
+      JsonNode delta = chunk.path("choices").path(0).path("delta").path("content");
+      if (delta.isTextual() && !delta.asText().isEmpty()) {
+        content.append(delta.asText());
+        stream.deliver(delta.asText());
+      }
+      JsonNode usage = chunk.path("usage");
+      if (usage.isObject()) {
+        promptTokens = usage.path("prompt_tokens").asInt();
+        completionTokens = usage.path("completion_tokens").asInt();
+      }
+    }
+    outboundMetrics.openAiResponseSize("completion-stream", responseBytes);
+    return new ChatCompletion(content.toString(), promptTokens, completionTokens);
+  }
+
+  private Map<String, Object> parseJson(byte[] responseBytes) {
+    if (responseBytes.length == 0) {
+      return null;
+    }
+    try {
+      return objectMapper.readValue(responseBytes, Map.class);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot parse the completion response", e);
+    }
+  }
+
+  private byte[] toJson(Map<String, Object> requestBody) {
+    try {
+      return objectMapper.writeValueAsBytes(requestBody);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize the completion request", e);
+    }
+  }
+
+  // Prepares the request body for the GPT API in the expected format.
+  private Map<String, Object> completionRequest(String prompt) {
     Map<String, Object> requestBody = new HashMap<>();
-    requestBody.put("model", "gpt-3.5-turbo"); // Specifies the GPT model version.
+    requestBody.put("model", MODEL); // Specifies the GPT model version.
     requestBody.put("messages", List.of(
-        Map.of("role", "system", "content", "You are a helpful assistant that reviews code."),
+        Map.of("role", "system", "content", SYSTEM_PROMPT),
         Map.of("role", "user", "content", prompt)
     ));
-    requestBody.put("max_tokens", 500); // Limits the maximum length of the response.
-    requestBody.put("temperature", 0.7); // Controls the randomness of the response (0.0 to 1.0).
-
-    // Wraps the headers and body into an HttpEntity for the HTTP request.
-    HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+    requestBody.put("max_tokens", maxTokens); // Limits the maximum length of the response.
+    requestBody.put("temperature", TEMPERATURE); // Controls the randomness of the response (0.0 to 1.0).
+    return requestBody;
+  }
 
-    try {
-      // Sends a POST request to the GPT API and receives the response.
-      ResponseEntity<Map> response = restTemplate.exchange(
-          "https://api.openai.com/v1/chat/completions",
-          HttpMethod.POST, // Specifies the HTTP method (POST).
-          entity, // The request entity containing headers and body.
-          Map.class // Specifies the expected response type as a Map.
-      );
-
-      // Extracts and processes the GPT API response.
-      Map<String, Object> responseBody = response.getBody();
-      if (responseBody != null && responseBody.containsKey("choices")) {
-        // Retrieves the 'choices' array from the API response.
-        List<Map<String, Object>> choices = (List<Map<String, Object>>) responseBody.get("choices");
-        if (!choices.isEmpty()) {
-          // Returns the 'content' of the first choice message from GPT.
-          return (String) ((Map<String, Object>) choices.get(0).get("message")).get("content");
-        }
-      }
-    } catch (HttpClientErrorException e) {
-      // Returns an error message if the GPT API call fails.
-      return "Error calling GPT API: " + e.getMessage();
-    }
+  private static int tokenCount(Map<String, Object> usage, String field) {
+    Object value = usage.get(field);
+    return value instanceof Number number ? number.intValue() : 0;
+  }
 
-    // Fallback response if no valid output is obtained from the GPT API.
-    return "Code review failed, please check the input data.";
+  // Signals a response without choices, so that it is not stored in the review cache.
+  private static class EmptyCompletionException extends RuntimeException {
   }
 }
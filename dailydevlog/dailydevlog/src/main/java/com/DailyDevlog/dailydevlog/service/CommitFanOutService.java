@@ -0,0 +1,123 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.client.GitHubRequestContext;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * CommitFanOutService fetches commit details from GitHub concurrently.
+ * Results are handed to the caller strictly in commit order, and any fetches still
+ * in flight are cancelled as soon as the caller signals that it has seen enough.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class CommitFanOutService {
+
+  private final GitHubService gitHubService;
+
+  // Maximum number of commit detail requests in flight for a single fan-out.
+  private final int concurrency;
+
+  // Shared worker pool; its size caps the total number of fetches across all requests.
+  private final ExecutorService executor;
+
+  @Autowired
+  public CommitFanOutService(
+      GitHubService gitHubService,
+      @Value("${github.fanout.concurrency:4}") int concurrency,
+      @Value("${github.fanout.pool-size:32}") int poolSize
+  ) {
+    this.gitHubService = gitHubService;
+    this.concurrency = Math.max(1, concurrency);
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        Math.max(1, poolSize), Math.max(1, poolSize),
+        60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnable -> {
+          Thread thread = new Thread(runnable, "github-fanout-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+    );
+  }
+
+  /**
+   * Fetches the details of the given commits with at most {@code concurrency} requests in flight.
+   * The consumer receives each commit's details in the same order as {@code shas};
+   * returning {@code false} stops the fan-out and cancels all outstanding fetches.
+   *
+   * @param owner The repository owner's GitHub username or organization name.
+   * @param repo The repository name.
+   * @param shas The commit SHAs to fetch, in the order they should be consumed.
+   * @param consumer Receives commit details in order; returns whether more are wanted.
+   */
+  public void fetchInOrder(String owner, String repo, List<String> shas,
+      Predicate<GitHubCommitDetail> consumer) {
+    Deque<Future<GitHubCommitDetail>> window = new ArrayDeque<>();
+    int next = 0;
+
+    try {
+      // Fills the window with the first batch of requests.
+      while (next < shas.size() && window.size() < concurrency) {
+        window.add(submit(owner, repo, shas.get(next++)));
+      }
+
+      while (!window.isEmpty()) {
+        // Waits for the oldest request so the output keeps commit order.
+        GitHubCommitDetail details = await(window.poll());
+        if (!consumer.test(details)) {
+          return; // The caller has enough; the finally block cancels the rest.
+        }
+
+        // Keeps the window full with the next commit in line.
+        if (next < shas.size()) {
+          window.add(submit(owner, repo, shas.get(next++)));
+        }
+      }
+    } finally {
+      window.forEach(future -> future.cancel(true));
+    }
+  }
+
+  private Future<GitHubCommitDetail> submit(String owner, String repo, String sha) {
+    // Fetches on behalf of the caller: same credentials and rate-limit priority.
+    GitHubRequestContext context = GitHubRequestContext.current();
+    return executor.submit(() -> context.call(() -> gitHubService.getCommitChanges(owner, repo, sha)));
+  }
+
+  private GitHubCommitDetail await(Future<GitHubCommitDetail> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while fetching commit details", e);
+    } catch (ExecutionException e) {
+      // Surfaces the original RestTemplate error to the caller.
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Failed to fetch commit details", e.getCause());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
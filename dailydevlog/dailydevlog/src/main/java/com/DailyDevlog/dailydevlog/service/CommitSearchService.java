@@ -0,0 +1,209 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.entity.CommitRecord;
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import com.DailyDevlog.dailydevlog.repository.CommitFileRecordRepository;
+import com.DailyDevlog.dailydevlog.repository.CommitRecordRepository;
+import com.DailyDevlog.dailydevlog.repository.TrackedRepoRepository;
+import com.DailyDevlog.dailydevlog.search.CommitIndex;
+import com.DailyDevlog.dailydevlog.search.CommitQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CommitSearchService answers commit searches of tracked repositories from an in-memory
+ * {@link CommitIndex} per repository, instead of scanning the stored commits.
+ * An index is built from the local store the first time its repository is searched, and then
+ * kept current by the store, which hands over every commit and changed file it saves.
+ * Commits saved by other instances sharing the database are pulled in by the next search after
+ * the repository's sync time moves: the rows written to the store since the previous catch-up are
+ * read again, whatever their commit date, so merged commits with old dates are found too.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class CommitSearchService {
+
+  private static final Logger log = LoggerFactory.getLogger(CommitSearchService.class);
+
+  // Rows are re-read this far before the newest store time seen, to cover transactions that
+  // committed after it with earlier times and clocks of other instances running behind.
+  private static final Duration STORE_OVERLAP = Duration.ofMinutes(10);
+
+  private final TrackedRepoRepository trackedRepoRepository;
+  private final CommitRecordRepository commitRecordRepository;
+  private final CommitFileRecordRepository commitFileRecordRepository;
+
+  // Upper bound of the result size, so a single search can't return a whole history.
+  private final int maxResults;
+
+  // The store state an index has caught up with: the newest store time of the rows read,
+  // and the repository's sync time when they were read.
+  private record Watermark(Instant storedAt, Instant syncedAt) {
+  }
+
+  // Indexes by repository full name. An index is created by the first save or search of its
+  // repository, filled from the store by the first search, and caught up by later ones.
+  private final Map<String, CommitIndex> indexes = new ConcurrentHashMap<>();
+  private final Map<String, Watermark> watermarks = new ConcurrentHashMap<>();
+
+  @Autowired
+  public CommitSearchService(
+      TrackedRepoRepository trackedRepoRepository,
+      CommitRecordRepository commitRecordRepository,
+      CommitFileRecordRepository commitFileRecordRepository,
+      @Value("${search.max-results:500}") int maxResults
+  ) {
+    this.trackedRepoRepository = trackedRepoRepository;
+    this.commitRecordRepository = commitRecordRepository;
+    this.commitFileRecordRepository = commitFileRecordRepository;
+    this.maxResults = maxResults;
+  }
+
+  /**
+   * Searches the commit messages and changed paths of a tracked repository.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param query The query, see {@link CommitQuery}; blank matches every commit.
+   * @param since (Optional) Only commits at or after this time.
+   * @param until (Optional) Only commits at or before this time.
+   * @param limit The maximum number of commits to return.
+   * @return The matching commits newest first, or empty if the repository is not tracked.
+   */
+  public Optional<List<CommitIndex.Hit>> search(String owner, String repo, String query,
+      Instant since, Instant until, int limit) {
+    return search(owner, repo, null, null, query, since, until, limit);
+  }
+
+  /**
+   * Same as {@link #search(String, String, String, Instant, Instant, int)}, but only answers
+   * if the repository is tracked on the given branch, and only returns commits of one author.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param branch (Optional) The branch the index must mirror; any branch if null.
+   * @param author (Optional) Only commits linked to this GitHub login.
+   * @param query The query, see {@link CommitQuery}; blank matches every commit.
+   * @param since (Optional) Only commits at or after this time.
+   * @param until (Optional) Only commits at or before this time.
+   * @param limit The maximum number of commits to return.
+   * @return The matching commits newest first, or empty if the repository is not tracked on the branch.
+   */
+  public Optional<List<CommitIndex.Hit>> search(String owner, String repo, String branch, String author,
+      String query, Instant since, Instant until, int limit) {
+    String fullName = TrackedRepo.fullName(owner, repo);
+    Optional<TrackedRepo> trackedRepo = trackedRepoRepository.findById(fullName)
+        .filter(tracked -> branch == null || branch.equals(tracked.getBranch()));
+    if (trackedRepo.isEmpty()) {
+      return Optional.empty();
+    }
+
+    CommitIndex index = indexOf(fullName);
+    catchUp(fullName, index, trackedRepo.get().getCommitsSyncedAt());
+    return Optional.of(index.search(CommitQuery.parse(query), author, since, until, Math.min(limit, maxResults)));
+  }
+
+  /**
+   * Adds newly stored commits to the index of their repository.
+   *
+   * @param repoFullName The repository ("owner/repo").
+   * @param commits The stored commits.
+   */
+  public void indexCommits(String repoFullName, Collection<CommitRecord> commits) {
+    CommitIndex index = indexOf(repoFullName);
+    // Oldest first, as GitHub lists pages newest first; the index answers fastest in date order.
+    List<CommitRecord> oldestFirst = new ArrayList<>(commits);
+    oldestFirst.sort(Comparator.comparing(CommitRecord::getCommittedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+    for (CommitRecord commit : oldestFirst) {
+      index.addCommit(commit.getSha(), commit.getCommittedAt(), commit.getMessage(), commit.getAuthorLogin());
+    }
+  }
+
+  /**
+   * Adds the changed files of a stored commit to the index of its repository.
+   *
+   * @param repoFullName The repository ("owner/repo").
+   * @param commit The commit, added too if it isn't indexed yet.
+   * @param filenames The paths of the changed files.
+   */
+  public void indexFiles(String repoFullName, CommitRecord commit, Collection<String> filenames) {
+    CommitIndex index = indexOf(repoFullName);
+    index.addCommit(commit.getSha(), commit.getCommittedAt(), commit.getMessage(), commit.getAuthorLogin());
+    index.addPaths(commit.getSha(), filenames);
+  }
+
+  // Created before anything is read from the store, so that saves racing with the initial load
+  // are never lost: whatever the load misses has been added by the save itself.
+  private CommitIndex indexOf(String repoFullName) {
+    return indexes.computeIfAbsent(repoFullName, key -> new CommitIndex());
+  }
+
+  // Loads the whole repository the first time, and afterwards only what is new since the watermark,
+  // whenever the repository has been synced since (by this or another instance).
+  private void catchUp(String repoFullName, CommitIndex index, Instant syncedAt) {
+    Watermark watermark = watermarks.get(repoFullName);
+    if (watermark != null && Objects.equals(watermark.syncedAt(), syncedAt)) {
+      return;
+    }
+    synchronized (index) {
+      watermark = watermarks.get(repoFullName);
+      if (watermark != null && Objects.equals(watermark.syncedAt(), syncedAt)) {
+        return;
+      }
+      long started = System.nanoTime();
+      Instant newest = watermark != null ? watermark.storedAt() : null;
+      // Rows already indexed are read again within the overlap; adding them twice has no effect.
+      List<CommitRecordRepository.SearchableCommit> commits = watermark == null
+          ? commitRecordRepository.findByRepoFullNameOrderByCommittedAtAsc(repoFullName)
+          : commitRecordRepository.findByRepoFullNameAndStoredAtGreaterThanEqualOrderByCommittedAtAsc(
+              repoFullName, newest != null ? newest.minus(STORE_OVERLAP) : Instant.EPOCH);
+      for (CommitRecordRepository.SearchableCommit commit : commits) {
+        index.addCommit(commit.getSha(), commit.getCommittedAt(), commit.getMessage(), commit.getAuthorLogin());
+        if (commit.getStoredAt() != null && (newest == null || commit.getStoredAt().isAfter(newest))) {
+          newest = commit.getStoredAt();
+        }
+      }
+
+      // Groups the file rows by commit; rows of one commit are added in a single call.
+      String prefix = CommitRecord.key(repoFullName, "");
+      List<CommitFileRecordRepository.ChangedPath> files;
+      if (watermark == null) {
+        files = commitFileRecordRepository.findByCommitIdStartingWith(prefix);
+      } else if (commits.isEmpty()) {
+        files = List.of();
+      } else {
+        files = commitFileRecordRepository.findByCommitIdIn(
+            commits.stream().map(commit -> CommitRecord.key(repoFullName, commit.getSha())).toList());
+      }
+      Map<String, List<String>> pathsBySha = new LinkedHashMap<>();
+      for (CommitFileRecordRepository.ChangedPath file : files) {
+        pathsBySha.computeIfAbsent(file.getCommitId().substring(prefix.length()), sha -> new ArrayList<>())
+            .add(file.getFilename());
+      }
+      pathsBySha.forEach(index::addPaths);
+
+      watermarks.put(repoFullName, new Watermark(newest, syncedAt));
+      if (watermark == null) {
+        log.info("Indexed {} commits of {} in {} ms", index.size(), repoFullName,
+            (System.nanoTime() - started) / 1_000_000);
+      } else {
+        log.debug("Caught up {} commits of {} in {} ms", commits.size(), repoFullName,
+            (System.nanoTime() - started) / 1_000_000);
+      }
+    }
+  }
+}
@@ -0,0 +1,425 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.entity.CommitFileRecord;
+import com.DailyDevlog.dailydevlog.entity.CommitRecord;
+import com.DailyDevlog.dailydevlog.entity.IssueRecord;
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.DailyDevlog.dailydevlog.model.GitHubIssue;
+import com.DailyDevlog.dailydevlog.model.GitHubUser;
+import com.DailyDevlog.dailydevlog.model.IssueSummary;
+import com.DailyDevlog.dailydevlog.repository.CommitFileRecordRepository;
+import com.DailyDevlog.dailydevlog.repository.CommitRecordRepository;
+import com.DailyDevlog.dailydevlog.repository.IssueRecordRepository;
+import com.DailyDevlog.dailydevlog.repository.TrackedRepoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * CommitStore is the local, persistent copy of GitHub commits, patches and issues.
+ * Reads are only answered from the store when the repository was synced recently enough;
+ * otherwise callers fall back to the GitHub API.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class CommitStore {
+
+  private final TrackedRepoRepository trackedRepoRepository;
+  private final CommitRecordRepository commitRecordRepository;
+  private final CommitFileRecordRepository commitFileRecordRepository;
+  private final IssueRecordRepository issueRecordRepository;
+  private final CommitSearchService commitSearchService;
+
+  // How long after a sync the stored listings are served instead of asking GitHub.
+  private final Duration freshness;
+
+  @Autowired
+  public CommitStore(
+      TrackedRepoRepository trackedRepoRepository,
+      CommitRecordRepository commitRecordRepository,
+      CommitFileRecordRepository commitFileRecordRepository,
+      IssueRecordRepository issueRecordRepository,
+      CommitSearchService commitSearchService,
+      @Value("${store.freshness-seconds:300}") long freshnessSeconds
+  ) {
+    this.trackedRepoRepository = trackedRepoRepository;
+    this.commitRecordRepository = commitRecordRepository;
+    this.commitFileRecordRepository = commitFileRecordRepository;
+    this.issueRecordRepository = issueRecordRepository;
+    this.commitSearchService = commitSearchService;
+    this.freshness = Duration.ofSeconds(freshnessSeconds);
+  }
+
+  /**
+   * Returns the tracked repository, creating it if this is the first sync.
+   * A repository mirrors a single branch.
+   *
+   * @throws ResponseStatusException 409 when the repository is already tracked on another branch.
+   */
+  @Transactional
+  public TrackedRepo track(String owner, String repo, String branch) {
+    TrackedRepo trackedRepo = trackedRepoRepository.findById(TrackedRepo.fullName(owner, repo))
+        .orElseGet(() -> trackedRepoRepository.save(new TrackedRepo(owner, repo, branch)));
+    if (!trackedRepo.getBranch().equals(branch)) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, trackedRepo.getFullName()
+          + " is already tracked on branch " + trackedRepo.getBranch());
+    }
+    return trackedRepo;
+  }
+
+  @Transactional
+  public TrackedRepo saveWatermark(TrackedRepo trackedRepo) {
+    return trackedRepoRepository.save(trackedRepo);
+  }
+
+  /**
+   * Returns the tracked repositories with the given full names, with their sync watermarks.
+   */
+  @Transactional(readOnly = true)
+  public List<TrackedRepo> findTrackedRepos(Collection<String> fullNames) {
+    return trackedRepoRepository.findAllById(fullNames);
+  }
+
+  /**
+   * Returns the newest stored commits if the repository branch was synced recently.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) Only commits linked to this GitHub login.
+   * @param branch The branch that was requested.
+   * @param limit The maximum number of commits to return.
+   * @return The commits newest first, or empty if the store is not fresh for this branch.
+   */
+  @Transactional(readOnly = true)
+  public Optional<List<GitHubCommit>> findFreshCommits(String owner, String repo, String author,
+      String branch, int limit) {
+    Optional<TrackedRepo> trackedRepo = trackedRepoRepository.findById(TrackedRepo.fullName(owner, repo));
+    if (trackedRepo.isEmpty() || !trackedRepo.get().getBranch().equals(branch)
+        || !isFresh(trackedRepo.get().getCommitsSyncedAt())) {
+      return Optional.empty();
+    }
+
+    String fullName = trackedRepo.get().getFullName();
+    List<CommitRecord> records = author == null
+        ? commitRecordRepository.findByRepoFullNameOrderByCommittedAtDesc(fullName, PageRequest.of(0, limit))
+        : commitRecordRepository.findByRepoFullNameAndAuthorLoginOrderByCommittedAtDesc(
+            fullName, author, PageRequest.of(0, limit));
+    return Optional.of(records.stream().map(CommitStore::toCommit).toList());
+  }
+
+  /**
+   * Returns the stored commits of an author within a time window, if the store covers the window:
+   * the branch was synced after the window ended. A window that has not ended yet can still gain
+   * commits, so it is never served from the store.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author Only commits linked to this GitHub login.
+   * @param branch The branch that was requested.
+   * @param since Only commits committed at or after this time.
+   * @param until Only commits committed before this time.
+   * @param limit The maximum number of commits to return.
+   * @return The commits newest first, or empty if the store does not cover the window.
+   */
+  @Transactional(readOnly = true)
+  public Optional<List<GitHubCommit>> findCommitsBetween(String owner, String repo, String author,
+      String branch, Instant since, Instant until, int limit) {
+    Optional<TrackedRepo> trackedRepo = trackedRepoRepository.findById(TrackedRepo.fullName(owner, repo));
+    if (trackedRepo.isEmpty() || !trackedRepo.get().getBranch().equals(branch)) {
+      return Optional.empty();
+    }
+    Instant syncedAt = trackedRepo.get().getCommitsSyncedAt();
+    if (syncedAt == null || syncedAt.isBefore(until)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(commitRecordRepository
+        .findByRepoFullNameAndAuthorLoginAndCommittedAtGreaterThanEqualAndCommittedAtLessThanOrderByCommittedAtDesc(
+            trackedRepo.get().getFullName(), author, since, until, PageRequest.of(0, limit))
+        .stream()
+        .map(CommitStore::toCommit)
+        .toList());
+  }
+
+  /**
+   * Returns the most recently updated stored issues if the repository was synced recently.
+   */
+  @Transactional(readOnly = true)
+  public Optional<List<IssueSummary>> findFreshIssues(String owner, String repo, int limit) {
+    Optional<TrackedRepo> trackedRepo = trackedRepoRepository.findById(TrackedRepo.fullName(owner, repo));
+    if (trackedRepo.isEmpty() || !isFresh(trackedRepo.get().getIssuesSyncedAt())) {
+      return Optional.empty();
+    }
+
+    return Optional.of(issueRecordRepository
+        .findByRepoFullNameOrderByUpdatedAtDesc(trackedRepo.get().getFullName(), PageRequest.of(0, limit))
+        .stream()
+        .map(issue -> new IssueSummary(issue.getTitle(), issue.getBody(), issue.getState(), issue.getHtmlUrl(),
+            toText(issue.getCreatedAt()), toText(issue.getUpdatedAt())))
+        .toList());
+  }
+
+  /**
+   * Returns a stored commit with its changed files. Commits never change, so no freshness check is needed.
+   */
+  @Transactional(readOnly = true)
+  public Optional<GitHubCommitDetail> findCommitDetail(String owner, String repo, String sha) {
+    return commitRecordRepository.findById(CommitRecord.key(TrackedRepo.fullName(owner, repo), sha))
+        .filter(CommitRecord::isDetailsFetched)
+        .map(commit -> {
+          List<GitHubCommitFile> files = commitFileRecordRepository.findByCommitIdOrderByPositionAsc(commit.getId())
+              .stream()
+              .map(file -> new GitHubCommitFile(file.getFilename(), file.getStatus(), file.getAdditions(),
+                  file.getDeletions(), file.getAdditions() + file.getDeletions(), file.getPatch()))
+              .toList();
+          GitHubCommit summary = toCommit(commit);
+          return new GitHubCommitDetail(commit.getSha(), summary.commit(), summary.author(), files);
+        });
+  }
+
+  /**
+   * Inserts the commits that are not stored yet, as one batch, and adds them to the search index
+   * once the transaction has committed. Writers of the same repository take turns.
+   *
+   * @param repoFullName The repository the commits belong to ("owner/repo").
+   * @param commits The commits to store.
+   * @return The number of newly stored commits.
+   */
+  @Transactional
+  public int saveCommits(String repoFullName, Collection<GitHubCommit> commits) {
+    // Serializes the check-then-insert below with syncs and pushes of the same repository.
+    trackedRepoRepository.lockById(repoFullName);
+    List<String> ids = commits.stream().map(commit -> CommitRecord.key(repoFullName, commit.sha())).toList();
+    Set<String> existing = commitRecordRepository.findAllById(ids).stream()
+        .map(CommitRecord::getId)
+        .collect(Collectors.toSet());
+
+    List<CommitRecord> records = new ArrayList<>();
+    for (GitHubCommit commit : commits) {
+      if (!existing.contains(CommitRecord.key(repoFullName, commit.sha()))) {
+        records.add(toRecord(repoFullName, commit));
+      }
+    }
+    commitRecordRepository.saveAll(records);
+    afterCommit(() -> commitSearchService.indexCommits(repoFullName, records));
+    return records.size();
+  }
+
+  /**
+   * Stores the changed files of the given commits as one batch, and marks the commits as complete.
+   * The changed paths are added to the search index once the transaction has committed.
+   * Writers of the same repository take turns.
+   *
+   * @param repoFullName The repository the commits belong to ("owner/repo").
+   * @param details The commit details fetched from GitHub.
+   */
+  @Transactional
+  public void saveCommitDetails(String repoFullName, Collection<GitHubCommitDetail> details) {
+    trackedRepoRepository.lockById(repoFullName);
+    List<String> ids = details.stream().map(detail -> CommitRecord.key(repoFullName, detail.sha())).toList();
+    Map<String, CommitRecord> commits = commitRecordRepository.findAllById(ids).stream()
+        .collect(Collectors.toMap(CommitRecord::getId, Function.identity()));
+
+    List<CommitRecord> newCommits = new ArrayList<>();
+    List<CommitFileRecord> files = new ArrayList<>();
+    Map<CommitRecord, List<String>> pathsByCommit = new LinkedHashMap<>();
+    for (GitHubCommitDetail detail : details) {
+      String commitId = CommitRecord.key(repoFullName, detail.sha());
+      CommitRecord commit = commits.get(commitId);
+      if (commit == null) {
+        commit = toRecord(repoFullName,
+            new GitHubCommit(detail.sha(), null, detail.commit(), detail.author()));
+        newCommits.add(commit);
+      } else if (commit.isDetailsFetched()) {
+        continue; // Already complete; commits never change.
+      }
+      commit.setDetailsFetched(true);
+      commit.setStoredAt(Instant.now());
+
+      int position = 0;
+      List<String> paths = new ArrayList<>();
+      for (GitHubCommitFile file : detail.files()) {
+        CommitFileRecord record = new CommitFileRecord(commitId, position++);
+        record.setFilename(file.filename());
+        record.setStatus(file.status());
+        record.setAdditions(file.additions());
+        record.setDeletions(file.deletions());
+        record.setPatch(file.patch());
+        files.add(record);
+        paths.add(file.filename());
+      }
+      pathsByCommit.put(commit, paths);
+    }
+    commitRecordRepository.saveAll(newCommits);
+    commitFileRecordRepository.saveAll(files);
+    afterCommit(() -> pathsByCommit.forEach((commit, paths) ->
+        commitSearchService.indexFiles(repoFullName, commit, paths)));
+  }
+
+  /**
+   * Inserts new issues and updates the stored copy of changed ones.
+   *
+   * @param repoFullName The repository the issues belong to ("owner/repo").
+   * @param issues The issues fetched from GitHub.
+   * @return The number of inserted or updated issues.
+   */
+  @Transactional
+  public int saveIssues(String repoFullName, Collection<GitHubIssue> issues) {
+    Map<Long, IssueRecord> existing = issueRecordRepository
+        .findAllById(issues.stream().map(GitHubIssue::id).toList()).stream()
+        .collect(Collectors.toMap(IssueRecord::getId, Function.identity()));
+
+    List<IssueRecord> newIssues = new ArrayList<>();
+    for (GitHubIssue issue : issues) {
+      IssueRecord record = existing.get(issue.id());
+      if (record == null) {
+        record = new IssueRecord(issue.id(), repoFullName);
+        newIssues.add(record);
+      }
+      // Existing records are managed, so their changes are flushed on commit.
+      record.setNumber(issue.number());
+      record.setTitle(issue.title());
+      record.setBody(issue.body());
+      record.setState(issue.state());
+      record.setHtmlUrl(issue.htmlUrl());
+      record.setAuthorLogin(issue.user() != null ? issue.user().login() : null);
+      record.setCreatedAt(parseInstant(issue.createdAt()));
+      record.setUpdatedAt(parseInstant(issue.updatedAt()));
+    }
+    issueRecordRepository.saveAll(newIssues);
+    return issues.size();
+  }
+
+  /**
+   * Stores the commits of a push to the mirrored branch of a tracked repository.
+   * If the push continues the stored history, the watermark moves to its head and the store
+   * counts as synced; otherwise (force push, missed deliveries, truncated payload) the stored
+   * listing is marked stale so reads go to GitHub until the next sync.
+   *
+   * @param repoFullName The repository ("owner/repo").
+   * @param branch The pushed branch.
+   * @param before The branch head before the push.
+   * @param after The branch head after the push.
+   * @param complete Whether the payload lists every pushed commit of a fast-forward.
+   * @param commits The pushed commits, oldest first.
+   * @return The number of newly stored commits; 0 if the repository or branch is not tracked.
+   */
+  @Transactional
+  public int applyPush(String repoFullName, String branch, String before, String after, boolean complete,
+      List<GitHubCommit> commits) {
+    Optional<TrackedRepo> found = trackedRepoRepository.lockById(repoFullName);
+    if (found.isEmpty() || !found.get().getBranch().equals(branch)) {
+      return 0;
+    }
+
+    TrackedRepo trackedRepo = found.get();
+    int stored = saveCommits(repoFullName, commits);
+    if (complete && before.equals(trackedRepo.getLastCommitSha())) {
+      trackedRepo.setLastCommitSha(after);
+      if (!commits.isEmpty()) {
+        Instant newest = toRecord(repoFullName, commits.get(commits.size() - 1)).getCommittedAt();
+        if (newest != null) {
+          trackedRepo.setLastCommitDate(newest);
+        }
+      }
+      trackedRepo.setCommitsSyncedAt(Instant.now());
+    } else {
+      trackedRepo.setCommitsSyncedAt(null);
+    }
+    trackedRepoRepository.save(trackedRepo);
+    return stored;
+  }
+
+  /**
+   * Stores or removes one issue of a tracked repository.
+   *
+   * @param repoFullName The repository ("owner/repo").
+   * @param issue The issue as sent by GitHub.
+   * @param deleted Whether the issue was deleted.
+   * @return Whether the repository is tracked, i.e. whether anything was written.
+   */
+  @Transactional
+  public boolean applyIssue(String repoFullName, GitHubIssue issue, boolean deleted) {
+    if (!trackedRepoRepository.existsById(repoFullName)) {
+      return false;
+    }
+    if (deleted) {
+      issueRecordRepository.deleteById(issue.id());
+    } else {
+      saveIssues(repoFullName, List.of(issue));
+    }
+    return true;
+  }
+
+  // The in-memory index must not show rows that a rollback discards, so it is updated after commit.
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private boolean isFresh(Instant syncedAt) {
+    return syncedAt != null && syncedAt.plus(freshness).isAfter(Instant.now());
+  }
+
+  private static CommitRecord toRecord(String repoFullName, GitHubCommit commit) {
+    CommitRecord record = new CommitRecord(repoFullName, commit.sha());
+    record.setStoredAt(Instant.now());
+    record.setMessage(commit.message());
+    record.setHtmlUrl(commit.htmlUrl());
+    record.setAuthorLogin(commit.author() != null ? commit.author().login() : null);
+    if (commit.commit() != null && commit.commit().author() != null) {
+      record.setAuthorName(commit.commit().author().name());
+    }
+    if (commit.commit() != null && commit.commit().committer() != null) {
+      record.setCommittedAt(parseInstant(commit.commit().committer().date()));
+    }
+    return record;
+  }
+
+  private static GitHubCommit toCommit(CommitRecord record) {
+    GitHubCommit.Signature signature = new GitHubCommit.Signature(
+        record.getAuthorName(), null, toText(record.getCommittedAt()));
+    return new GitHubCommit(
+        record.getSha(),
+        record.getHtmlUrl(),
+        new GitHubCommit.CommitInfo(record.getMessage(), signature, signature),
+        record.getAuthorLogin() != null ? new GitHubUser(record.getAuthorLogin(), null) : null
+    );
+  }
+
+  private static Instant parseInstant(String text) {
+    return text != null ? Instant.parse(text) : null;
+  }
+
+  private static String toText(Instant instant) {
+    return instant != null ? instant.toString() : null;
+  }
+}
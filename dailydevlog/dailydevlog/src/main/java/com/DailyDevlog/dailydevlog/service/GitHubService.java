@@ -1,12 +1,58 @@
 package com.DailyDevlog.dailydevlog.service;
 
+import com.DailyDevlog.dailydevlog.client.GitHubRateLimiter;
+import com.DailyDevlog.dailydevlog.client.GitHubRequestContext;
+import com.DailyDevlog.dailydevlog.client.GitHubResponseCache;
+import com.DailyDevlog.dailydevlog.client.GitHubResponseCache.CachedResponse;
+import com.DailyDevlog.dailydevlog.client.OutboundMetrics;
+import com.DailyDevlog.dailydevlog.client.SingleFlight;
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.model.GitHubIssue;
+import com.DailyDevlog.dailydevlog.model.IssueSummary;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * GitHubService is a service class that interacts with the GitHub API.
@@ -15,8 +61,93 @@ import java.util.HashMap;
 @Service // Marks this class as a service component in the Spring application context.
 public class GitHubService {
 
-  // RestTemplate is used to make HTTP requests to external APIs (e.g., GitHub API).
-  private final RestTemplate restTemplate = new RestTemplate();
+  private static final Logger log = LoggerFactory.getLogger(GitHubService.class);
+
+  // Base URL of the GitHub REST API.
+  private final String apiUrl;
+
+  // Stores response bodies and validators for conditional requests.
+  private final GitHubResponseCache responseCache;
+
+  // Local copy of synced repositories, consulted before calling GitHub.
+  private final CommitStore commitStore;
+
+  // Shared pooled RestTemplate used to make HTTP requests to external APIs (e.g., GitHub API).
+  private final RestTemplate restTemplate;
+
+  // Schedules every call against the GitHub rate limit of its credentials.
+  private final GitHubRateLimiter rateLimiter;
+
+  // Records latency and response size of every call that reaches GitHub.
+  private final OutboundMetrics outboundMetrics;
+
+  // Optional token the application authenticates with when no user token is given.
+  private final String appToken;
+
+  // Concurrent identical reads share one upstream call, keyed on priority, credentials and URL.
+  private final SingleFlight<String, CachedResponse> upstreamCalls = new SingleFlight<>();
+
+  // Runs the shared upstream calls, so that any waiting caller can leave without cancelling them for the others.
+  // Bounded; calls beyond the pool and its queue are refused with 503 instead of piling up threads.
+  private final ExecutorService upstreamExecutor;
+
+  // Largest page size GitHub allows for list endpoints.
+  private static final int PAGE_SIZE = 100;
+
+  // Number of items GitHub returns on the first page when no page size is given.
+  private static final int DEFAULT_PAGE_SIZE = 30;
+
+  // Parses the raw (possibly cached) response bodies.
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Autowired
+  public GitHubService(
+      @Value("${github.api.url:https://api.github.com}") String apiUrl,
+      RestTemplate restTemplate,
+      GitHubResponseCache responseCache,
+      CommitStore commitStore,
+      GitHubRateLimiter rateLimiter,
+      OutboundMetrics outboundMetrics,
+      @Value("${github.api.token:}") String appToken,
+      @Value("${github.upstream.pool-size:64}") int upstreamPoolSize,
+      @Value("${github.upstream.queue-capacity:256}") int upstreamQueueCapacity
+  ) {
+    this.apiUrl = apiUrl;
+    this.restTemplate = restTemplate;
+    this.responseCache = responseCache;
+    this.commitStore = commitStore;
+    this.rateLimiter = rateLimiter;
+    this.outboundMetrics = outboundMetrics;
+    this.appToken = appToken;
+
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadPoolExecutor upstreamPool = new ThreadPoolExecutor(
+        Math.max(1, upstreamPoolSize), Math.max(1, upstreamPoolSize),
+        60L, TimeUnit.SECONDS,
+        upstreamQueueCapacity > 0 ? new ArrayBlockingQueue<>(upstreamQueueCapacity) : new SynchronousQueue<>(),
+        runnable -> {
+          Thread thread = new Thread(runnable, "github-upstream-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+    upstreamPool.allowCoreThreadTimeOut(true);
+    this.upstreamExecutor = upstreamPool;
+    outboundMetrics.gitHubCoalescing(upstreamCalls);
+  }
+
+  /**
+   * Retrieves the profile of the user an access token belongs to.
+   *
+   * @param authorization The user's Authorization header, e.g. "Bearer &lt;token&gt;".
+   * @return The user profile JSON as returned by GitHub.
+   */
+  public String getAuthenticatedUser(String authorization) {
+    return GitHubRequestContext.withAuthorization(authorization).call(() ->
+        new String(fetch(apiUrl + "/user", false).body(), StandardCharsets.UTF_8)
+    );
+  }
 
   /**
    * Retrieves a list of commits from a specific GitHub repository.
@@ -29,14 +160,151 @@ public class GitHubService {
    */
   public List<Map<String, Object>> getUserCommits(String username, String repo, String author, String branch) {
     // Constructs the GitHub API URL to fetch commit data.
-    String url = String.format(
-        "https://api.github.com/repos/%s/%s/commits?sha=%s&author=%s",
-        username, repo, branch, author
+    String url = commitListUrl(username, repo, author, branch);
+    log.debug("Request URL: {}", url);
+
+    // Sends a (conditional) GET request to the GitHub API and returns the response as a list of maps.
+    return readJson(fetch(url, false).body(), List.class);
+  }
+
+  /**
+   * Retrieves the first page of commits as typed records, binding only the fields the
+   * application uses. Served from the local store when the branch was synced recently;
+   * otherwise shares its cache entry with {@link #getUserCommits}.
+   *
+   * @param owner The repository owner's GitHub username or organization name.
+   * @param repo The repository name.
+   * @param author (Optional) The GitHub username of the commit author.
+   * @param branch The branch name to retrieve commits from.
+   * @return The commits, newest first.
+   */
+  public List<GitHubCommit> listCommits(String owner, String repo, String author, String branch) {
+    Optional<List<GitHubCommit>> stored = commitStore.findFreshCommits(owner, repo, author, branch, DEFAULT_PAGE_SIZE);
+    if (stored.isPresent()) {
+      return stored.get();
+    }
+
+    List<GitHubCommit> commits = new ArrayList<>();
+    readEach(fetch(commitListUrl(owner, repo, author, branch), false).body(), GitHubCommit.class, commits::add);
+    return commits;
+  }
+
+  /**
+   * Retrieves the commits of an author within a time window, e.g. one day of activity.
+   * Served from the local store when it covers the window; otherwise walks GitHub's history pages.
+   *
+   * @param owner The repository owner's GitHub username or organization name.
+   * @param repo The repository name.
+   * @param author The GitHub username of the commit author.
+   * @param branch The branch name to retrieve commits from.
+   * @param since Only commits committed at or after this time.
+   * @param until Only commits committed before this time.
+   * @param limit The maximum number of commits to return.
+   * @return The commits, newest first.
+   */
+  public List<GitHubCommit> listCommitsBetween(String owner, String repo, String author, String branch,
+      Instant since, Instant until, int limit) {
+    Optional<List<GitHubCommit>> stored = commitStore.findCommitsBetween(owner, repo, author, branch, since, until,
+        limit);
+    if (stored.isPresent()) {
+      return stored.get();
+    }
+
+    // GitHub's until is inclusive, so a commit made exactly at the end of the window is dropped here.
+    List<GitHubCommit> commits = new ArrayList<>();
+    walkPages(commitHistoryUrl(owner, repo, author, branch, since, until), GitHubCommit.class, commit -> {
+      Instant committedAt = commit.commit() != null && commit.commit().committer() != null
+          ? parseInstant(commit.commit().committer().date()) : null;
+      if (committedAt == null || committedAt.isBefore(until)) {
+        commits.add(commit);
+      }
+      return commits.size() < limit;
+    });
+    return commits;
+  }
+
+  /**
+   * Walks the commit history of a branch page by page, newest first, binding each commit
+   * to a typed record. Used by the background sync to fetch only what is new.
+   *
+   * @param owner The repository owner's GitHub username or organization name.
+   * @param repo The repository name.
+   * @param branch The branch name to retrieve commits from.
+   * @param since (Optional) Only commits committed at or after this time.
+   * @param consumer Receives each commit; returning false ends the walk.
+   */
+  public void walkCommits(String owner, String repo, String branch, Instant since,
+      Predicate<GitHubCommit> consumer) {
+    walkPages(commitHistoryUrl(owner, repo, null, branch, since, null), GitHubCommit.class, consumer);
+  }
+
+  /**
+   * Walks all issues of a repository page by page, most recently updated first.
+   *
+   * @param owner The repository owner's GitHub username or organization name.
+   * @param repo The repository name.
+   * @param since (Optional) Only issues updated at or after this time.
+   * @param consumer Receives each issue; returning false ends the walk.
+   */
+  public void walkIssues(String owner, String repo, Instant since, Predicate<GitHubIssue> consumer) {
+    walkPages(issueHistoryUrl(owner, repo, since), GitHubIssue.class, consumer);
+  }
+
+  private String commitListUrl(String owner, String repo, String author, String branch) {
+    return String.format(
+        "%s/repos/%s/%s/commits?sha=%s&author=%s",
+        apiUrl, owner, repo, branch, author
     );
-    System.out.println("Request URL: " + url); // Logs the request URL for debugging.
+  }
 
-    // Sends a GET request to the GitHub API and returns the response as a list of maps.
-    return restTemplate.getForObject(url, List.class);
+  /**
+   * Streams the full commit history of a branch as newline-delimited JSON.
+   * Follows GitHub's {@code Link: rel="next"} pagination with 100 commits per page and writes
+   * each commit as soon as its page arrives, so memory use does not grow with history length.
+   *
+   * @param owner The repository owner's GitHub username or organization name.
+   * @param repo The repository name.
+   * @param author (Optional) The GitHub username of the commit author.
+   * @param branch The branch name to retrieve commits from.
+   * @param since (Optional) Only commits committed at or after this time.
+   * @param until (Optional) Only commits committed at or before this time.
+   * @param out The stream that receives one JSON commit per line.
+   */
+  public void streamCommits(String owner, String repo, String author, String branch,
+      Instant since, Instant until, OutputStream out) throws IOException {
+    // GitHub already applies since/until; the date check only guards the walk against stray pages.
+    streamPages(commitHistoryUrl(owner, repo, author, branch, since, until), out, commit -> {
+      Instant committedAt = parseInstant(commit.path("commit").path("committer").path("date").asText(null));
+      if (since != null && committedAt != null && committedAt.isBefore(since)) {
+        return null; // Commits are newest first, so everything after this is older too.
+      }
+      return commit;
+    });
+  }
+
+  // Full-history commit listing: 100 per page, optional filters only when given.
+  private String commitHistoryUrl(String owner, String repo, String author, String branch,
+      Instant since, Instant until) {
+    UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(apiUrl)
+        .path("/repos/{owner}/{repo}/commits")
+        .queryParam("per_page", PAGE_SIZE);
+    addParam(builder, "sha", branch);
+    addParam(builder, "author", author);
+    addParam(builder, "since", since);
+    addParam(builder, "until", until);
+    return builder.encode().buildAndExpand(owner, repo).toUriString();
+  }
+
+  // Full-history issue listing: 100 per page, most recently updated first.
+  private String issueHistoryUrl(String owner, String repo, Instant since) {
+    UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(apiUrl)
+        .path("/repos/{owner}/{repo}/issues")
+        .queryParam("state", "all")
+        .queryParam("sort", "updated")
+        .queryParam("direction", "desc")
+        .queryParam("per_page", PAGE_SIZE);
+    addParam(builder, "since", since);
+    return builder.encode().buildAndExpand(owner, repo).toUriString();
   }
 
   /**
@@ -46,50 +314,348 @@ public class GitHubService {
    * @param repo The repository name.
    * @return A list of simplified issue data including title, body, state, and URLs.
    */
-  public List<Map<String, Object>> getRepositoryIssues(String owner, String repo) {
-    // Constructs the API URL to fetch all issues from the repository.
-    String url = String.format("https://api.github.com/repos/%s/%s/issues?state=all", owner, repo);
-    System.out.println("Request URL (Issues): " + url); // Logs the request URL for issues.
-
-    // Fetches the full issue data from the GitHub API.
-    List<Map<String, Object>> issues = restTemplate.getForObject(url, List.class);
-
-    // Prepares a list to hold simplified issue data.
-    List<Map<String, Object>> simplifiedIssues = new ArrayList<>();
-
-    if (issues != null) {
-      for (Map<String, Object> issue : issues) {
-        // Creates a simplified issue map with only necessary fields.
-        Map<String, Object> simplifiedIssue = new HashMap<>();
-        simplifiedIssue.put("title", issue.get("title")); // Issue title
-        simplifiedIssue.put("body", issue.get("body")); // Issue body text
-        simplifiedIssue.put("state", issue.get("state")); // Issue state (open, closed, etc.)
-        simplifiedIssue.put("url", issue.get("html_url")); // URL to the issue on GitHub
-        simplifiedIssue.put("created_at", issue.get("created_at")); // Creation date
-        simplifiedIssue.put("updated_at", issue.get("updated_at")); // Last update date
-
-        // Adds the simplified issue to the list.
-        simplifiedIssues.add(simplifiedIssue);
-      }
+  public List<IssueSummary> getRepositoryIssues(String owner, String repo) {
+    Optional<List<IssueSummary>> stored = commitStore.findFreshIssues(owner, repo, DEFAULT_PAGE_SIZE);
+    if (stored.isPresent()) {
+      return stored.get();
     }
 
+    // Constructs the API URL to fetch all issues from the repository.
+    String url = String.format("%s/repos/%s/%s/issues?state=all", apiUrl, owner, repo);
+    log.debug("Request URL (Issues): {}", url);
+
+    // Streams the issues out of the response one at a time, keeping only the necessary fields.
+    List<IssueSummary> simplifiedIssues = new ArrayList<>();
+    readEach(fetch(url, false).body(), GitHubIssue.class,
+        issue -> simplifiedIssues.add(IssueSummary.from(issue)));
+
     // Returns the list of simplified issues.
     return simplifiedIssues;
   }
 
+  /**
+   * Streams all issues of a repository as newline-delimited simplified issues.
+   * Issues are walked most recently updated first, 100 per page, so the walk stops
+   * as soon as it passes the {@code since} bound.
+   *
+   * @param owner The repository owner's GitHub username or organization name.
+   * @param repo The repository name.
+   * @param since (Optional) Only issues updated at or after this time.
+   * @param until (Optional) Only issues updated at or before this time.
+   * @param out The stream that receives one simplified JSON issue per line.
+   */
+  public void streamRepositoryIssues(String owner, String repo, Instant since, Instant until,
+      OutputStream out) throws IOException {
+    streamPages(issueHistoryUrl(owner, repo, since), out, issue -> {
+      Instant updatedAt = parseInstant(issue.path("updated_at").asText(null));
+      if (since != null && updatedAt != null && updatedAt.isBefore(since)) {
+        return null; // Sorted by update time, so no later issue can match.
+      }
+      if (until != null && updatedAt != null && updatedAt.isAfter(until)) {
+        return NullNode.getInstance(); // Skips issues that are too new but keeps walking.
+      }
+
+      // Keeps only the fields exposed by the simplified issue listing.
+      ObjectNode simplifiedIssue = objectMapper.createObjectNode();
+      simplifiedIssue.set("title", issue.get("title"));
+      simplifiedIssue.set("body", issue.get("body"));
+      simplifiedIssue.set("state", issue.get("state"));
+      simplifiedIssue.set("url", issue.get("html_url"));
+      simplifiedIssue.set("created_at", issue.get("created_at"));
+      simplifiedIssue.set("updated_at", issue.get("updated_at"));
+      return simplifiedIssue;
+    });
+  }
+
   /**
    * Retrieves detailed information about a specific commit from a GitHub repository.
    *
    * @param owner The repository owner's GitHub username or organization name.
    * @param repo The repository name.
    * @param sha The SHA (hash) of the commit to retrieve.
-   * @return A map containing commit details such as files changed, author, and message.
+   * @return The commit details such as files changed, author, and message.
    */
-  public Map<String, Object> getCommitChanges(String owner, String repo, String sha) {
+  public GitHubCommitDetail getCommitChanges(String owner, String repo, String sha) {
+    // Commits that were synced to the local store never need to be fetched again.
+    Optional<GitHubCommitDetail> stored = commitStore.findCommitDetail(owner, repo, sha);
+    if (stored.isPresent()) {
+      return stored.get();
+    }
+
     // Constructs the API URL to fetch specific commit details.
-    String url = String.format("https://api.github.com/repos/%s/%s/commits/%s", owner, repo, sha);
+    String url = String.format("%s/repos/%s/%s/commits/%s", apiUrl, owner, repo, sha);
+
+    // A commit addressed by its full SHA never changes, so it is served from memory once cached.
+    boolean immutable = sha != null && sha.matches("[0-9a-f]{40}");
+
+    // Sends a GET request to fetch the commit details and binds them to a typed record.
+    return readJson(fetch(url, immutable).body(), GitHubCommitDetail.class);
+  }
+
+  /**
+   * Walks a paginated GitHub list endpoint, binding each item to a typed record.
+   *
+   * @param firstUrl The URL of the first page.
+   * @param type The record type of each item.
+   * @param consumer Receives each item; returning false ends the walk.
+   */
+  private <T> void walkPages(String firstUrl, Class<T> type, Predicate<T> consumer) {
+    String url = firstUrl;
+    while (url != null) {
+      CachedResponse page = fetch(url, false);
+      if (!readEachWhile(page.body(), type, consumer)) {
+        return;
+      }
+      url = nextPageUrl(page.link());
+    }
+  }
+
+  /**
+   * Walks a paginated GitHub list endpoint and writes its items as newline-delimited JSON.
+   * Each page is parsed one array element at a time and flushed before the next page is requested.
+   *
+   * @param firstUrl The URL of the first page.
+   * @param out The stream that receives one JSON item per line.
+   * @param mapper Maps each item to the node to write; a JSON null node skips the item,
+   *               and a Java null ends the walk.
+   */
+  private void streamPages(String firstUrl, OutputStream out, UnaryOperator<JsonNode> mapper)
+      throws IOException {
+    String url = firstUrl;
+    while (url != null) {
+      CachedResponse page = fetch(url, false);
+
+      try (JsonParser parser = objectMapper.getFactory().createParser(page.body())) {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+          return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          JsonNode item = mapper.apply(objectMapper.readTree(parser));
+          if (item == null) {
+            out.flush();
+            return;
+          }
+          if (!item.isNull()) {
+            writeLine(item, out);
+          }
+        }
+      }
+
+      // Pushes the finished page to the client before requesting the next one.
+      out.flush();
+      url = nextPageUrl(page.link());
+    }
+  }
+
+  // Writes a JSON node followed by a newline.
+  private void writeLine(JsonNode node, OutputStream out) throws IOException {
+    out.write(objectMapper.writeValueAsBytes(node));
+    out.write('\n');
+  }
+
+  /**
+   * Extracts the {@code rel="next"} URL from a GitHub Link header.
+   *
+   * @param link The Link header value, e.g. {@code <https://...&page=2>; rel="next", <...>; rel="last"}.
+   * @return The next page URL, or null if this is the last page.
+   */
+  static String nextPageUrl(String link) {
+    if (link == null) {
+      return null;
+    }
+    for (String part : link.split(",")) {
+      String[] segments = part.split(";");
+      if (segments.length < 2) {
+        continue;
+      }
+      for (int i = 1; i < segments.length; i++) {
+        if (segments[i].trim().equals("rel=\"next\"")) {
+          String target = segments[0].trim();
+          return target.substring(1, target.length() - 1); // Strips the surrounding angle brackets.
+        }
+      }
+    }
+    return null;
+  }
+
+  // Adds a query parameter only when a value was given.
+  private static void addParam(UriComponentsBuilder builder, String name, Object value) {
+    if (value != null) {
+      builder.queryParam(name, value.toString());
+    }
+  }
+
+  /**
+   * Binds the elements of a JSON array one at a time, without materializing the whole array.
+   *
+   * @param body The raw JSON array.
+   * @param type The record type of each element.
+   * @param consumer Receives each bound element in order.
+   */
+  private <T> void readEach(byte[] body, Class<T> type, Consumer<T> consumer) {
+    readEachWhile(body, type, item -> {
+      consumer.accept(item);
+      return true;
+    });
+  }
+
+  // Like readEach, but stops as soon as the consumer returns false; returns whether it ran to the end.
+  private <T> boolean readEachWhile(byte[] body, Class<T> type, Predicate<T> consumer) {
+    if (body.length == 0) {
+      return true;
+    }
+    try (MappingIterator<T> iterator = objectMapper.readerFor(type).readValues(body)) {
+      while (iterator.hasNextValue()) {
+        if (!consumer.test(iterator.nextValue())) {
+          return false;
+        }
+      }
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Invalid JSON response from GitHub", e);
+    }
+  }
+
+  private static Instant parseInstant(String text) {
+    return text != null ? Instant.parse(text) : null;
+  }
+
+  /**
+   * Fetches a GitHub API resource through the response cache.
+   * Immutable resources are returned from memory when cached; everything else is sent
+   * as a conditional request with the cached ETag / Last-Modified validators,
+   * and a 304 Not Modified reply reuses the cached body.
+   *
+   * The call is made with the credentials of the current {@link GitHubRequestContext}
+   * and scheduled by the rate limiter; responses fetched with a user's token are cached for that user only.
+   *
+   * @param url The GitHub API URL to fetch.
+   * @param immutable Whether the resource can never change once fetched.
+   * @return The response body together with its validators and Link header.
+   */
+  private CachedResponse fetch(String url, boolean immutable) {
+    GitHubRequestContext context = GitHubRequestContext.current();
+    String quotaKey = GitHubRateLimiter.quotaKey(context.authorization());
+    String normalizedUrl = normalizeUrl(url);
+    String cacheKey = GitHubRateLimiter.APP_QUOTA.equals(quotaKey) ? normalizedUrl : quotaKey + " " + normalizedUrl;
+
+    CachedResponse cached = responseCache.get(cacheKey);
+    if (cached != null && cached.immutable()) {
+      responseCache.recordHit();
+      return cached;
+    }
+
+    // Callers asking for the same URL with the same credentials while a call is in flight wait for it;
+    // the call runs with the context of the caller that started it.
+    try {
+      return upstreamCalls.executeDetached(
+          context.priority() + " " + cacheKey,
+          () -> context.call(() -> fetchUpstream(url, immutable, context, quotaKey, cacheKey)),
+          upstreamExecutor
+      ).value();
+    } catch (RejectedExecutionException e) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent GitHub calls", e);
+    }
+  }
+
+  // Calls GitHub, revalidating the cached response if there is one, and caches the result.
+  private CachedResponse fetchUpstream(String url, boolean immutable, GitHubRequestContext context,
+      String quotaKey, String cacheKey) {
+    CachedResponse cached = responseCache.get(cacheKey);
+
+    // Adds the stored validators so that GitHub can answer with 304 Not Modified.
+    HttpHeaders headers = new HttpHeaders();
+    if (context.authorization() != null) {
+      headers.set(HttpHeaders.AUTHORIZATION, context.authorization());
+    } else if (!appToken.isBlank()) {
+      headers.setBearerAuth(appToken);
+    }
+    if (cached != null && cached.etag() != null) {
+      headers.set(HttpHeaders.IF_NONE_MATCH, cached.etag());
+    }
+    if (cached != null && cached.lastModified() != null) {
+      headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+    }
+
+    // The URL is passed as a URI so that already-encoded pagination links are not encoded twice.
+    String operation = operationOf(url);
+    ResponseEntity<byte[]> response = rateLimiter.execute(quotaKey, context.priority(), () ->
+        outboundMetrics.gitHub(operation, () ->
+            restTemplate.exchange(URI.create(url), HttpMethod.GET, new HttpEntity<>(headers), byte[].class)
+        )
+    );
+
+    if (cached != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+      responseCache.recordRevalidation();
+      return cached;
+    }
+
+    responseCache.recordMiss();
+    byte[] body = response.getBody() != null ? response.getBody() : new byte[0];
+    CachedResponse fetched = new CachedResponse(
+        body,
+        response.getHeaders().getETag(),
+        response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED),
+        response.getHeaders().getFirst(HttpHeaders.LINK),
+        immutable
+    );
+    if (immutable || fetched.etag() != null || fetched.lastModified() != null) {
+      responseCache.put(cacheKey, fetched);
+    }
+    return fetched;
+  }
+
+  /**
+   * Sorts the query parameters of a URL, so that equivalent URLs share cache entries and upstream calls.
+   *
+   * @param url An absolute URL.
+   * @return The URL with its query parameters in lexical order.
+   */
+  static String normalizeUrl(String url) {
+    int query = url.indexOf('?');
+    if (query < 0) {
+      return url;
+    }
+    String[] parameters = url.substring(query + 1).split("&");
+    Arrays.sort(parameters);
+    return url.substring(0, query + 1) + String.join("&", parameters);
+  }
+
+  /**
+   * Names the kind of GitHub resource a URL points to, for metrics:
+   * "commits", "commit-detail", "issues", "user" or "other".
+   */
+  static String operationOf(String url) {
+    String path = URI.create(url).getPath();
+    if (path.matches(".*/repos/[^/]+/[^/]+/commits/[^/]+")) {
+      return "commit-detail";
+    }
+    if (path.endsWith("/commits")) {
+      return "commits";
+    }
+    if (path.endsWith("/issues")) {
+      return "issues";
+    }
+    if (path.endsWith("/user")) {
+      return "user";
+    }
+    return "other";
+  }
+
+  // Parses a JSON response body into the given type.
+  private <T> T readJson(byte[] body, Class<T> type) {
+    if (body.length == 0) {
+      return null;
+    }
+    try {
+      return objectMapper.readValue(body, type);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Invalid JSON response from GitHub", e);
+    }
+  }
 
-    // Sends a GET request to fetch the commit details and returns them as a map.
-    return restTemplate.getForObject(url, Map.class);
+  @PreDestroy
+  public void shutdown() {
+    upstreamExecutor.shutdownNow();
   }
 }
@@ -0,0 +1,306 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.entity.RegisteredUser;
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import com.DailyDevlog.dailydevlog.repository.RegisteredUserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IngestionService keeps the repositories of registered users warm in the local store.
+ * <p>
+ * Every {@code ingestion.interval-ms} it looks for repositories whose last sync is older than
+ * the interval and syncs them incrementally from their stored watermarks (see {@link SyncService})
+ * on a bounded worker pool. Each sync starts after a random delay of up to
+ * {@code ingestion.max-jitter-ms}, so that repositories registered together do not hit GitHub together.
+ * <p>
+ * With several backend instances, each repository is owned by exactly one of them
+ * ({@code ingestion.node-index} of {@code ingestion.node-count}), chosen by rendezvous hashing on
+ * the repository name: every node agrees on the owner without coordination, and adding a node
+ * only moves the repositories the new node takes over.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class IngestionService {
+
+  private static final Logger log = LoggerFactory.getLogger(IngestionService.class);
+
+  private final SyncService syncService;
+  private final CommitStore commitStore;
+  private final RegisteredUserRepository registeredUserRepository;
+  private final MeterRegistry meterRegistry;
+
+  private final boolean enabled;
+  private final Duration interval;
+  private final long maxJitterMillis;
+  private final int nodeIndex;
+  private final int nodeCount;
+
+  private final ScheduledThreadPoolExecutor executor;
+
+  // Repositories scheduled or syncing on this node; a repository is never queued twice.
+  private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+  // Last successful sync, in epoch milliseconds, and its lag gauge.
+  private record Lag(AtomicLong lastSyncedMillis, Meter.Id gaugeId) {
+  }
+
+  // The lag of each repository owned by this node, dropped once it is no longer registered or owned.
+  private final Map<String, Lag> lags = new ConcurrentHashMap<>();
+
+  private final Timer successTimer;
+  private final Timer failureTimer;
+
+  @Autowired
+  public IngestionService(
+      SyncService syncService,
+      CommitStore commitStore,
+      RegisteredUserRepository registeredUserRepository,
+      MeterRegistry meterRegistry,
+      @Value("${ingestion.enabled:true}") boolean enabled,
+      @Value("${ingestion.interval-ms:300000}") long intervalMillis,
+      @Value("${ingestion.workers:4}") int workers,
+      @Value("${ingestion.max-jitter-ms:30000}") long maxJitterMillis,
+      @Value("${ingestion.node-index:0}") int nodeIndex,
+      @Value("${ingestion.node-count:1}") int nodeCount
+  ) {
+    if (nodeCount < 1 || nodeIndex < 0 || nodeIndex >= nodeCount) {
+      throw new IllegalArgumentException(
+          "ingestion.node-index must be between 0 and ingestion.node-count - 1, got " + nodeIndex + " of " + nodeCount);
+    }
+    this.syncService = syncService;
+    this.commitStore = commitStore;
+    this.registeredUserRepository = registeredUserRepository;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.interval = Duration.ofMillis(intervalMillis);
+    this.maxJitterMillis = Math.max(0, maxJitterMillis);
+    this.nodeIndex = nodeIndex;
+    this.nodeCount = nodeCount;
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ScheduledThreadPoolExecutor(Math.max(1, workers), runnable -> {
+      Thread thread = new Thread(runnable, "ingestion-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.executor.setRemoveOnCancelPolicy(true);
+
+    this.successTimer = Timer.builder("ingestion.sync.duration").tag("outcome", "success").register(meterRegistry);
+    this.failureTimer = Timer.builder("ingestion.sync.duration").tag("outcome", "failure").register(meterRegistry);
+    Gauge.builder("ingestion.repos.in.flight", inFlight, Set::size).register(meterRegistry);
+    Gauge.builder("ingestion.repos.owned", lags, Map::size).register(meterRegistry);
+  }
+
+  /**
+   * Registers a repository to be kept warm for a user, and starts tracking it.
+   *
+   * @param login The user's GitHub login.
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param branch The branch to mirror.
+   * @return The full names of all repositories registered by the user.
+   * @throws ResponseStatusException 409 when the repository is already mirrored on another branch.
+   */
+  @Transactional
+  public Set<String> register(String login, String owner, String repo, String branch) {
+    TrackedRepo trackedRepo = commitStore.track(owner, repo, branch);
+    if (!trackedRepo.getBranch().equals(branch)) {
+      // A repository mirrors one branch; registering another would report success for a branch never synced.
+      throw new ResponseStatusException(HttpStatus.CONFLICT, trackedRepo.getFullName()
+          + " is already tracked on branch " + trackedRepo.getBranch());
+    }
+    RegisteredUser user = registeredUserRepository.findById(login).orElseGet(() -> new RegisteredUser(login));
+    user.getRepoFullNames().add(trackedRepo.getFullName());
+    return new TreeSet<>(registeredUserRepository.save(user).getRepoFullNames());
+  }
+
+  /**
+   * Stops keeping a repository warm for a user. The stored data is kept.
+   *
+   * @return The full names of the repositories still registered by the user.
+   */
+  @Transactional
+  public Set<String> unregister(String login, String owner, String repo) {
+    String fullName = TrackedRepo.fullName(owner, repo);
+    Set<String> remaining = registeredUserRepository.findById(login)
+        .map(user -> {
+          user.getRepoFullNames().remove(fullName);
+          return (Set<String>) new TreeSet<>(registeredUserRepository.save(user).getRepoFullNames());
+        })
+        .orElseGet(TreeSet::new);
+    if (!registeredUserRepository.existsByRepoFullNamesContaining(fullName)) {
+      untrackLag(fullName);
+    }
+    return remaining;
+  }
+
+  /**
+   * Returns the full names of the repositories registered by a user.
+   */
+  @Transactional(readOnly = true)
+  public Set<String> registeredRepos(String login) {
+    return registeredUserRepository.findById(login)
+        .map(user -> (Set<String>) new TreeSet<>(user.getRepoFullNames()))
+        .orElseGet(TreeSet::new);
+  }
+
+  /**
+   * Schedules a sync for every registered repository owned by this node whose last sync
+   * is older than the interval. Runs periodically; repositories still queued or syncing are skipped.
+   *
+   * @return The number of repositories scheduled.
+   */
+  @Scheduled(fixedDelayString = "${ingestion.interval-ms:300000}", initialDelayString = "${ingestion.initial-delay-ms:30000}")
+  public int scheduleDueRepos() {
+    if (!enabled) {
+      return 0;
+    }
+
+    Set<String> owned = new TreeSet<>();
+    for (RegisteredUser user : registeredUserRepository.findAll()) {
+      for (String fullName : user.getRepoFullNames()) {
+        if (ownerOf(fullName, nodeCount) == nodeIndex) {
+          owned.add(fullName);
+        }
+      }
+    }
+
+    // Repositories unregistered since, or moved to another node, no longer report a lag here.
+    for (String fullName : lags.keySet()) {
+      if (!owned.contains(fullName)) {
+        untrackLag(fullName);
+      }
+    }
+
+    Instant dueBefore = Instant.now().minus(interval);
+    int scheduled = 0;
+    for (TrackedRepo trackedRepo : commitStore.findTrackedRepos(owned)) {
+      String fullName = trackedRepo.getFullName();
+      trackLag(trackedRepo);
+      Instant syncedAt = trackedRepo.getCommitsSyncedAt();
+      if ((syncedAt == null || syncedAt.isBefore(dueBefore)) && inFlight.add(fullName)) {
+        long jitter = maxJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMillis) : 0;
+        executor.schedule(() -> sync(trackedRepo), jitter, TimeUnit.MILLISECONDS);
+        scheduled++;
+      }
+    }
+    return scheduled;
+  }
+
+  private void sync(TrackedRepo trackedRepo) {
+    String fullName = trackedRepo.getFullName();
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try {
+      SyncService.SyncResult result = syncService.sync(trackedRepo.getOwner(), trackedRepo.getName(),
+          trackedRepo.getBranch());
+      sample.stop(successTimer);
+      Lag lag = lags.get(fullName);
+      if (lag != null) {
+        lag.lastSyncedMillis().set(System.currentTimeMillis());
+      }
+      log.debug("Synced {}: {} new commits, {} updated issues", fullName, result.newCommits(), result.updatedIssues());
+    } catch (RuntimeException e) {
+      sample.stop(failureTimer);
+      log.warn("Scheduled sync of {} failed: {}", fullName, e.getMessage());
+    } finally {
+      inFlight.remove(fullName);
+    }
+  }
+
+  // Starts the lag gauge of an owned repository from its stored watermark.
+  private void trackLag(TrackedRepo trackedRepo) {
+    Instant syncedAt = trackedRepo.getCommitsSyncedAt();
+    long millis = syncedAt != null ? syncedAt.toEpochMilli() : trackedRepo.getLastCommitDate() != null
+        ? trackedRepo.getLastCommitDate().toEpochMilli() : System.currentTimeMillis();
+    lags.computeIfAbsent(trackedRepo.getFullName(), fullName -> {
+      AtomicLong lastSynced = new AtomicLong(millis);
+      Gauge gauge = Gauge.builder("ingestion.repo.lag", lastSynced,
+              value -> (System.currentTimeMillis() - value.get()) / 1000.0)
+          .tag("repo", fullName)
+          .baseUnit("seconds")
+          .register(meterRegistry);
+      return new Lag(lastSynced, gauge.getId());
+    });
+  }
+
+  // Forgets the lag of a repository and removes its gauge, so the registry does not grow with past repositories.
+  private void untrackLag(String fullName) {
+    Lag lag = lags.remove(fullName);
+    if (lag != null) {
+      meterRegistry.remove(lag.gaugeId());
+    }
+  }
+
+  /**
+   * Returns the node that owns a repository: the node with the highest hash of (repository, node).
+   * Deterministic across instances and restarts; with one more node, only about 1/(n+1) of
+   * the repositories change owner.
+   *
+   * @param fullName The repository's full name, "owner/repo".
+   * @param nodeCount The number of backend instances.
+   * @return The owning node index, from 0 to nodeCount - 1.
+   */
+  public static int ownerOf(String fullName, int nodeCount) {
+    int owner = 0;
+    long best = Long.MIN_VALUE;
+    long repoHash = fullName.hashCode();
+    for (int node = 0; node < nodeCount; node++) {
+      long score = mix(repoHash * 0x9E3779B97F4A7C15L + node);
+      if (score > best) {
+        best = score;
+        owner = node;
+      }
+    }
+    return owner;
+  }
+
+  // 64-bit finalizer of MurmurHash3; spreads nearby inputs over the whole range.
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  /**
+   * Returns the seconds since the last sync of each repository owned by this node.
+   */
+  public Map<String, Long> lagSeconds() {
+    Map<String, Long> lag = new TreeMap<>();
+    long now = System.currentTimeMillis();
+    lags.forEach((fullName, synced) -> lag.put(fullName, (now - synced.lastSyncedMillis().get()) / 1000));
+    return lag;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,394 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.client.GitHubRequestContext;
+import com.DailyDevlog.dailydevlog.entity.RegisteredUser;
+import com.DailyDevlog.dailydevlog.entity.RetrospectiveReport;
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import com.DailyDevlog.dailydevlog.model.ChatCompletion;
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.DailyDevlog.dailydevlog.prompt.PromptBuilder;
+import com.DailyDevlog.dailydevlog.repository.RegisteredUserRepository;
+import com.DailyDevlog.dailydevlog.repository.RetrospectiveReportRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * RetrospectiveService writes a user's daily retrospective over all repositories they registered.
+ * The day's commits of every repository are collected concurrently, merged into one deduplicated
+ * prompt within the usual token budget, and answered by a single GPT call.
+ * <p>
+ * Reports are stored. A scheduled job generates the previous day's reports off-peak
+ * ({@code retrospective.precompute.cron}), so that reads during the day are answered from the database
+ * without fanning out to GitHub and GPT. With several instances, each user's report is generated by the
+ * instance chosen by {@link IngestionService#ownerOf}.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class RetrospectiveService {
+
+  private static final Logger log = LoggerFactory.getLogger(RetrospectiveService.class);
+
+  private static final String UNAVAILABLE = "GPT is unavailable right now, please try again later.";
+
+  /**
+   * A daily retrospective.
+   *
+   * @param login The GitHub login of the user.
+   * @param day The day the retrospective covers.
+   * @param content The retrospective text.
+   * @param repoCount Repositories with commits of the user on that day.
+   * @param commitCount Distinct commits covered.
+   * @param generatedAt When the retrospective was generated.
+   * @param stored Whether it was read from the stored reports rather than generated for this request.
+   */
+  public record Retrospective(String login, LocalDate day, String content, int repoCount, int commitCount,
+      Instant generatedAt, boolean stored) {
+  }
+
+  // The commits of one repository on the day, and the changed files fetched for them.
+  private record RepoActivity(String fullName, List<GitHubCommit> commits, List<GitHubCommitDetail> details) {
+  }
+
+  private final IngestionService ingestionService;
+  private final CommitStore commitStore;
+  private final GitHubService gitHubService;
+  private final CommitFanOutService commitFanOutService;
+  private final PromptBuilder promptBuilder;
+  private final CodeReviewService codeReviewService;
+  private final RegisteredUserRepository registeredUserRepository;
+  private final RetrospectiveReportRepository reportRepository;
+  private final MeterRegistry meterRegistry;
+
+  // Time zone the days are counted in.
+  private final ZoneId zone;
+
+  // Maximum number of repositories of one retrospective collected at the same time.
+  private final int concurrency;
+
+  // Commits of one repository on one day beyond this many are left out.
+  private final int maxCommitsPerRepo;
+
+  // Time allowed for collecting all repositories; repositories unfinished by then are left out.
+  private final long timeoutMillis;
+
+  private final boolean precomputeEnabled;
+  private final int nodeIndex;
+  private final int nodeCount;
+
+  // Shared worker pool; its size caps the total number of repositories collected across all requests.
+  private final BoundedFanOut fanOut;
+
+  @Autowired
+  public RetrospectiveService(
+      IngestionService ingestionService,
+      CommitStore commitStore,
+      GitHubService gitHubService,
+      CommitFanOutService commitFanOutService,
+      PromptBuilder promptBuilder,
+      CodeReviewService codeReviewService,
+      RegisteredUserRepository registeredUserRepository,
+      RetrospectiveReportRepository reportRepository,
+      MeterRegistry meterRegistry,
+      @Value("${retrospective.zone:UTC}") String zone,
+      @Value("${retrospective.concurrency:4}") int concurrency,
+      @Value("${retrospective.pool-size:16}") int poolSize,
+      @Value("${retrospective.max-commits-per-repo:100}") int maxCommitsPerRepo,
+      @Value("${retrospective.timeout-ms:120000}") long timeoutMillis,
+      @Value("${retrospective.precompute.enabled:true}") boolean precomputeEnabled,
+      @Value("${ingestion.node-index:0}") int nodeIndex,
+      @Value("${ingestion.node-count:1}") int nodeCount
+  ) {
+    this.ingestionService = ingestionService;
+    this.commitStore = commitStore;
+    this.gitHubService = gitHubService;
+    this.commitFanOutService = commitFanOutService;
+    this.promptBuilder = promptBuilder;
+    this.codeReviewService = codeReviewService;
+    this.registeredUserRepository = registeredUserRepository;
+    this.reportRepository = reportRepository;
+    this.meterRegistry = meterRegistry;
+    this.zone = ZoneId.of(zone);
+    this.concurrency = Math.max(1, concurrency);
+    this.maxCommitsPerRepo = Math.max(1, maxCommitsPerRepo);
+    this.timeoutMillis = timeoutMillis;
+    this.precomputeEnabled = precomputeEnabled;
+    this.nodeIndex = nodeIndex;
+    this.nodeCount = Math.max(1, nodeCount);
+    this.fanOut = new BoundedFanOut("retrospective", poolSize);
+  }
+
+  /**
+   * Returns the day a retrospective is normally asked for: yesterday, in the configured time zone.
+   */
+  public LocalDate previousDay() {
+    return LocalDate.now(zone).minusDays(1);
+  }
+
+  /**
+   * Returns the retrospective of a user's day, from the stored reports when one was generated
+   * after the day ended, and otherwise generated now (and stored).
+   *
+   * @param login The GitHub login of the user.
+   * @param day The day to look back on.
+   * @param refresh Whether to generate the retrospective again even if a stored one exists.
+   * @return The retrospective.
+   * @throws ResponseStatusException 404 when the user has no registered repositories,
+   *         503 when GPT is unavailable and nothing is stored.
+   */
+  public Retrospective retrospective(String login, LocalDate day, boolean refresh) {
+    if (!refresh) {
+      Optional<RetrospectiveReport> stored = reportRepository.findById(RetrospectiveReport.key(login, day))
+          .filter(this::isComplete);
+      if (stored.isPresent()) {
+        meterRegistry.counter("retrospective.reports", "source", "stored").increment();
+        return toRetrospective(stored.get(), true);
+      }
+    }
+    return generate(login, day);
+  }
+
+  /**
+   * Generates the previous day's retrospective of every registered user owned by this instance.
+   * Runs off-peak; users whose report already covers the whole day are skipped.
+   *
+   * @return The number of reports generated.
+   */
+  @Scheduled(cron = "${retrospective.precompute.cron:0 30 3 * * *}", zone = "${retrospective.zone:UTC}")
+  public int precomputePreviousDay() {
+    return precomputeEnabled ? precompute(previousDay()) : 0;
+  }
+
+  /**
+   * Generates the retrospective of a day for every registered user owned by this instance.
+   * Users are handled one after another, and their GitHub calls yield to interactive requests.
+   *
+   * @param day The day to look back on.
+   * @return The number of reports generated.
+   */
+  public int precompute(LocalDate day) {
+    int generated = 0;
+    for (RegisteredUser user : registeredUserRepository.findAll()) {
+      String login = user.getLogin();
+      if (IngestionService.ownerOf(login, nodeCount) != nodeIndex || user.getRepoFullNames().isEmpty()
+          || reportRepository.findById(RetrospectiveReport.key(login, day)).filter(this::isComplete).isPresent()) {
+        continue;
+      }
+      try {
+        GitHubRequestContext.background().call(() -> generate(login, day));
+        generated++;
+      } catch (RuntimeException e) {
+        log.warn("Precomputing the retrospective of {} for {} failed: {}", login, day, e.getMessage());
+      }
+    }
+    return generated;
+  }
+
+  private Retrospective generate(String login, LocalDate day) {
+    Set<String> repos = ingestionService.registeredRepos(login);
+    if (repos.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No repositories registered for " + login);
+    }
+    Instant since = day.atStartOfDay(zone).toInstant();
+    Instant until = day.plusDays(1).atStartOfDay(zone).toInstant();
+
+    // 1. Collect the day's commits of every repository concurrently
+    List<TrackedRepo> trackedRepos = new ArrayList<>(commitStore.findTrackedRepos(repos));
+    trackedRepos.sort(Comparator.comparing(TrackedRepo::getFullName));
+    List<RepoActivity> activities = collect(trackedRepos, login, since, until);
+    int failed = 0;
+    for (RepoActivity activity : activities) {
+      if (activity == null) {
+        failed++;
+      }
+    }
+
+    // 2. Merge them into one deduplicated prompt
+    List<GitHubCommit> commits = new ArrayList<>();
+    Map<String, String> repoOfCommit = new HashMap<>();
+    Map<String, GitHubCommitDetail> detailOfCommit = new HashMap<>();
+    for (RepoActivity activity : activities) {
+      if (activity == null) {
+        continue;
+      }
+      // The same commit may be on several registered repositories, e.g. a fork and its upstream.
+      for (GitHubCommit commit : activity.commits()) {
+        if (repoOfCommit.putIfAbsent(commit.sha(), activity.fullName()) == null) {
+          commits.add(commit);
+        }
+      }
+      for (GitHubCommitDetail detail : activity.details()) {
+        if (activity.fullName().equals(repoOfCommit.get(detail.sha()))) {
+          detailOfCommit.put(detail.sha(), detail);
+        }
+      }
+    }
+    commits.sort(Comparator.comparing(RetrospectiveService::committedAt, Comparator.reverseOrder()));
+
+    List<String> messages = new ArrayList<>();
+    List<GitHubCommitFile> files = new ArrayList<>();
+    Set<String> seenCommits = new HashSet<>();
+    Set<String> seenChanges = new HashSet<>();
+    Set<String> activeRepos = new HashSet<>();
+    for (GitHubCommit commit : commits) {
+      String fullName = repoOfCommit.get(commit.sha());
+      activeRepos.add(fullName);
+      GitHubCommitDetail detail = detailOfCommit.get(commit.sha());
+      // Cherry-picks repeat the message and patch under a different SHA; only those are left out.
+      // Without the patch a commit can't be told apart from another with the same message, so it is kept.
+      String fingerprint = detail != null ? patchFingerprint(detail) : commit.sha();
+      if (seenCommits.add(ReviewCache.keyOf(fullName, String.valueOf(commit.message()), fingerprint))) {
+        messages.add(fullName + ": " + commit.message());
+      }
+      if (detail == null) {
+        continue;
+      }
+      for (GitHubCommitFile file : detail.files()) {
+        if (seenChanges.add(file.filename() + "\n" + file.patch())) {
+          files.add(new GitHubCommitFile(fullName + "/" + file.filename(), file.status(), file.additions(),
+              file.deletions(), file.changes(), file.patch()));
+        }
+      }
+    }
+
+    // 3. One GPT call for the whole day
+    RetrospectiveReport report = reportRepository.findById(RetrospectiveReport.key(login, day))
+        .orElseGet(() -> new RetrospectiveReport(login, day));
+    if (commits.isEmpty()) {
+      if (failed > 0) {
+        throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Could not read the repositories of " + login);
+      }
+      report.setContent("No commits by " + login + " on " + day + ".");
+    } else {
+      PromptBuilder.ReviewPrompt prompt = promptBuilder.buildRetrospective(day.toString(), messages, files);
+      meterRegistry.summary("retrospective.prompt.tokens").record(prompt.estimatedTokens());
+      String content = complete(prompt.text());
+      if (content == null) {
+        meterRegistry.counter("retrospective.reports", "source", "failed").increment();
+        if (report.getContent() != null) {
+          return toRetrospective(report, true); // An earlier report of the day beats none.
+        }
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, UNAVAILABLE);
+      }
+      report.setContent(failed > 0
+          ? content + "\n\n(" + failed + " repositories could not be read; this retrospective is incomplete.)"
+          : content);
+    }
+    report.setRepoCount(activeRepos.size());
+    report.setCommitCount(commits.size());
+    report.setGeneratedAt(Instant.now());
+    meterRegistry.counter("retrospective.reports", "source", "generated").increment();
+
+    // Incomplete reports are returned but not stored, so the next read tries again.
+    if (failed > 0) {
+      return toRetrospective(report, false);
+    }
+    return toRetrospective(reportRepository.save(report), false);
+  }
+
+  // Keeps at most `concurrency` repositories in flight; repositories unfinished at the deadline are left out.
+  private List<RepoActivity> collect(List<TrackedRepo> trackedRepos, String login, Instant since, Instant until) {
+    // Collects on behalf of the caller: same credentials and rate-limit priority.
+    GitHubRequestContext context = GitHubRequestContext.current();
+    // Every repository fetches changes for its share of the one prompt they are merged into.
+    int budgetTokens = Math.max(1, promptBuilder.getBudgetTokens() / Math.max(1, trackedRepos.size()));
+    List<Callable<RepoActivity>> tasks = new ArrayList<>();
+    for (TrackedRepo trackedRepo : trackedRepos) {
+      tasks.add(() -> context.call(() -> collectRepo(trackedRepo, login, since, until, budgetTokens)));
+    }
+
+    BoundedFanOut.Outcome<RepoActivity> outcome = fanOut.run(tasks, concurrency, timeoutMillis, (index, cause) ->
+        log.warn("Collecting {} for the retrospective of {} failed",
+            trackedRepos.get(index).getFullName(), login, cause));
+    if (outcome.unfinished() > 0) {
+      log.warn("Collected {} of {} repositories of {} before the deadline",
+          trackedRepos.size() - outcome.unfinished(), trackedRepos.size(), login);
+    }
+    return outcome.results();
+  }
+
+  // Lists the user's commits of the day and fetches their changes until they can fill the repository's budget.
+  private RepoActivity collectRepo(TrackedRepo trackedRepo, String login, Instant since, Instant until,
+      int budgetTokens) {
+    List<GitHubCommit> commits = gitHubService.listCommitsBetween(trackedRepo.getOwner(), trackedRepo.getName(),
+        login, trackedRepo.getBranch(), since, until, maxCommitsPerRepo);
+
+    List<GitHubCommitDetail> details = new ArrayList<>();
+    int[] collectedTokens = {0};
+    commitFanOutService.fetchInOrder(trackedRepo.getOwner(), trackedRepo.getName(),
+        commits.stream().map(GitHubCommit::sha).toList(), detail -> {
+          details.add(detail);
+          for (GitHubCommitFile file : detail.files()) {
+            collectedTokens[0] += promptBuilder.estimateFile(file);
+          }
+          return collectedTokens[0] < budgetTokens;
+        });
+    return new RepoActivity(trackedRepo.getFullName(), commits, details);
+  }
+
+  // The retrospective text, or null if GPT could not be reached or returned nothing.
+  private String complete(String prompt) {
+    try {
+      ChatCompletion completion = codeReviewService.complete(prompt);
+      if (completion != null && completion.content() != null && !completion.content().isBlank()) {
+        return completion.content();
+      }
+    } catch (RuntimeException e) {
+      log.warn("Retrospective completion failed: {}", e.getMessage());
+    }
+    return null;
+  }
+
+  // A report generated before the day was over may be missing the rest of the day.
+  private boolean isComplete(RetrospectiveReport report) {
+    return report.getGeneratedAt() != null
+        && !report.getGeneratedAt().isBefore(report.getDay().plusDays(1).atStartOfDay(zone).toInstant());
+  }
+
+  private static Retrospective toRetrospective(RetrospectiveReport report, boolean stored) {
+    return new Retrospective(report.getLogin(), report.getDay(), report.getContent(), report.getRepoCount(),
+        report.getCommitCount(), report.getGeneratedAt(), stored);
+  }
+
+  // Identifies a commit's changes independently of its SHA: its files and their patches, in order.
+  private static String patchFingerprint(GitHubCommitDetail detail) {
+    List<String> parts = new ArrayList<>();
+    for (GitHubCommitFile file : detail.files()) {
+      parts.add(file.filename());
+      parts.add(String.valueOf(file.patch()));
+    }
+    return ReviewCache.keyOf(parts.toArray(String[]::new));
+  }
+
+  private static String committedAt(GitHubCommit commit) {
+    GitHubCommit.CommitInfo info = commit.commit();
+    String date = info != null && info.committer() != null ? info.committer().date() : null;
+    return date != null ? date : "";
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    fanOut.shutdown();
+  }
+}
@@ -0,0 +1,282 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.client.SingleFlight;
+import com.DailyDevlog.dailydevlog.entity.ReviewRecord;
+import com.DailyDevlog.dailydevlog.model.ChatCompletion;
+import com.DailyDevlog.dailydevlog.repository.ReviewRecordRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * ReviewCache stores GPT reviews under a hash of the exact request (model, parameters and prompt).
+ * Identical requests are answered from memory or the database instead of calling GPT again,
+ * and identical requests that arrive concurrently share a single upstream call.
+ * The latest review of each review subject (e.g. a repository branch) is kept as well,
+ * so that a review can still be shown while GPT is unavailable.
+ * Stored reviews are purged periodically: prompt reviews once their TTL has passed, and the oldest
+ * reviews of any kind beyond a row cap.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class ReviewCache implements MeterBinder {
+
+  // A cached completion and the time it was created, used for TTL expiry.
+  private record Entry(ChatCompletion completion, Instant createdAt) {
+  }
+
+  private final ReviewRecordRepository reviewRecordRepository;
+  private final int maxEntries;
+  private final Duration ttl;
+
+  // Maximum number of reviews kept in the database.
+  private final int maxRows;
+
+  // Whether reviews are also written to the database so they survive restarts.
+  private final boolean persistent;
+
+  // Access-ordered so the least recently used review is evicted first.
+  private final Map<String, Entry> entries;
+
+  private final SingleFlight<String, ChatCompletion> singleFlight = new SingleFlight<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong savedPromptTokens = new AtomicLong();
+  private final AtomicLong savedCompletionTokens = new AtomicLong();
+
+  @Autowired
+  public ReviewCache(
+      ReviewRecordRepository reviewRecordRepository,
+      @Value("${review.cache.max-entries:1000}") int maxEntries,
+      @Value("${review.cache.ttl-hours:168}") long ttlHours,
+      @Value("${review.cache.persistent:true}") boolean persistent,
+      @Value("${review.cache.max-rows:10000}") int maxRows
+  ) {
+    this.reviewRecordRepository = reviewRecordRepository;
+    this.maxEntries = maxEntries;
+    this.ttl = Duration.ofHours(ttlHours);
+    this.maxRows = maxRows;
+    this.persistent = persistent;
+    this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > ReviewCache.this.maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Builds the cache key for a request: the SHA-256 hash of all parts that influence the answer.
+   *
+   * @param parts The model, sampling parameters and prompt messages, in a fixed order.
+   * @return A 64-character hex key.
+   */
+  public static String keyOf(String... parts) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String part : parts) {
+        digest.update(part.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0); // Separates the parts so that ("ab", "c") differs from ("a", "bc").
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Returns the cached review for a key, or computes it with the loader.
+   * Concurrent calls for the same key share one loader call. Failed loads are not cached.
+   *
+   * @param key The request hash from {@link #keyOf}.
+   * @param loader Calls GPT; only invoked on a miss.
+   * @return The cached or freshly generated completion.
+   */
+  public ChatCompletion getOrCompute(String key, Supplier<ChatCompletion> loader) {
+    ChatCompletion cached = lookup(key);
+    if (cached != null) {
+      recordHit(cached);
+      return cached;
+    }
+
+    SingleFlight.Outcome<ChatCompletion> outcome = singleFlight.execute(key, () -> {
+      // Another flight may have stored the review between the lookup above and this one.
+      ChatCompletion stored = lookup(key);
+      if (stored != null) {
+        recordHit(stored);
+        return stored;
+      }
+      misses.incrementAndGet();
+      ChatCompletion fresh = loader.get();
+      store(key, fresh, false);
+      return fresh;
+    });
+
+    if (outcome.shared()) {
+      recordHit(outcome.value()); // Answered by another caller's upstream call.
+    }
+    return outcome.value();
+  }
+
+  /**
+   * Returns a cached review without calling GPT or counting the lookup, or null if there is none.
+   */
+  public ChatCompletion peek(String key) {
+    return lookup(key);
+  }
+
+  /**
+   * Returns a cached review even if it has expired, or null if there is none.
+   * Only meant as a fallback when GPT can't be reached.
+   */
+  public ChatCompletion peekStale(String key) {
+    return lookup(key, false);
+  }
+
+  /**
+   * Remembers a review as the latest one of its subject.
+   *
+   * @param subject What was reviewed, e.g. "owner/repo@branch".
+   * @param completion The review.
+   */
+  public void putLatest(String subject, ChatCompletion completion) {
+    store(latestKey(subject), completion, true);
+  }
+
+  /**
+   * Returns the latest review of a subject, however old, or null if there is none.
+   *
+   * @param subject What was reviewed, as passed to {@link #putLatest}.
+   */
+  public ChatCompletion latest(String subject) {
+    return lookup(latestKey(subject), false);
+  }
+
+  private static String latestKey(String subject) {
+    return keyOf("latest", subject);
+  }
+
+  private ChatCompletion lookup(String key) {
+    return lookup(key, true);
+  }
+
+  // Expired reviews are dropped from memory unless they are explicitly asked for.
+  private ChatCompletion lookup(String key, boolean freshOnly) {
+    Instant now = Instant.now();
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (!freshOnly || entry.createdAt().plus(ttl).isAfter(now)) {
+          return entry.completion();
+        }
+        entries.remove(key);
+      }
+    }
+
+    if (!persistent) {
+      return null;
+    }
+    return reviewRecordRepository.findById(key)
+        .filter(record -> !freshOnly || record.getCreatedAt().plus(ttl).isAfter(now))
+        .map(record -> {
+          ChatCompletion completion = new ChatCompletion(
+              record.getContent(), record.getPromptTokens(), record.getCompletionTokens());
+          synchronized (entries) {
+            entries.put(key, new Entry(completion, record.getCreatedAt()));
+          }
+          return completion;
+        })
+        .orElse(null);
+  }
+
+  private void store(String key, ChatCompletion completion, boolean latest) {
+    Instant now = Instant.now();
+    synchronized (entries) {
+      entries.put(key, new Entry(completion, now));
+    }
+    if (persistent) {
+      ReviewRecord record = new ReviewRecord(
+          key, completion.content(), completion.promptTokens(), completion.completionTokens(), now);
+      record.setLatest(latest);
+      reviewRecordRepository.save(record);
+    }
+  }
+
+  /**
+   * Deletes stored reviews whose TTL has passed, then the oldest reviews beyond the row cap.
+   * Expired reviews are never served as fresh anyway; latest reviews of a subject only go with the cap.
+   */
+  @Scheduled(fixedDelayString = "${review.cache.purge-interval-ms:3600000}",
+      initialDelayString = "${review.cache.purge-interval-ms:3600000}")
+  public void purge() {
+    if (!persistent) {
+      return;
+    }
+    reviewRecordRepository.deleteReviewsCreatedBefore(Instant.now().minus(ttl));
+    // The creation time of the newest review beyond the cap; it and everything older is dropped.
+    reviewRecordRepository.findCreatedAtNewestFirst(PageRequest.of(maxRows, 1)).stream().findFirst()
+        .ifPresent(newestDropped -> reviewRecordRepository.deleteAllCreatedBefore(newestDropped.plusNanos(1)));
+  }
+
+  private void recordHit(ChatCompletion completion) {
+    hits.incrementAndGet();
+    savedPromptTokens.addAndGet(completion.promptTokens());
+    savedCompletionTokens.addAndGet(completion.completionTokens());
+  }
+
+  public long hitCount() {
+    return hits.get();
+  }
+
+  public long missCount() {
+    return misses.get();
+  }
+
+  public double hitRatio() {
+    long total = hits.get() + misses.get();
+    return total == 0 ? 0.0 : (double) hits.get() / total;
+  }
+
+  public long savedTokens() {
+    return savedPromptTokens.get() + savedCompletionTokens.get();
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("review.cache.requests", this, ReviewCache::hitCount)
+        .tag("result", "hit").register(registry);
+    FunctionCounter.builder("review.cache.requests", this, ReviewCache::missCount)
+        .tag("result", "miss").register(registry);
+    FunctionCounter.builder("review.cache.coalesced", singleFlight, SingleFlight::sharedCount)
+        .register(registry);
+    FunctionCounter.builder("review.cache.saved.tokens", savedPromptTokens, AtomicLong::get)
+        .tag("type", "prompt").register(registry);
+    FunctionCounter.builder("review.cache.saved.tokens", savedCompletionTokens, AtomicLong::get)
+        .tag("type", "completion").register(registry);
+    Gauge.builder("review.cache.hit.ratio", this, ReviewCache::hitRatio).register(registry);
+    Gauge.builder("review.cache.entries", this, ReviewCache::size).register(registry);
+  }
+}
@@ -0,0 +1,277 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReviewJobService runs automatic code reviews in the background so that no request thread
+ * waits for GitHub and GPT. Jobs run on a bounded worker pool with a bounded queue;
+ * when the queue is full, submissions are rejected with 429 Too Many Requests.
+ * Review text is published to SSE subscribers while GPT generates it.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class ReviewJobService {
+
+  /**
+   * Lifecycle of a review job.
+   */
+  public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+  /**
+   * Snapshot of a review job as returned by the API.
+   * {@code review} holds the text generated so far while the job is running.
+   */
+  public record JobView(String id, Status status, String owner, String repo, String branch,
+      String review, String error, Instant submittedAt, Instant finishedAt) {
+  }
+
+  private final AutoReviewService autoReviewService;
+
+  private final ThreadPoolExecutor executor;
+
+  private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+  // How long finished jobs stay available for polling.
+  private final Duration retention;
+
+  // How long an SSE subscription may stay open.
+  private final long emitterTimeoutMillis;
+
+  @Autowired
+  public ReviewJobService(
+      AutoReviewService autoReviewService,
+      @Value("${review.jobs.workers:4}") int workers,
+      @Value("${review.jobs.queue-capacity:50}") int queueCapacity,
+      @Value("${review.jobs.retention-minutes:60}") long retentionMinutes,
+      @Value("${review.jobs.sse-timeout-ms:300000}") long emitterTimeoutMillis
+  ) {
+    this.autoReviewService = autoReviewService;
+    this.retention = Duration.ofMinutes(retentionMinutes);
+    this.emitterTimeoutMillis = emitterTimeoutMillis;
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        Math.max(1, workers), Math.max(1, workers),
+        60L, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+        runnable -> {
+          Thread thread = new Thread(runnable, "review-job-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+  }
+
+  /**
+   * Queues an automatic code review.
+   *
+   * @param owner The repository owner.
+   * @param repo The repository name.
+   * @param author (Optional) The commit author.
+   * @param branch The branch to review.
+   * @return The queued job.
+   * @throws ResponseStatusException 429 when the job queue is full.
+   */
+  public JobView submit(String owner, String repo, String author, String branch) {
+    purgeExpired();
+
+    Job job = new Job(UUID.randomUUID().toString(), owner, repo, author, branch);
+    jobs.put(job.id, job);
+    try {
+      executor.execute(() -> run(job));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.id);
+      throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Review job queue is full, try again later");
+    }
+    return job.view();
+  }
+
+  /**
+   * Returns the current state of a job, or empty if it is unknown or expired.
+   */
+  public Optional<JobView> find(String id) {
+    Job job = jobs.get(id);
+    return job == null ? Optional.empty() : Optional.of(job.view());
+  }
+
+  /**
+   * Subscribes to a job's events. The subscriber first receives the text generated so far,
+   * then a "delta" event per new piece of text and finally a "done" or "error" event.
+   *
+   * @param id The job id.
+   * @return The SSE emitter, or empty if the job is unknown.
+   */
+  public Optional<SseEmitter> subscribe(String id) {
+    Job job = jobs.get(id);
+    if (job == null) {
+      return Optional.empty();
+    }
+
+    SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+    synchronized (job) {
+      try {
+        emitter.send(SseEmitter.event().name("status").data(job.status.name()));
+        if (job.text.length() > 0) {
+          emitter.send(SseEmitter.event().name("delta").data(delta(job.text.toString()), MediaType.APPLICATION_JSON));
+        }
+        if (job.isFinished()) {
+          sendFinished(job, emitter);
+          return Optional.of(emitter);
+        }
+      } catch (IOException e) {
+        emitter.completeWithError(e);
+        return Optional.of(emitter);
+      }
+      job.emitters.add(emitter);
+    }
+
+    Runnable unsubscribe = () -> {
+      synchronized (job) {
+        job.emitters.remove(emitter);
+      }
+    };
+    emitter.onCompletion(unsubscribe);
+    emitter.onTimeout(unsubscribe);
+    emitter.onError(error -> unsubscribe.run());
+    return Optional.of(emitter);
+  }
+
+  private void run(Job job) {
+    synchronized (job) {
+      job.status = Status.RUNNING;
+      broadcast(job, SseEmitter.event().name("status").data(Status.RUNNING.name()));
+    }
+
+    try {
+      String review = autoReviewService.streamReview(job.owner, job.repo, job.author, job.branch, text -> {
+        synchronized (job) {
+          job.text.append(text);
+          broadcast(job, SseEmitter.event().name("delta").data(delta(text), MediaType.APPLICATION_JSON));
+        }
+      });
+      synchronized (job) {
+        // The final text is authoritative, e.g. when the review came from the cache.
+        job.text.setLength(0);
+        job.text.append(review);
+        finish(job, Status.SUCCEEDED, null);
+      }
+    } catch (RuntimeException e) {
+      synchronized (job) {
+        finish(job, Status.FAILED, e.getMessage());
+      }
+    }
+  }
+
+  // Must be called while holding the job's lock.
+  private void finish(Job job, Status status, String error) {
+    job.status = status;
+    job.error = error;
+    job.finishedAt = Instant.now();
+    for (SseEmitter emitter : job.emitters) {
+      try {
+        sendFinished(job, emitter);
+      } catch (IOException e) {
+        emitter.completeWithError(e);
+      }
+    }
+    job.emitters.clear();
+  }
+
+  private void sendFinished(Job job, SseEmitter emitter) throws IOException {
+    if (job.status == Status.SUCCEEDED) {
+      emitter.send(SseEmitter.event().name("done").data(job.view(), MediaType.APPLICATION_JSON));
+    } else {
+      emitter.send(SseEmitter.event().name("error").data(job.view(), MediaType.APPLICATION_JSON));
+    }
+    emitter.complete();
+  }
+
+  // Must be called while holding the job's lock; drops subscribers that have gone away.
+  private void broadcast(Job job, SseEmitter.SseEventBuilder event) {
+    job.emitters.removeIf(emitter -> {
+      try {
+        emitter.send(event);
+        return false;
+      } catch (IOException | IllegalStateException e) {
+        return true;
+      }
+    });
+  }
+
+  // Text is sent as JSON so that newlines in the review do not break the event framing.
+  private static Map<String, String> delta(String text) {
+    return Map.of("text", text);
+  }
+
+  /**
+   * Forgets jobs that finished longer than the retention ago. Runs on a schedule, so results
+   * are dropped even when no new jobs are submitted.
+   */
+  @Scheduled(fixedDelayString = "${review.jobs.purge-interval-ms:60000}")
+  public void purgeExpired() {
+    Instant cutoff = Instant.now().minus(retention);
+    jobs.values().removeIf(job -> {
+      synchronized (job) {
+        return job.isFinished() && job.finishedAt.isBefore(cutoff);
+      }
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static final class Job {
+    final String id;
+    final String owner;
+    final String repo;
+    final String author;
+    final String branch;
+    final Instant submittedAt = Instant.now();
+    final StringBuilder text = new StringBuilder();
+    final List<SseEmitter> emitters = new ArrayList<>();
+    Status status = Status.QUEUED;
+    String error;
+    Instant finishedAt;
+
+    Job(String id, String owner, String repo, String author, String branch) {
+      this.id = id;
+      this.owner = owner;
+      this.repo = repo;
+      this.author = author;
+      this.branch = branch;
+    }
+
+    boolean isFinished() {
+      return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    synchronized JobView view() {
+      return new JobView(id, status, owner, repo, branch, text.toString(), error, submittedAt, finishedAt);
+    }
+  }
+}
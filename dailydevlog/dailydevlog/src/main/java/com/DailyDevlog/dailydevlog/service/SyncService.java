@@ -0,0 +1,144 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.client.GitHubRequestContext;
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.model.GitHubIssue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SyncService brings the local store of a repository up to date with GitHub.
+ * Only what changed since the stored watermarks is fetched: commits listed before the last
+ * stored SHA, and issues updated since the last issue sync. New rows are written in batches.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class SyncService {
+
+  /**
+   * Outcome of a single repository sync.
+   *
+   * @param newCommits The number of commits that were not stored before.
+   * @param updatedIssues The number of issues inserted or updated.
+   */
+  public record SyncResult(int newCommits, int updatedIssues) {
+  }
+
+  private final GitHubService gitHubService;
+  private final CommitStore commitStore;
+  private final CommitFanOutService commitFanOutService;
+
+  // Number of rows collected before they are written as one batch.
+  private final int batchSize;
+
+  @Autowired
+  public SyncService(
+      GitHubService gitHubService,
+      CommitStore commitStore,
+      CommitFanOutService commitFanOutService,
+      @Value("${store.sync.batch-size:100}") int batchSize
+  ) {
+    this.gitHubService = gitHubService;
+    this.commitStore = commitStore;
+    this.commitFanOutService = commitFanOutService;
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Fetches and stores everything new in a repository since its last sync.
+   * GitHub calls run at background priority, behind interactive requests.
+   *
+   * @param owner The repository owner's GitHub username or organization name.
+   * @param repo The repository name.
+   * @param branch The branch whose history is mirrored.
+   * @return How many commits and issues were stored.
+   * @throws org.springframework.web.server.ResponseStatusException 409 when the repository is
+   *         already tracked on another branch.
+   */
+  public SyncResult sync(String owner, String repo, String branch) {
+    TrackedRepo trackedRepo = commitStore.track(owner, repo, branch);
+    Instant startedAt = Instant.now();
+
+    GitHubRequestContext background = GitHubRequestContext.background();
+    int newCommits = background.call(() -> syncCommits(trackedRepo));
+    int updatedIssues = background.call(() -> syncIssues(trackedRepo));
+
+    trackedRepo.setCommitsSyncedAt(startedAt);
+    trackedRepo.setIssuesSyncedAt(startedAt);
+    commitStore.saveWatermark(trackedRepo);
+    return new SyncResult(newCommits, updatedIssues);
+  }
+
+  private int syncCommits(TrackedRepo trackedRepo) {
+    String fullName = trackedRepo.getFullName();
+    String lastSha = trackedRepo.getLastCommitSha();
+    List<GitHubCommit> batch = new ArrayList<>();
+    List<String> newShas = new ArrayList<>();
+    int[] stored = {0};
+
+    // Walks newest first and stops at the last stored commit. No date bound is sent: commits of a merged
+    // branch can carry committer dates older than the watermark and would otherwise never be fetched.
+    gitHubService.walkCommits(trackedRepo.getOwner(), trackedRepo.getName(), trackedRepo.getBranch(),
+        null, commit -> {
+          if (commit.sha().equals(lastSha)) {
+            return false;
+          }
+          if (newShas.isEmpty()) {
+            // The first commit of the walk is the newest one and becomes the next watermark.
+            trackedRepo.setLastCommitSha(commit.sha());
+            trackedRepo.setLastCommitDate(committedAt(commit));
+          }
+          newShas.add(commit.sha());
+          batch.add(commit);
+          if (batch.size() >= batchSize) {
+            stored[0] += commitStore.saveCommits(fullName, batch);
+            batch.clear();
+          }
+          return true;
+        });
+    stored[0] += commitStore.saveCommits(fullName, batch);
+
+    // Fetches the changed files of the new commits concurrently and stores them in batches.
+    List<GitHubCommitDetail> details = new ArrayList<>();
+    commitFanOutService.fetchInOrder(trackedRepo.getOwner(), trackedRepo.getName(), newShas, detail -> {
+      details.add(detail);
+      if (details.size() >= batchSize) {
+        commitStore.saveCommitDetails(fullName, details);
+        details.clear();
+      }
+      return true;
+    });
+    commitStore.saveCommitDetails(fullName, details);
+    return stored[0];
+  }
+
+  private int syncIssues(TrackedRepo trackedRepo) {
+    List<GitHubIssue> batch = new ArrayList<>();
+    int[] updated = {0};
+
+    gitHubService.walkIssues(trackedRepo.getOwner(), trackedRepo.getName(), trackedRepo.getIssuesSyncedAt(),
+        issue -> {
+          batch.add(issue);
+          if (batch.size() >= batchSize) {
+            updated[0] += commitStore.saveIssues(trackedRepo.getFullName(), batch);
+            batch.clear();
+          }
+          return true;
+        });
+    updated[0] += commitStore.saveIssues(trackedRepo.getFullName(), batch);
+    return updated[0];
+  }
+
+  private static Instant committedAt(GitHubCommit commit) {
+    if (commit.commit() == null || commit.commit().committer() == null || commit.commit().committer().date() == null) {
+      return null;
+    }
+    return Instant.parse(commit.commit().committer().date());
+  }
+}
@@ -0,0 +1,163 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.client.GitHubRateLimiter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserSessionService resolves a GitHub access token to the profile of the user it belongs to.
+ * Profiles are cached under a hash of the token, never the token itself, and are served from memory
+ * until their TTL runs out; after that they are revalidated with a conditional request, which GitHub
+ * answers with 304 Not Modified without charging the rate limit when the profile did not change.
+ * The least recently used sessions are evicted once the cache is full.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class UserSessionService implements MeterBinder {
+
+  /**
+   * The user an access token belongs to.
+   *
+   * @param scope The token hash; other caches can key per-user entries on it without holding the token.
+   * @param login The GitHub login of the user.
+   * @param id The numeric GitHub id of the user.
+   * @param profile The profile JSON as returned by GitHub.
+   */
+  public record UserSession(String scope, String login, long id, String profile) {
+  }
+
+  // A resolved session and the time GitHub last confirmed it, used for TTL expiry.
+  private record Entry(UserSession session, Instant validatedAt) {
+  }
+
+  private final GitHubService gitHubService;
+  private final int maxEntries;
+  private final Duration ttl;
+
+  // Access-ordered so the least recently used session is evicted first.
+  private final Map<String, Entry> entries;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong revalidations = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Autowired
+  public UserSessionService(
+      GitHubService gitHubService,
+      @Value("${session.max-entries:10000}") int maxEntries,
+      @Value("${session.ttl-seconds:300}") long ttlSeconds
+  ) {
+    this.gitHubService = gitHubService;
+    this.maxEntries = Math.max(1, maxEntries);
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > UserSessionService.this.maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Resolves the user of an Authorization header, calling GitHub only when the cached session has expired.
+   *
+   * @param authorization The user's Authorization header, e.g. "Bearer &lt;token&gt;".
+   * @return The session of the token's user.
+   * @throws ResponseStatusException 401 when no token is given or GitHub rejects it.
+   */
+  public UserSession resolve(String authorization) {
+    if (authorization == null || authorization.isBlank()) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing access token");
+    }
+    String scope = GitHubRateLimiter.quotaKey(authorization);
+
+    Entry cached;
+    synchronized (entries) {
+      cached = entries.get(scope);
+    }
+    if (cached != null && Instant.now().isBefore(cached.validatedAt().plus(ttl))) {
+      hits.incrementAndGet();
+      return cached.session();
+    }
+
+    // Goes through the response cache, so an expired session is revalidated with its ETag
+    // and concurrent resolves of the same token share one call.
+    String profile;
+    try {
+      profile = gitHubService.getAuthenticatedUser(authorization);
+    } catch (HttpClientErrorException.Unauthorized e) {
+      invalidate(authorization);
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid access token");
+    }
+
+    UserSession session = cached != null && cached.session().profile().equals(profile)
+        ? cached.session()
+        : parse(scope, profile);
+    (cached != null ? revalidations : misses).incrementAndGet();
+    synchronized (entries) {
+      entries.put(scope, new Entry(session, Instant.now()));
+    }
+    return session;
+  }
+
+  /**
+   * Forgets the session of a token, e.g. after it was revoked.
+   *
+   * @param authorization The user's Authorization header.
+   */
+  public void invalidate(String authorization) {
+    String scope = GitHubRateLimiter.quotaKey(authorization);
+    synchronized (entries) {
+      entries.remove(scope);
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  private UserSession parse(String scope, String profile) {
+    try {
+      JsonNode root = objectMapper.readTree(profile);
+      return new UserSession(scope, root.path("login").asText(), root.path("id").asLong(), profile);
+    } catch (JsonProcessingException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Unreadable GitHub user profile", e);
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("github.session.size", this, UserSessionService::size)
+        .description("Number of cached user sessions")
+        .register(registry);
+    FunctionCounter.builder("github.session.lookups", hits, AtomicLong::get)
+        .tag("outcome", "hit")
+        .register(registry);
+    FunctionCounter.builder("github.session.lookups", revalidations, AtomicLong::get)
+        .tag("outcome", "revalidated")
+        .register(registry);
+    FunctionCounter.builder("github.session.lookups", misses, AtomicLong::get)
+        .tag("outcome", "miss")
+        .register(registry);
+  }
+}
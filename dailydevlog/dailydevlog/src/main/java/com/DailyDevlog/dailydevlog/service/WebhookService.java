@@ -0,0 +1,255 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.client.GitHubResponseCache;
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubIssue;
+import com.DailyDevlog.dailydevlog.model.GitHubUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebhookService applies GitHub {@code push} and {@code issues} webhook events to the local store,
+ * so that tracked repositories stay current without polling.
+ * Deliveries are verified against the shared secret, deduplicated by delivery id and processed
+ * in arrival order by a single worker behind a bounded queue, so the endpoint can acknowledge at once.
+ */
+@Service // Marks this class as a service component in the Spring application context.
+public class WebhookService {
+
+  private static final Logger log = LoggerFactory.getLogger(WebhookService.class);
+
+  /**
+   * What happened to a delivery when it was received.
+   */
+  public enum Outcome { ACCEPTED, DUPLICATE, IGNORED, QUEUE_FULL }
+
+  private static final String SIGNATURE_PREFIX = "sha256=";
+  private static final String BRANCH_REF_PREFIX = "refs/heads/";
+  private static final Set<String> HANDLED_EVENTS = Set.of("push", "issues");
+
+  // GitHub lists at most this many commits in a push payload; larger pushes are left to the sync.
+  static final int MAX_PUSH_COMMITS = 2048;
+
+  private final CommitStore commitStore;
+  private final GitHubResponseCache responseCache;
+  private final MeterRegistry meterRegistry;
+
+  // Shared secret configured on the GitHub webhook; without it every delivery is rejected.
+  private final byte[] secret;
+
+  // Most recent delivery ids, oldest first; GitHub redelivers with the same id.
+  private final Map<String, Boolean> recentDeliveries;
+
+  // Single worker, so events of a repository are applied in the order they arrived.
+  private final ThreadPoolExecutor executor;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Autowired
+  public WebhookService(
+      CommitStore commitStore,
+      GitHubResponseCache responseCache,
+      MeterRegistry meterRegistry,
+      @Value("${github.webhook.secret:}") String secret,
+      @Value("${github.webhook.queue-capacity:500}") int queueCapacity,
+      @Value("${github.webhook.dedupe-size:10000}") int dedupeSize
+  ) {
+    this.commitStore = commitStore;
+    this.responseCache = responseCache;
+    this.meterRegistry = meterRegistry;
+    this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    this.recentDeliveries = new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+        return size() > Math.max(1, dedupeSize);
+      }
+    };
+    this.executor = new ThreadPoolExecutor(
+        1, 1,
+        0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+        runnable -> {
+          Thread thread = new Thread(runnable, "github-webhook");
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+    Gauge.builder("github.webhook.queue.size", executor, pool -> pool.getQueue().size())
+        .register(meterRegistry);
+  }
+
+  /**
+   * Checks the {@code X-Hub-Signature-256} header: the HMAC-SHA256 of the raw body under the shared secret.
+   *
+   * @param payload The raw request body, exactly as received.
+   * @param signature The header value, e.g. "sha256=&lt;hex&gt;".
+   * @return Whether the signature matches; always false when no secret is configured.
+   */
+  public boolean isSignatureValid(byte[] payload, String signature) {
+    if (secret.length == 0 || signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+      return false;
+    }
+    byte[] expected = sign(payload);
+    byte[] actual;
+    try {
+      actual = HexFormat.of().parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    // Constant-time comparison, so the signature can't be guessed byte by byte.
+    return MessageDigest.isEqual(expected, actual);
+  }
+
+  /**
+   * Queues a verified delivery for processing, unless it was already received or is not handled.
+   *
+   * @param deliveryId The {@code X-GitHub-Delivery} id.
+   * @param event The {@code X-GitHub-Event} name.
+   * @param payload The raw request body.
+   * @return What happened to the delivery.
+   */
+  public Outcome accept(String deliveryId, String event, byte[] payload) {
+    if (!HANDLED_EVENTS.contains(event)) {
+      count(event, "ignored");
+      return Outcome.IGNORED;
+    }
+    synchronized (recentDeliveries) {
+      if (recentDeliveries.putIfAbsent(deliveryId, Boolean.TRUE) != null) {
+        count(event, "duplicate");
+        return Outcome.DUPLICATE;
+      }
+    }
+
+    try {
+      executor.execute(() -> process(deliveryId, event, payload));
+      count(event, "accepted");
+      return Outcome.ACCEPTED;
+    } catch (RejectedExecutionException e) {
+      // Forgets the delivery, so that a redelivery is accepted once the queue has drained.
+      forget(deliveryId);
+      count(event, "rejected");
+      return Outcome.QUEUE_FULL;
+    }
+  }
+
+  // Applies one delivery to the store; runs on the webhook worker.
+  void process(String deliveryId, String event, byte[] payload) {
+    try {
+      JsonNode root = objectMapper.readTree(payload);
+      String fullName = root.path("repository").path("full_name").asText();
+      if (event.equals("push")) {
+        applyPush(fullName, root);
+      } else {
+        applyIssue(fullName, root);
+      }
+      invalidateListings(fullName);
+      count(event, "processed");
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to process {} delivery {}", event, deliveryId, e);
+      // Forgets the delivery, so that a redelivery from GitHub is processed again.
+      forget(deliveryId);
+      count(event, "failed");
+    }
+  }
+
+  private void forget(String deliveryId) {
+    synchronized (recentDeliveries) {
+      recentDeliveries.remove(deliveryId);
+    }
+  }
+
+  private void applyPush(String fullName, JsonNode root) {
+    String ref = root.path("ref").asText();
+    if (!ref.startsWith(BRANCH_REF_PREFIX)) {
+      return; // Tag pushes don't change the commit history.
+    }
+
+    List<GitHubCommit> commits = new ArrayList<>();
+    for (JsonNode commit : root.path("commits")) {
+      commits.add(toCommit(commit));
+    }
+    boolean complete = !root.path("forced").asBoolean() && !root.path("deleted").asBoolean()
+        && commits.size() < MAX_PUSH_COMMITS;
+    int stored = commitStore.applyPush(fullName, ref.substring(BRANCH_REF_PREFIX.length()),
+        root.path("before").asText(), root.path("after").asText(), complete, commits);
+    log.debug("Stored {} pushed commits of {}", stored, fullName);
+  }
+
+  private void applyIssue(String fullName, JsonNode root) throws IOException {
+    GitHubIssue issue = objectMapper.treeToValue(root.path("issue"), GitHubIssue.class);
+    commitStore.applyIssue(fullName, issue, root.path("action").asText().equals("deleted"));
+  }
+
+  // Drops the cached GitHub listings of the repository; commits looked up by SHA never change and stay.
+  private void invalidateListings(String fullName) {
+    String repoPath = "/repos/" + fullName.toLowerCase(Locale.ROOT) + "/";
+    responseCache.invalidateMutable(key -> key.toLowerCase(Locale.ROOT).contains(repoPath));
+  }
+
+  // Maps a commit of a push payload to the shape of the commit list API.
+  private static GitHubCommit toCommit(JsonNode commit) {
+    String timestamp = commit.hasNonNull("timestamp")
+        ? OffsetDateTime.parse(commit.get("timestamp").asText()).toInstant().toString()
+        : null;
+    JsonNode author = commit.path("author");
+    JsonNode committer = commit.path("committer");
+    return new GitHubCommit(
+        commit.path("id").asText(),
+        commit.path("url").asText(null),
+        new GitHubCommit.CommitInfo(
+            commit.path("message").asText(""),
+            new GitHubCommit.Signature(author.path("name").asText(null), author.path("email").asText(null), timestamp),
+            new GitHubCommit.Signature(committer.path("name").asText(null), committer.path("email").asText(null),
+                timestamp)
+        ),
+        author.hasNonNull("username") ? new GitHubUser(author.get("username").asText(), null) : null
+    );
+  }
+
+  private byte[] sign(byte[] payload) {
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+      return mac.doFinal(payload);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 is not available", e);
+    }
+  }
+
+  private void count(String event, String outcome) {
+    meterRegistry.counter("github.webhook.events", "event", event, "outcome", outcome).increment();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
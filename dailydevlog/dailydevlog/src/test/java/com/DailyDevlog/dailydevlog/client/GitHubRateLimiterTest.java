@@ -0,0 +1,136 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import com.DailyDevlog.dailydevlog.client.GitHubRequestContext.Priority;
+import com.DailyDevlog.dailydevlog.service.GitHubService;
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.DailyDevlog.dailydevlog.support.TestGitHubService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubRateLimiterTest {
+
+  @Test
+  void retriesSecondaryRateLimitAfterRetryAfter() throws Exception {
+    List<String> authorizations = new CopyOnWriteArrayList<>();
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> {
+      authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+      if (authorizations.size() == 1) {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        StubHttpServer.respond(exchange, 403, "{\"message\":\"You have exceeded a secondary rate limit.\"}");
+      } else {
+        StubHttpServer.respond(exchange, 200, "{\"login\":\"octocat\"}");
+      }
+    })) {
+      GitHubRateLimiter limiter = limiter(30000);
+      GitHubService gitHubService = service(stub, limiter);
+
+      long start = System.nanoTime();
+      String user = gitHubService.getAuthenticatedUser("Bearer user-token");
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+      assertThat(user).contains("octocat");
+      assertThat(stub.requestCount()).isEqualTo(2);
+      assertThat(authorizations).containsOnly("Bearer user-token");
+      assertThat(elapsedMillis).isGreaterThanOrEqualTo(900);
+      assertThat(limiter.retryCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void pacesCallsOnceTheQuotaRunsLow() throws Exception {
+    long reset = System.currentTimeMillis() / 1000 + 3;
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> {
+      exchange.getResponseHeaders().set("X-RateLimit-Limit", "100");
+      exchange.getResponseHeaders().set("X-RateLimit-Remaining", "10");
+      exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(reset));
+      StubHttpServer.respond(exchange, 200, "{\"login\":\"octocat\"}");
+    })) {
+      GitHubRateLimiter limiter = limiter(30000);
+      GitHubService gitHubService = service(stub, limiter);
+
+      long start = System.nanoTime();
+      for (int i = 0; i < 4; i++) {
+        gitHubService.getAuthenticatedUser("Bearer user-token");
+      }
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+      // Ten calls left for about two seconds: roughly one call per 200 ms instead of a burst.
+      assertThat(elapsedMillis).isGreaterThanOrEqualTo(300);
+      assertThat(limiter.delayedCount()).isGreaterThanOrEqualTo(2);
+      assertThat(limiter.remaining(GitHubRateLimiter.quotaKey("Bearer user-token"))).isBetween(0L, 10L);
+    }
+  }
+
+  @Test
+  void backgroundCallsLeaveTheReserveToInteractiveCalls() throws Exception {
+    GitHubRateLimiter limiter = limiter(30000);
+    long reset = System.currentTimeMillis() / 1000 + 2;
+    limiter.update(GitHubRateLimiter.APP_QUOTA, quota(100, 5, reset));
+
+    long start = System.nanoTime();
+    limiter.acquire(GitHubRateLimiter.APP_QUOTA, Priority.INTERACTIVE);
+    long interactiveMillis = (System.nanoTime() - start) / 1_000_000;
+
+    CompletableFuture<Long> background = CompletableFuture.supplyAsync(() -> {
+      limiter.acquire(GitHubRateLimiter.APP_QUOTA, Priority.BACKGROUND);
+      return System.currentTimeMillis();
+    });
+
+    assertThat(interactiveMillis).isLessThan(100);
+    // Five calls left is below the 10% reserve, so background work waits for the reset.
+    assertThat(background.get(5, TimeUnit.SECONDS)).isGreaterThanOrEqualTo(reset * 1000);
+  }
+
+  @Test
+  void rejectsInteractiveCallsThatWouldWaitTooLong() {
+    GitHubRateLimiter limiter = limiter(100);
+    limiter.update(GitHubRateLimiter.APP_QUOTA, quota(5000, 0, System.currentTimeMillis() / 1000 + 60));
+
+    assertThatThrownBy(() -> limiter.acquire(GitHubRateLimiter.APP_QUOTA, Priority.INTERACTIVE))
+        .isInstanceOf(ResponseStatusException.class)
+        .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+            .isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+    assertThat(limiter.rejectedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void tracksQuotaPerAccessToken() {
+    GitHubRateLimiter limiter = limiter(100);
+    String exhausted = GitHubRateLimiter.quotaKey("Bearer token-a");
+    limiter.update(exhausted, quota(5000, 0, System.currentTimeMillis() / 1000 + 60));
+
+    limiter.acquire(GitHubRateLimiter.quotaKey("Bearer token-b"), Priority.INTERACTIVE);
+    limiter.acquire(GitHubRateLimiter.APP_QUOTA, Priority.INTERACTIVE);
+
+    assertThat(exhausted).startsWith("token:").doesNotContain("token-a");
+    assertThat(GitHubRateLimiter.quotaKey(null)).isEqualTo(GitHubRateLimiter.APP_QUOTA);
+    assertThatThrownBy(() -> limiter.acquire(exhausted, Priority.INTERACTIVE))
+        .isInstanceOf(ResponseStatusException.class);
+  }
+
+  private static GitHubRateLimiter limiter(long maxWaitMillis) {
+    return new GitHubRateLimiter(0.5, 0.1, maxWaitMillis, 900000, 3, 1000);
+  }
+
+  private static GitHubService service(StubHttpServer stub, GitHubRateLimiter limiter) {
+    return TestGitHubService.against(stub).rateLimiter(limiter).build();
+  }
+
+  private static HttpHeaders quota(long limit, long remaining, long resetEpochSeconds) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("X-RateLimit-Limit", String.valueOf(limit));
+    headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+    headers.set("X-RateLimit-Reset", String.valueOf(resetEpochSeconds));
+    return headers;
+  }
+}
@@ -0,0 +1,70 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import com.DailyDevlog.dailydevlog.client.GitHubResponseCache.CachedResponse;
+import com.DailyDevlog.dailydevlog.service.GitHubService;
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.DailyDevlog.dailydevlog.support.TestGitHubService;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubResponseCacheTest {
+
+  private static final String SHA = "0123456789abcdef0123456789abcdef01234567";
+
+  @Test
+  void evictsLeastRecentlyUsedEntriesBySize() {
+    GitHubResponseCache cache = new GitHubResponseCache(300);
+    cache.put("a", new CachedResponse(new byte[100], "\"a\"", null, null, false));
+    cache.put("b", new CachedResponse(new byte[100], "\"b\"", null, null, false));
+    cache.get("a"); // "b" becomes the least recently used entry.
+    cache.put("c", new CachedResponse(new byte[100], "\"c\"", null, null, false));
+
+    assertThat(cache.get("b")).isNull();
+    assertThat(cache.get("a")).isNotNull();
+    assertThat(cache.get("c")).isNotNull();
+    assertThat(cache.sizeInBytes()).isLessThanOrEqualTo(300);
+    assertThat(cache.evictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  void servesImmutableCommitsFromMemory() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(exchange ->
+        StubHttpServer.respond(exchange, 200, "{\"sha\":\"" + SHA + "\",\"files\":[]}"))) {
+      GitHubResponseCache cache = new GitHubResponseCache(1 << 20);
+      GitHubService gitHubService = TestGitHubService.against(stub).responseCache(cache).build();
+
+      gitHubService.getCommitChanges("owner", "repo", SHA);
+      gitHubService.getCommitChanges("owner", "repo", SHA);
+
+      assertThat(stub.requestCount()).isEqualTo(1);
+      assertThat(cache.missCount()).isEqualTo(1);
+      assertThat(cache.hitCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void revalidatesListingsWithIfNoneMatch() throws Exception {
+    AtomicInteger conditionalRequests = new AtomicInteger();
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> {
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        conditionalRequests.incrementAndGet();
+        exchange.sendResponseHeaders(304, -1);
+        return;
+      }
+      exchange.getResponseHeaders().set("ETag", "\"v1\"");
+      StubHttpServer.respond(exchange, 200, "[{\"title\":\"Bug\",\"state\":\"open\"}]");
+    })) {
+      GitHubResponseCache cache = new GitHubResponseCache(1 << 20);
+      GitHubService gitHubService = TestGitHubService.against(stub).responseCache(cache).build();
+
+      assertThat(gitHubService.getRepositoryIssues("owner", "repo")).hasSize(1);
+      assertThat(gitHubService.getRepositoryIssues("owner", "repo")).hasSize(1);
+
+      assertThat(conditionalRequests.get()).isEqualTo(1);
+      assertThat(cache.revalidationCount()).isEqualTo(1);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the bulkhead against a local stub standing in for a slow or failing OpenAI.
+ */
+class OpenAiBulkheadTest {
+
+  private final ExecutorService callers = Executors.newCachedThreadPool();
+  private final RestTemplate restTemplate = new RestTemplate();
+  private final AtomicInteger status = new AtomicInteger(200);
+
+  private OpenAiBulkhead bulkhead;
+
+  @AfterEach
+  void tearDown() {
+    callers.shutdownNow();
+    if (bulkhead != null) {
+      bulkhead.shutdown();
+    }
+  }
+
+  @Test
+  void callersBeyondTheLimitFailFastAndSlowCallsShrinkIt() throws Exception {
+    try (StubHttpServer stub = stub()) {
+      stub.setLatencyMillis(500);
+      bulkhead = new OpenAiBulkhead(4, 1, 8, 0.5, 200, 5000, 0, 5, 30000);
+
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Long>> results = new ArrayList<>();
+      for (int i = 0; i < 6; i++) {
+        results.add(callers.submit(() -> {
+          start.await();
+          long started = System.nanoTime();
+          try {
+            bulkhead.execute(() -> restTemplate.getForObject(stub.url(), String.class));
+            return -1L;
+          } catch (ResponseStatusException e) {
+            assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+          }
+        }));
+      }
+      start.countDown();
+
+      List<Long> rejectedAfterMillis = new ArrayList<>();
+      for (Future<Long> result : results) {
+        long millis = result.get(5, TimeUnit.SECONDS);
+        if (millis >= 0) {
+          rejectedAfterMillis.add(millis);
+        }
+      }
+      // Four calls ran; the other two were refused without waiting for the slow upstream.
+      assertThat(rejectedAfterMillis).hasSize(2).allMatch(millis -> millis < 200);
+      assertThat(stub.requestCount()).isEqualTo(4);
+      assertThat(bulkhead.getLimit()).isEqualTo(1);
+
+      // Fast answers let the limit grow again.
+      stub.setLatencyMillis(0);
+      for (int i = 0; i < 10; i++) {
+        bulkhead.execute(() -> restTemplate.getForObject(stub.url(), String.class));
+      }
+      assertThat(bulkhead.getLimit()).isGreaterThan(2);
+    }
+  }
+
+  @Test
+  void timedOutCallsReleaseTheCallerButKeepTheirSlot() throws Exception {
+    try (StubHttpServer stub = stub()) {
+      stub.setLatencyMillis(1500);
+      bulkhead = new OpenAiBulkhead(4, 1, 8, 0.5, 10000, 200, 0, 5, 30000);
+
+      long started = System.nanoTime();
+      assertThatThrownBy(() -> bulkhead.execute(() -> restTemplate.getForObject(stub.url(), String.class)))
+          .isInstanceOfSatisfying(ResponseStatusException.class,
+              e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+
+      assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1000);
+      // The abandoned call is still running against the upstream until it ends.
+      assertThat(bulkhead.getInFlight()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void repeatedUpstreamFailuresOpenTheCircuitUntilATrialCallSucceeds() throws Exception {
+    try (StubHttpServer stub = stub()) {
+      bulkhead = new OpenAiBulkhead(4, 1, 8, 0.5, 10000, 5000, 0, 3, 300);
+      status.set(500);
+
+      for (int i = 0; i < 3; i++) {
+        assertThatThrownBy(() -> bulkhead.execute(() -> restTemplate.getForObject(stub.url(), String.class)))
+            .isInstanceOf(HttpServerErrorException.class);
+      }
+      assertThat(bulkhead.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+      // Open: refused without calling the upstream.
+      assertThatThrownBy(() -> bulkhead.execute(() -> restTemplate.getForObject(stub.url(), String.class)))
+          .isInstanceOfSatisfying(ResponseStatusException.class,
+              e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+      assertThat(stub.requestCount()).isEqualTo(3);
+
+      Thread.sleep(400);
+      status.set(200);
+      assertThat(bulkhead.getCircuitState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+      bulkhead.execute(() -> restTemplate.getForObject(stub.url(), String.class));
+      assertThat(bulkhead.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+  }
+
+  @Test
+  void clientErrorsDoNotOpenTheCircuit() throws Exception {
+    try (StubHttpServer stub = stub()) {
+      bulkhead = new OpenAiBulkhead(4, 1, 8, 0.5, 10000, 5000, 0, 3, 300);
+      status.set(400);
+
+      for (int i = 0; i < 5; i++) {
+        assertThatThrownBy(() -> bulkhead.execute(() -> restTemplate.getForObject(stub.url(), String.class)))
+            .isInstanceOf(HttpClientErrorException.class);
+      }
+      assertThat(bulkhead.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+      assertThat(bulkhead.getInFlight()).isZero();
+    }
+  }
+
+  private StubHttpServer stub() throws Exception {
+    return StubHttpServer.start(exchange -> StubHttpServer.respond(exchange, status.get(), "{}"));
+  }
+}
@@ -0,0 +1,50 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import com.DailyDevlog.dailydevlog.service.GitHubService;
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.DailyDevlog.dailydevlog.support.TestGitHubService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboundMetricsTest {
+
+  @Test
+  void recordsGitHubLatencyAndResponseSizeByOperation() throws Exception {
+    String body = "{\"login\":\"octocat\"}";
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> StubHttpServer.respond(exchange, 200, body))) {
+      SimpleMeterRegistry registry = new SimpleMeterRegistry();
+      GitHubService gitHubService = TestGitHubService.against(stub)
+          .responseCache(new GitHubResponseCache(0)).meterRegistry(registry).build();
+
+      gitHubService.getAuthenticatedUser("Bearer token");
+
+      Timer timer = registry.get("github.client.requests").tag("operation", "user").tag("status", "200").timer();
+      assertThat(timer.count()).isEqualTo(1);
+      DistributionSummary size = registry.get("github.client.response.size").tag("operation", "user").summary();
+      assertThat(size.totalAmount()).isEqualTo(body.length());
+    }
+  }
+
+  @Test
+  void tagsFailedOpenAiCallsWithTheirStatus() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    OutboundMetrics metrics = new OutboundMetrics(registry);
+
+    assertThatThrownBy(() -> metrics.openAi("completion", 128, () -> {
+      throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null);
+    })).isInstanceOf(HttpClientErrorException.class);
+    metrics.openAiTokens(100, 20);
+
+    assertThat(registry.get("openai.client.requests").tag("status", "429").timer().count()).isEqualTo(1);
+    assertThat(registry.get("openai.client.request.size").summary().totalAmount()).isEqualTo(128);
+    assertThat(registry.get("openai.tokens").tag("type", "prompt").counter().count()).isEqualTo(100);
+    assertThat(registry.get("openai.tokens").tag("type", "completion").counter().count()).isEqualTo(20);
+  }
+}
@@ -0,0 +1,190 @@
+package com.DailyDevlog.dailydevlog.client;
+
+import com.DailyDevlog.dailydevlog.model.IssueSummary;
+import com.DailyDevlog.dailydevlog.service.GitHubService;
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.DailyDevlog.dailydevlog.support.TestGitHubService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void concurrentIdenticalGitHubReadsShareOneUpstreamCall() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> StubHttpServer.respond(exchange, 200,
+        "[{\"title\":\"Crash on empty author\",\"state\":\"open\"}]"))) {
+      stub.setLatencyMillis(200);
+      SimpleMeterRegistry registry = new SimpleMeterRegistry();
+      GitHubService gitHubService = TestGitHubService.against(stub).meterRegistry(registry).build();
+
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<List<IssueSummary>>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return gitHubService.getRepositoryIssues("octocat", "hello-world");
+        }));
+      }
+      start.countDown();
+      for (Future<List<IssueSummary>> result : results) {
+        assertThat(result.get()).extracting(IssueSummary::title).containsExactly("Crash on empty author");
+      }
+
+      assertThat(stub.requestCount()).isEqualTo(1);
+      assertThat(registry.get("github.client.coalesced").functionCounter().count()).isEqualTo(7);
+      gitHubService.shutdown();
+    }
+  }
+
+  @Test
+  void everyWaiterReceivesTheUpstreamError() throws Exception {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    HttpServerErrorException failure = HttpServerErrorException.create(
+        HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null);
+
+    Future<?> first = executor.submit(() -> singleFlight.executeDetached("key", () -> {
+      started.countDown();
+      await(release);
+      throw failure;
+    }, executor));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    Future<?> second = executor.submit(() -> singleFlight.executeDetached("key", () -> "unused", executor));
+    waitUntil(() -> singleFlight.sharedCount() == 1);
+    release.countDown();
+
+    assertThatThrownBy(first::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+    assertThatThrownBy(second::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+  }
+
+  @Test
+  void aRefusedCallFailsItsCallersAndFreesTheKey() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    assertThatThrownBy(() -> singleFlight.executeDetached("key", () -> "unused", runnable -> {
+      throw new RejectedExecutionException("full");
+    })).isInstanceOf(RejectedExecutionException.class);
+
+    assertThat(singleFlight.executeDetached("key", () -> "fresh", executor).value()).isEqualTo("fresh");
+  }
+
+  @Test
+  void gitHubCallsBeyondTheUpstreamPoolAreRefusedWith503() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> StubHttpServer.respond(exchange, 200, "[]"))) {
+      stub.setLatencyMillis(500);
+      GitHubService gitHubService = TestGitHubService.against(stub).upstreamPool(1, 0).build();
+
+      Future<List<IssueSummary>> first = executor.submit(() -> gitHubService.getRepositoryIssues("octocat", "one"));
+      waitUntil(() -> stub.requestCount() == 1);
+
+      assertThatThrownBy(() -> gitHubService.getRepositoryIssues("octocat", "two"))
+          .isInstanceOfSatisfying(ResponseStatusException.class,
+              e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+      assertThat(first.get(5, TimeUnit.SECONDS)).isEmpty();
+      gitHubService.shutdown();
+    }
+  }
+
+  @Test
+  void cancelsTheCallOnceEveryWaiterLeaves() throws Exception {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+
+    List<Future<?>> waiters = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      waiters.add(executor.submit(() -> singleFlight.executeDetached("key", () -> {
+        calls.incrementAndGet();
+        started.countDown();
+        try {
+          Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+        return "late";
+      }, executor)));
+    }
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    waitUntil(() -> singleFlight.sharedCount() == 1);
+
+    // One waiter leaving keeps the call alive for the other.
+    waiters.get(0).cancel(true);
+    assertThat(interrupted.await(200, TimeUnit.MILLISECONDS)).isFalse();
+    assertThat(singleFlight.cancelledCount()).isZero();
+
+    waiters.get(1).cancel(true);
+    assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(singleFlight.cancelledCount()).isEqualTo(1);
+    assertThat(calls.get()).isEqualTo(1);
+
+    // The next caller starts a fresh call instead of joining the cancelled one.
+    assertThat(singleFlight.executeDetached("key", () -> "fresh", executor).value()).isEqualTo("fresh");
+  }
+
+  @Test
+  void interruptedWaiterGetsCancellationAndKeepsItsInterruptFlag() throws Exception {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<Boolean> waiter = executor.submit(() -> {
+      Thread.currentThread().interrupt();
+      try {
+        singleFlight.executeDetached("key", () -> {
+          await(release);
+          return "value";
+        }, executor);
+        return false;
+      } catch (CancellationException e) {
+        return Thread.currentThread().isInterrupted();
+      }
+    });
+
+    assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+    release.countDown();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+}
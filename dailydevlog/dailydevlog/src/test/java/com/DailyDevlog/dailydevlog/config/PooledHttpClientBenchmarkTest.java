@@ -0,0 +1,70 @@
+package com.DailyDevlog.dailydevlog.config;
+
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures throughput of the shared pooled client against a local stub for different
+ * per-host pool sizes, and checks that connections are reused rather than reopened.
+ */
+class PooledHttpClientBenchmarkTest {
+
+  private static final int REQUESTS = 64;
+  private static final int CALLER_THREADS = 8;
+
+  @Test
+  void throughputScalesWithPoolSizeAndConnectionsAreReused() throws Exception {
+    Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> {
+      clientPorts.add(exchange.getRemoteAddress().getPort());
+      StubHttpServer.respond(exchange, 200, "{\"ok\":true}");
+    })) {
+      stub.setLatencyMillis(20);
+
+      double singleConnection = requestsPerSecond(stub, 1);
+      clientPorts.clear();
+      double eightConnections = requestsPerSecond(stub, 8);
+
+      assertThat(eightConnections).isGreaterThan(singleConnection * 2);
+      // Every request reused one of the eight pooled keep-alive connections.
+      assertThat(clientPorts.size()).isLessThanOrEqualTo(8);
+    }
+  }
+
+  private double requestsPerSecond(StubHttpServer stub, int maxPerRoute) throws Exception {
+    AppConfig config = new AppConfig();
+    try (PoolingHttpClientConnectionManager pool = config.httpConnectionManager(maxPerRoute, maxPerRoute, 1000, 5000);
+        CloseableHttpClient httpClient = config.httpClient(pool, 10000, 5000)) {
+      RestTemplate restTemplate = config.restTemplate(httpClient);
+      ExecutorService callers = Executors.newFixedThreadPool(CALLER_THREADS);
+      try {
+        long start = System.nanoTime();
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+          responses.add(callers.submit(() -> restTemplate.getForObject(stub.url() + "/ping", String.class)));
+        }
+        for (Future<String> response : responses) {
+          assertThat(response.get()).contains("ok");
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertThat(pool.getTotalStats().getMax()).isEqualTo(maxPerRoute);
+        return REQUESTS / seconds;
+      } finally {
+        callers.shutdownNow();
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.DailyDevlog.dailydevlog.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads {@code /commits}, {@code /issues} and {@code /auto-code-review} of a full application
+ * wired to local GitHub and OpenAI stand-ins, and prints throughput and p50/p99 latency
+ * per endpoint and concurrency level to find the saturation point of a single node.
+ * <p>
+ * Excluded from {@code test}; run it with {@code ./gradlew loadTest}, tuned by system properties:
+ * <ul>
+ *   <li>{@code loadtest.concurrency}: comma-separated caller counts (default 1,8,32)</li>
+ *   <li>{@code loadtest.requests}: measured requests per run (default 200)</li>
+ *   <li>{@code loadtest.repos}: distinct repositories the listing endpoints spread over (default 20)</li>
+ *   <li>{@code loadtest.github.latency-ms} / {@code loadtest.openai.latency-ms}: stub latency (default 50 / 800)</li>
+ *   <li>{@code loadtest.github.error-rate} / {@code loadtest.openai.error-rate}: injected failures (default 0)</li>
+ *   <li>{@code loadtest.github.rate-limit}: GitHub requests allowed per hour (default unlimited)</li>
+ * </ul>
+ * Reviews are requested for a different repository each time so they miss the review cache.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApplicationLoadTest {
+
+  private static final double GITHUB_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.github.error-rate", "0"));
+  private static final double OPENAI_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.openai.error-rate", "0"));
+
+  private static FakeGitHub gitHub;
+  private static FakeOpenAi openAi;
+
+  @LocalServerPort
+  private int port;
+
+  @DynamicPropertySource
+  static void stubs(DynamicPropertyRegistry registry) throws IOException {
+    gitHub = FakeGitHub.start();
+    gitHub.setLatencyMillis(Long.getLong("loadtest.github.latency-ms", 50));
+    gitHub.setErrorRate(GITHUB_ERROR_RATE);
+    gitHub.setRateLimit(Integer.getInteger("loadtest.github.rate-limit", Integer.MAX_VALUE), 3600);
+
+    openAi = FakeOpenAi.start();
+    openAi.setLatencyMillis(Long.getLong("loadtest.openai.latency-ms", 800));
+    openAi.setErrorRate(OPENAI_ERROR_RATE);
+
+    registry.add("github.api.url", gitHub::url);
+    registry.add("openai.api.url", openAi::url);
+  }
+
+  @AfterAll
+  static void stopStubs() {
+    gitHub.close();
+    openAi.close();
+  }
+
+  @Test
+  void reportsThroughputAndLatencyPerEndpoint() throws Exception {
+    int requests = Integer.getInteger("loadtest.requests", 200);
+    int repos = Integer.getInteger("loadtest.repos", 20);
+    int[] concurrencyLevels = Arrays.stream(System.getProperty("loadtest.concurrency", "1,8,32").split(","))
+        .mapToInt(level -> Integer.parseInt(level.trim()))
+        .toArray();
+
+    String api = "http://127.0.0.1:" + port + "/api/v1/github";
+    Map<String, IntFunction<URI>> scenarios = new LinkedHashMap<>();
+    scenarios.put("commits", i -> URI.create(api + "/commits?owner=load&repo=repo-" + i % repos));
+    scenarios.put("issues", i -> URI.create(api + "/issues?owner=load&repo=repo-" + i % repos));
+    scenarios.put("auto-code-review", i -> URI.create(api + "/auto-code-review?owner=load&repo=review-" + i));
+
+    LoadDriver driver = new LoadDriver(Math.max(1, requests / 10), Duration.ofMinutes(2));
+    List<LoadDriver.Report> reports = new ArrayList<>();
+    int firstIndex = 0;
+    for (Map.Entry<String, IntFunction<URI>> scenario : scenarios.entrySet()) {
+      for (int concurrency : concurrencyLevels) {
+        // Later runs continue the index sequence, so review runs don't repeat repositories.
+        int offset = firstIndex;
+        LoadDriver.Report report = driver.run(scenario.getKey(), concurrency, requests,
+            i -> scenario.getValue().apply(offset + i));
+        firstIndex += requests * 2;
+        System.out.println(report.format());
+        reports.add(report);
+      }
+    }
+    System.out.printf("stubs served %d GitHub and %d OpenAI requests%n", gitHub.requestCount(), openAi.requestCount());
+
+    assertThat(reports).hasSize(scenarios.size() * concurrencyLevels.length);
+    if (GITHUB_ERROR_RATE == 0 && OPENAI_ERROR_RATE == 0) {
+      assertThat(reports).allSatisfy(report -> assertThat(report.errors()).isZero());
+    }
+  }
+}
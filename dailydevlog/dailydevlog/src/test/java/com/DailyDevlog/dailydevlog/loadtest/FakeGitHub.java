@@ -0,0 +1,139 @@
+package com.DailyDevlog.dailydevlog.loadtest;
+
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the GitHub REST API that replays the recorded responses under
+ * {@code fixtures/github} with configurable latency, error rate and rate limit.
+ * <p>
+ * Every response carries {@code X-RateLimit-*} headers counting down a fixed window;
+ * once the window's quota is spent, requests are answered with 403 until it resets.
+ * The latest commit of each repository mentions the repository name, so reviews of
+ * different repositories produce different prompts.
+ */
+public final class FakeGitHub implements AutoCloseable {
+
+  private static final Pattern COMMIT_DETAIL = Pattern.compile("/repos/[^/]+/[^/]+/commits/[^/]+");
+  private static final Pattern COMMIT_LIST = Pattern.compile("/repos/([^/]+)/([^/]+)/commits");
+  private static final Pattern ISSUES = Pattern.compile("/repos/[^/]+/[^/]+/issues");
+  private static final String MESSAGE_FIELD = "\"message\": \"";
+
+  private final StubHttpServer server;
+  private final String commits = fixture("commits.json");
+  private final String commitDetail = fixture("commit-detail.json");
+  private final String issues = fixture("issues.json");
+
+  private volatile double errorRate;
+  private int rateLimit = Integer.MAX_VALUE;
+  private long windowSeconds = 3600;
+  private long windowResetAt;
+  private int used;
+
+  private FakeGitHub() throws IOException {
+    server = StubHttpServer.start(this::handle);
+  }
+
+  public static FakeGitHub start() throws IOException {
+    return new FakeGitHub();
+  }
+
+  public String url() {
+    return server.url();
+  }
+
+  public int requestCount() {
+    return server.requestCount();
+  }
+
+  public void setLatencyMillis(long latencyMillis) {
+    server.setLatencyMillis(latencyMillis);
+  }
+
+  /**
+   * Sets the fraction of requests answered with 502 Bad Gateway.
+   */
+  public void setErrorRate(double errorRate) {
+    this.errorRate = errorRate;
+  }
+
+  /**
+   * Sets the number of requests allowed per window of {@code windowSeconds}.
+   */
+  public synchronized void setRateLimit(int rateLimit, long windowSeconds) {
+    this.rateLimit = rateLimit;
+    this.windowSeconds = windowSeconds;
+    this.windowResetAt = 0;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+      StubHttpServer.respond(exchange, 502, "{\"message\":\"Server Error\"}");
+      return;
+    }
+
+    int remaining = takeQuota(exchange);
+    if (remaining < 0) {
+      StubHttpServer.respond(exchange, 403, "{\"message\":\"API rate limit exceeded\"}");
+      return;
+    }
+
+    String path = exchange.getRequestURI().getPath();
+    Matcher commitList = COMMIT_LIST.matcher(path);
+    if (COMMIT_DETAIL.matcher(path).matches()) {
+      StubHttpServer.respond(exchange, 200, commitDetail);
+    } else if (commitList.matches()) {
+      StubHttpServer.respond(exchange, 200, commitsOf(commitList.group(1), commitList.group(2)));
+    } else if (ISSUES.matcher(path).matches()) {
+      StubHttpServer.respond(exchange, 200, issues);
+    } else if (path.equals("/user")) {
+      StubHttpServer.respond(exchange, 200, "{\"login\":\"load-tester\",\"id\":1}");
+    } else {
+      StubHttpServer.respond(exchange, 404, "{\"message\":\"Not Found\"}");
+    }
+  }
+
+  // Spends one request of the current window and sets the rate-limit headers; negative once exhausted.
+  private synchronized int takeQuota(HttpExchange exchange) {
+    long now = System.currentTimeMillis() / 1000;
+    if (now >= windowResetAt) {
+      windowResetAt = now + windowSeconds;
+      used = 0;
+    }
+    used++;
+    int remaining = rateLimit - used;
+
+    exchange.getResponseHeaders().set("X-RateLimit-Limit", String.valueOf(rateLimit));
+    exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(Math.max(remaining, 0)));
+    exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(windowResetAt));
+    exchange.getResponseHeaders().set("X-RateLimit-Used", String.valueOf(Math.min(used, rateLimit)));
+    exchange.getResponseHeaders().set("X-RateLimit-Resource", "core");
+    return remaining;
+  }
+
+  private String commitsOf(String owner, String repo) {
+    int latestMessage = commits.indexOf(MESSAGE_FIELD) + MESSAGE_FIELD.length();
+    return commits.substring(0, latestMessage) + "[" + owner + "/" + repo + "] " + commits.substring(latestMessage);
+  }
+
+  private static String fixture(String name) {
+    try (InputStream in = FakeGitHub.class.getResourceAsStream("/fixtures/github/" + name)) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    server.close();
+  }
+}
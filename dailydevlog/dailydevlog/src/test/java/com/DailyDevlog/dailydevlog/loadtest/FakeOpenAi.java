@@ -0,0 +1,98 @@
+package com.DailyDevlog.dailydevlog.loadtest;
+
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the OpenAI chat completions API with configurable latency and error rate.
+ * Answers every request with the same review, as a single JSON completion or, for
+ * {@code "stream": true} requests, as server-sent events ending with a usage chunk.
+ */
+public final class FakeOpenAi implements AutoCloseable {
+
+  static final String REVIEW = "1. Handle a missing author before filtering commits.\n"
+      + "2. Close the response stream in a finally block.\n"
+      + "3. Extract the page size into a constant.";
+
+  private final StubHttpServer server;
+  private volatile double errorRate;
+
+  private FakeOpenAi() throws IOException {
+    server = StubHttpServer.start(this::handle);
+  }
+
+  public static FakeOpenAi start() throws IOException {
+    return new FakeOpenAi();
+  }
+
+  public String url() {
+    return server.url();
+  }
+
+  public int requestCount() {
+    return server.requestCount();
+  }
+
+  /**
+   * Sets the time before a completion is answered.
+   */
+  public void setLatencyMillis(long latencyMillis) {
+    server.setLatencyMillis(latencyMillis);
+  }
+
+  /**
+   * Sets the fraction of requests answered with 429 Too Many Requests.
+   */
+  public void setErrorRate(double errorRate) {
+    this.errorRate = errorRate;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+      exchange.getResponseHeaders().set("Retry-After", "1");
+      StubHttpServer.respond(exchange, 429, "{\"error\":{\"message\":\"Rate limit reached\"}}");
+      return;
+    }
+
+    // Roughly four characters per token, like the requests the service sends.
+    int promptTokens = request.length() / 4;
+    int completionTokens = REVIEW.length() / 4;
+    String usage = "{\"prompt_tokens\":" + promptTokens + ",\"completion_tokens\":" + completionTokens + "}";
+
+    if (!request.contains("\"stream\":true")) {
+      StubHttpServer.respond(exchange, 200, "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":"
+          + quote(REVIEW) + "}}],\"usage\":" + usage + "}");
+      return;
+    }
+
+    exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+    exchange.sendResponseHeaders(200, 0);
+    try (OutputStream out = exchange.getResponseBody()) {
+      for (String line : REVIEW.split("(?<=\n)")) {
+        write(out, "{\"choices\":[{\"delta\":{\"content\":" + quote(line) + "}}]}");
+      }
+      write(out, "{\"choices\":[],\"usage\":" + usage + "}");
+      out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static void write(OutputStream out, String data) throws IOException {
+    out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+    out.flush();
+  }
+
+  private static String quote(String text) {
+    return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+  }
+
+  @Override
+  public void close() {
+    server.close();
+  }
+}
@@ -0,0 +1,128 @@
+package com.DailyDevlog.dailydevlog.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop HTTP load driver: a fixed number of callers send requests back to back
+ * and the driver reports throughput and latency percentiles of the measured requests.
+ * Each run starts with unmeasured warm-up requests at the same concurrency.
+ */
+public final class LoadDriver {
+
+  /**
+   * The outcome of one run.
+   *
+   * @param scenario The name of the scenario.
+   * @param concurrency The number of concurrent callers.
+   * @param requests The number of measured requests.
+   * @param errors Requests that failed or were answered with a 4xx/5xx status.
+   * @param throughput Measured requests per second.
+   * @param p50Millis The median latency.
+   * @param p99Millis The 99th percentile latency.
+   * @param maxMillis The slowest request.
+   */
+  public record Report(String scenario, int concurrency, int requests, int errors, double throughput,
+      double p50Millis, double p99Millis, double maxMillis) {
+
+    public String format() {
+      return String.format("%-18s c=%-4d n=%-6d errors=%-5d %8.1f req/s  p50=%8.1f ms  p99=%8.1f ms  max=%8.1f ms",
+          scenario, concurrency, requests, errors, throughput, p50Millis, p99Millis, maxMillis);
+    }
+  }
+
+  private final HttpClient client = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+  private final int warmupRequests;
+  private final Duration requestTimeout;
+
+  public LoadDriver(int warmupRequests, Duration requestTimeout) {
+    this.warmupRequests = warmupRequests;
+    this.requestTimeout = requestTimeout;
+  }
+
+  /**
+   * Sends {@code requests} GET requests with {@code concurrency} callers.
+   *
+   * @param scenario The name shown in the report.
+   * @param concurrency The number of concurrent callers.
+   * @param requests The number of measured requests.
+   * @param target Maps the request index, counting warm-up requests, to the URI to call.
+   * @return The throughput and latency of the measured requests.
+   */
+  public Report run(String scenario, int concurrency, int requests, IntFunction<URI> target) throws Exception {
+    phase(concurrency, new long[warmupRequests], new AtomicInteger(), target);
+
+    long[] latencies = new long[requests];
+    AtomicInteger errors = new AtomicInteger();
+    long start = System.nanoTime();
+    // Measured requests continue the index sequence, so they don't repeat the warm-up targets.
+    phase(concurrency, latencies, errors, i -> target.apply(warmupRequests + i));
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    Arrays.sort(latencies);
+    return new Report(scenario, concurrency, requests, errors.get(), requests / seconds,
+        millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+        millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]));
+  }
+
+  // Runs latencies.length requests and stores each one's latency at its index.
+  private void phase(int concurrency, long[] latencies, AtomicInteger errors, IntFunction<URI> target)
+      throws Exception {
+    AtomicInteger next = new AtomicInteger();
+    ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+    try {
+      List<Future<?>> workers = new ArrayList<>();
+      for (int c = 0; c < concurrency; c++) {
+        workers.add(callers.submit(() -> {
+          for (int i = next.getAndIncrement(); i < latencies.length; i = next.getAndIncrement()) {
+            HttpRequest request = HttpRequest.newBuilder(target.apply(i)).timeout(requestTimeout).GET().build();
+            long begin = System.nanoTime();
+            try {
+              HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+              if (response.statusCode() >= 400) {
+                errors.incrementAndGet();
+              }
+            } catch (IOException e) {
+              errors.incrementAndGet();
+            }
+            latencies[i] = System.nanoTime() - begin;
+          }
+          return null;
+        }));
+      }
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+
+  // Nearest-rank percentile of sorted values.
+  static long percentile(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(quantile * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1e6;
+  }
+}
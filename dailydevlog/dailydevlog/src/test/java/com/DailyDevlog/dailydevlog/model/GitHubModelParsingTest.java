@@ -0,0 +1,110 @@
+package com.DailyDevlog.dailydevlog.model;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Binds the recorded GitHub fixtures to the typed records, and compares allocation and
+ * throughput against the previous Map-based parsing of the same payloads.
+ */
+class GitHubModelParsingTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void bindsCommitListFixture() throws Exception {
+    List<GitHubCommit> commits = readCommitsTyped(fixture("commits.json"));
+
+    assertThat(commits).hasSize(100);
+    assertThat(commits.get(0).sha()).hasSize(40);
+    assertThat(commits.get(0).message()).startsWith("Fix bug in commit filter");
+    assertThat(commits.get(0).author().login()).isEqualTo("hyunjin-dev");
+    assertThat(commits.get(0).commit().committer().date()).isEqualTo("2025-02-28T23:00:00Z");
+  }
+
+  @Test
+  void bindsCommitDetailFixture() throws Exception {
+    GitHubCommitDetail detail = objectMapper.readValue(fixture("commit-detail.json"), GitHubCommitDetail.class);
+
+    assertThat(detail.files()).hasSize(8);
+    assertThat(detail.files().get(0).filename()).endsWith("GitHubService.java");
+    assertThat(detail.files().get(0).patch()).startsWith("@@ ");
+    assertThat(detail.files()).filteredOn(file -> file.filename().endsWith(".png"))
+        .singleElement().extracting(GitHubCommitFile::patch).isNull();
+  }
+
+  @Test
+  void simplifiesIssueFixture() throws Exception {
+    GitHubIssue issue = objectMapper.readerFor(GitHubIssue.class)
+        .<GitHubIssue>readValues(fixture("issues.json")).next();
+    IssueSummary summary = IssueSummary.from(issue);
+
+    assertThat(summary.url()).startsWith("https://github.com/");
+    assertThat(summary.createdAt()).isNotNull();
+    assertThat(objectMapper.writeValueAsString(summary)).contains("\"created_at\"", "\"updated_at\"");
+  }
+
+  @Test
+  void typedParsingAllocatesLessThanMapParsing() throws Exception {
+    byte[] page = fixture("commits.json");
+    for (int i = 0; i < 30; i++) { // Warms up both paths.
+      readCommitsAsMaps(page);
+      readCommitsTyped(page);
+    }
+
+    // Timings of both paths are measured by GitHubDeserializationBenchmark (./gradlew jmh).
+    long mapBytes = allocatedBytes(() -> readCommitsAsMaps(page));
+    long typedBytes = allocatedBytes(() -> readCommitsTyped(page));
+    assertThat(typedBytes).isLessThan(mapBytes);
+  }
+
+  private static final int ITERATIONS = 50;
+
+  @FunctionalInterface
+  private interface ParseRun {
+    void run() throws IOException;
+  }
+
+  private static long allocatedBytes(ParseRun run) throws IOException {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < ITERATIONS; i++) {
+      run.run();
+    }
+    return threads.getThreadAllocatedBytes(threadId) - before;
+  }
+
+  // The previous approach: a full Map/List tree, then the three fields actually used.
+  @SuppressWarnings("unchecked")
+  private int readCommitsAsMaps(byte[] page) throws IOException {
+    int used = 0;
+    List<Map<String, Object>> commits = objectMapper.readValue(page, List.class);
+    for (Map<String, Object> commit : commits) {
+      Map<String, Object> commitData = (Map<String, Object>) commit.get("commit");
+      used += ((String) commit.get("sha")).length() + ((String) commitData.get("message")).length();
+    }
+    return used;
+  }
+
+  private List<GitHubCommit> readCommitsTyped(byte[] page) throws IOException {
+    try (MappingIterator<GitHubCommit> iterator = objectMapper.readerFor(GitHubCommit.class).readValues(page)) {
+      return iterator.readAll();
+    }
+  }
+
+  private static byte[] fixture(String name) throws IOException {
+    try (InputStream in = GitHubModelParsingTest.class.getResourceAsStream("/fixtures/github/" + name)) {
+      return in.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.DailyDevlog.dailydevlog.prompt;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the token-budgeted prompt with the former character-truncated prompt on a large
+ * recorded set of commit details (20 commits, lock files, minified and vendored code, whitespace-only hunks).
+ */
+class PromptBuilderBenchmarkTest {
+
+  private static final int BUDGET = 3000;
+
+  @Test
+  void compactedPromptFitsTheBudgetAndCarriesDenserChanges() throws IOException {
+    List<GitHubCommitDetail> details = new ObjectMapper().readValue(
+        fixture("commit-details-large.json"), new TypeReference<List<GitHubCommitDetail>>() { });
+    List<String> messages = new ArrayList<>();
+    List<GitHubCommitFile> files = new ArrayList<>();
+    for (GitHubCommitDetail detail : details) {
+      messages.add(detail.commit().message());
+      files.addAll(detail.files());
+    }
+
+    // The former prompt: everything concatenated, then cut at 5000 / 10000 characters.
+    StringBuilder rawChanges = new StringBuilder();
+    for (GitHubCommitFile file : files) {
+      rawChanges.append("File: ").append(file.filename()).append("\n").append(file.patch()).append("\n\n");
+    }
+    String rawMessages = String.join("\n", messages);
+    String legacy = PromptBuilder.format(
+        rawMessages.substring(0, Math.min(5000, rawMessages.length())),
+        rawChanges.substring(0, Math.min(10000, rawChanges.length())));
+
+    // Build times are measured by PromptAssemblyBenchmark (./gradlew jmh).
+    PromptBuilder builder = new PromptBuilder(BUDGET, 1);
+    PromptBuilder.ReviewPrompt prompt = builder.build(messages, files);
+
+    int rawTokens = TokenEstimator.estimate(rawChanges);
+    int compactedTokens = files.stream().mapToInt(builder::estimateFile).sum();
+    assertThat(compactedTokens).isLessThan(rawTokens / 2);
+    int fill = BUDGET - BUDGET * PromptBuilder.SAFETY_MARGIN_PERCENT / 100;
+    assertThat(prompt.estimatedTokens()).isBetween(fill * 95 / 100, fill);
+    // The character cut overshoots the budget, yet carries fewer changed lines per token than the budgeted prompt.
+    int legacyTokens = TokenEstimator.estimate(legacy);
+    assertThat(legacyTokens).isGreaterThan(BUDGET);
+    assertThat((double) changedLines(prompt.text()) / prompt.estimatedTokens())
+        .isGreaterThan((double) changedLines(legacy) / legacyTokens);
+    assertThat(prompt.text()).doesNotContain("package-lock.json", ".min.js", "vendor/", ".png");
+  }
+
+  private static long changedLines(String text) {
+    return text.lines().filter(line -> line.startsWith("+") || line.startsWith("-")).count();
+  }
+
+  private static byte[] fixture(String name) throws IOException {
+    try (InputStream in = PromptBuilderBenchmarkTest.class.getResourceAsStream("/fixtures/github/" + name)) {
+      return in.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package com.DailyDevlog.dailydevlog.prompt;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptBuilderTest {
+
+  @Test
+  void estimatesTokensLikeATokenizer() {
+    assertThat(TokenEstimator.estimate("")).isZero();
+    assertThat(TokenEstimator.estimate("return value;")).isEqualTo(3); // "return", " value", ";"
+    assertThat(TokenEstimator.estimate("a b c")).isEqualTo(3);
+    assertThat(TokenEstimator.estimate("        indented")).isEqualTo(3); // indentation, "indented" in two
+  }
+
+  @Test
+  void dropsLockVendoredGeneratedAndBinaryFiles() {
+    DiffCompactor compactor = new DiffCompactor(1);
+
+    assertThat(compactor.isReviewable(file("src/main/java/App.java", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isTrue();
+    assertThat(compactor.isReviewable(file("package-lock.json", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isFalse();
+    assertThat(compactor.isReviewable(file("web/yarn.lock", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isFalse();
+    assertThat(compactor.isReviewable(file("vendor/lib/x.go", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isFalse();
+    assertThat(compactor.isReviewable(file("static/app.min.js", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isFalse();
+    assertThat(compactor.isReviewable(file("docs/logo.png", 0, 0, null))).isFalse();
+    assertThat(compactor.isReviewable(file("rebuild/Notes.md", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isTrue();
+    assertThat(compactor.isReviewable(file("build/libs/app.js", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isFalse();
+    assertThat(compactor.isReviewable(file("app.js.map", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isFalse();
+    // Only file endings count as generated markers, and only root-level build output is skipped.
+    assertThat(compactor.isReviewable(file("src/user.mapper.ts", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isTrue();
+    assertThat(compactor.isReviewable(file("config/routes.mapping.yml", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isTrue();
+    assertThat(compactor.isReviewable(file("src/build/Compiler.java", 1, 1, "@@ -1 +1 @@\n-a\n+b"))).isTrue();
+  }
+
+  @Test
+  void collapsesWhitespaceOnlyHunksAndTrimsContext() {
+    String patch = String.join("\n",
+        "@@ -1,4 +1,4 @@",
+        "-\tif (x) { return; }",
+        "+    if (x) {  return; }",
+        "@@ -20,7 +20,7 @@ class A {",
+        " context 1",
+        " context 2",
+        " context 3",
+        "-int a = 1;",
+        "+int a = 2;",
+        " context 4",
+        " context 5",
+        "\\ No newline at end of file");
+
+    List<String> lines = new DiffCompactor(1).compact(patch);
+
+    assertThat(lines).containsExactly(
+        "@@ -20,7 +20,7 @@ class A {",
+        " context 3",
+        "-int a = 1;",
+        "+int a = 2;",
+        " context 4");
+  }
+
+  @Test
+  void prioritizesChurnAndStaysWithinTheBudget() {
+    List<GitHubCommitFile> files = new ArrayList<>();
+    files.add(file("Small.java", 1, 1, "@@ -1 +1 @@\n-small old\n+small new"));
+    files.add(file("package-lock.json", 500, 500, "@@ -1 +1 @@\n-lock\n+lock"));
+    files.add(file("Large.java", 40, 0, addedLines("large", 40)));
+
+    PromptBuilder.ReviewPrompt prompt = new PromptBuilder(2000, 1).build(List.of("Fix bug"), files);
+
+    assertThat(prompt.text()).contains("Fix bug").doesNotContain("package-lock.json");
+    assertThat(prompt.text().indexOf("File: Large.java")).isLessThan(prompt.text().indexOf("File: Small.java"));
+    assertThat(prompt.includedFiles()).isEqualTo(2);
+    assertThat(prompt.omittedFiles()).isEqualTo(1);
+    assertThat(prompt.estimatedTokens()).isLessThanOrEqualTo(2000);
+  }
+
+  @Test
+  void cutsTheLastFileAtALineBoundaryToFillTheBudget() {
+    int budget = 400;
+    PromptBuilder.ReviewPrompt prompt = new PromptBuilder(budget, 1)
+        .build(List.of("Refactor"), List.of(file("Big.java", 500, 0, addedLines("statement", 500))));
+
+    assertThat(prompt.truncatedFiles()).isEqualTo(1);
+    assertThat(prompt.estimatedTokens()).isBetween(fill(budget) - 20, fill(budget));
+    // Every diff line is complete.
+    assertThat(prompt.text().lines().filter(line -> line.startsWith("+")))
+        .allMatch(line -> line.matches("\\+int statement\\d+ = \\d+;"));
+  }
+
+  @Test
+  void splitsLargeChangeSetsAtFileAndHunkBoundariesIntoBudgetSizedChunks() {
+    int budget = 400;
+    List<GitHubCommitFile> files = new ArrayList<>();
+    files.add(file("Big.java", 300, 0, hunks("big", 6, 50)));
+    files.add(file("Small.java", 1, 1, "@@ -1 +1 @@\n-small old\n+small new"));
+    files.add(file("yarn.lock", 100, 100, "@@ -1 +1 @@\n-lock\n+lock"));
+
+    PromptBuilder.ChunkedPrompt plan = new PromptBuilder(budget, 1).buildChunks(List.of("Rewrite"), files, 20);
+
+    assertThat(plan.chunks()).hasSizeGreaterThan(1);
+    assertThat(plan.reviewedFiles()).isEqualTo(2);
+    assertThat(plan.omittedFiles()).isEqualTo(1);
+    assertThat(plan.chunks()).allSatisfy(chunk -> {
+      assertThat(chunk.estimatedTokens()).isLessThanOrEqualTo(budget);
+      assertThat(chunk.text()).contains("Rewrite");
+      // Every chunk starts its diff with a file header and keeps hunks together.
+      assertThat(chunk.text()).contains("Code change history: File: ");
+    });
+    assertThat(plan.chunks().get(0).text()).contains("part 1 of " + plan.chunks().size());
+
+    // Every added line of the big file is in exactly one chunk.
+    List<String> added = plan.chunks().stream()
+        .flatMap(chunk -> chunk.text().lines().filter(line -> line.startsWith("+int big")))
+        .toList();
+    assertThat(added).hasSize(300).doesNotHaveDuplicates();
+  }
+
+  @Test
+  void countsAFileWithALineLargerThanAPromptAsTruncated() {
+    String patch = "@@ -1,0 +1,2 @@\n+int kept = 1;\n+String huge = \"" + "x ".repeat(2_000) + "\";";
+
+    PromptBuilder.ChunkedPrompt plan = new PromptBuilder(400, 1)
+        .buildChunks(List.of("Add data"), List.of(file("Data.java", 2, 0, patch)), 4);
+
+    assertThat(plan.chunks()).hasSize(1);
+    assertThat(plan.chunks().get(0).text()).contains("int kept").doesNotContain("String huge");
+    assertThat(plan.chunks().get(0).includedFiles()).isZero();
+    assertThat(plan.chunks().get(0).truncatedFiles()).isEqualTo(1);
+  }
+
+  @Test
+  void coversOnlyAsManyChunksAsAllowed() {
+    List<GitHubCommitFile> files = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      files.add(file("File" + i + ".java", 100 - i, 0, addedLines("file" + i, 40)));
+    }
+
+    PromptBuilder.ChunkedPrompt plan = new PromptBuilder(500, 1).buildChunks(List.of("Refactor"), files, 2);
+
+    assertThat(plan.chunks()).hasSize(2);
+    assertThat(plan.reviewedFiles() + plan.omittedFiles()).isEqualTo(10);
+    assertThat(plan.omittedFiles()).isPositive();
+    // Highest churn first, so the dropped files are the smallest changes.
+    assertThat(plan.chunks().get(0).text()).contains("File: File0.java");
+  }
+
+  @Test
+  void buildsAMergePromptWithinTheBudget() {
+    String longReview = "Finding line.\n".repeat(500);
+
+    String prompt = new PromptBuilder(1000, 1).buildReduce(List.of("Uses clear names.", longReview), 1);
+
+    assertThat(prompt).contains("Review of part 1:", "Uses clear names.", "Review of part 2:",
+        "1 part(s) of the change set could not be reviewed");
+    assertThat(TokenEstimator.estimate(prompt)).isLessThanOrEqualTo(1000);
+  }
+
+  @Test
+  void buildsTheRetrospectivePromptWithinTheSameBudget() {
+    int budget = 400;
+    PromptBuilder.ReviewPrompt prompt = new PromptBuilder(budget, 1).buildRetrospective("2025-03-01",
+        List.of("octo/app: Refactor"), List.of(file("octo/app/Big.java", 500, 0, addedLines("statement", 500))));
+
+    assertThat(prompt.text()).contains("on 2025-03-01", "daily retrospective", "octo/app: Refactor",
+        "File: octo/app/Big.java");
+    assertThat(prompt.truncatedFiles()).isEqualTo(1);
+    assertThat(prompt.estimatedTokens()).isBetween(fill(budget) - 20, fill(budget));
+  }
+
+  // The part of the budget a prompt is filled to; the rest is the safety margin.
+  private static int fill(int budget) {
+    return budget - budget * PromptBuilder.SAFETY_MARGIN_PERCENT / 100;
+  }
+
+  static GitHubCommitFile file(String filename, int additions, int deletions, String patch) {
+    return new GitHubCommitFile(filename, "modified", additions, deletions, additions + deletions, patch);
+  }
+
+  // `count` hunks of `linesPerHunk` added lines each, far apart in the file.
+  private static String hunks(String name, int count, int linesPerHunk) {
+    StringBuilder patch = new StringBuilder();
+    for (int hunk = 0; hunk < count; hunk++) {
+      patch.append(hunk == 0 ? "" : "\n").append("@@ -").append(hunk * 100).append(",0 +")
+          .append(hunk * 100).append(',').append(linesPerHunk).append(" @@");
+      for (int i = 0; i < linesPerHunk; i++) {
+        int n = hunk * linesPerHunk + i;
+        patch.append("\n+int ").append(name).append(n).append(" = ").append(n).append(';');
+      }
+    }
+    return patch.toString();
+  }
+
+  private static String addedLines(String name, int count) {
+    StringBuilder patch = new StringBuilder("@@ -0,0 +1," + count + " @@");
+    for (int i = 0; i < count; i++) {
+      patch.append("\n+int ").append(name).append(i).append(" = ").append(i).append(';');
+    }
+    return patch.toString();
+  }
+}
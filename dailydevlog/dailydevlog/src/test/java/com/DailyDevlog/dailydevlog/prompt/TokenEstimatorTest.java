@@ -0,0 +1,72 @@
+package com.DailyDevlog.dailydevlog.prompt;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the estimate against the pre-tokenization of the GPT tokenizer (cl100k). BPE never merges
+ * across these pieces, so their count is a lower bound on the real token count.
+ */
+class TokenEstimatorTest {
+
+  // The cl100k pre-tokenization pattern.
+  private static final Pattern PIECES = Pattern.compile("(?i:'s|'t|'re|'ve|'m|'ll|'d)"
+      + "|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+
+  @Test
+  void countsShasNumbersAndIdentifiersPieceByPiece() {
+    // 3|f|786|850|e|387|550|fdab|836|ed|7|e|6|dc|881|de|230|01|b
+    assertThat(TokenEstimator.estimate("3f786850e387550fdab836ed7e6dc881de23001b")).isEqualTo(19);
+    assertThat(TokenEstimator.estimate("1234567")).isEqualTo(3); // 123|456|7
+    assertThat(TokenEstimator.estimate("getHTTPResponseCode")).isEqualTo(4); // get, "HTTPResponse" in two, Code
+    assertThat(TokenEstimator.estimate("commits_synced_at")).isEqualTo(5); // "commits" and "_synced" in two each, "_at"
+  }
+
+  @Test
+  void neverEstimatesFewerTokensThanTheTokenizerPiecesOfADiff() throws IOException {
+    List<GitHubCommitDetail> details = new ObjectMapper().readValue(
+        fixture("commit-details-large.json"), new TypeReference<List<GitHubCommitDetail>>() { });
+    long estimated = 0;
+    long pieces = 0;
+    for (GitHubCommitDetail detail : details) {
+      for (GitHubCommitFile file : detail.files()) {
+        if (file.patch() == null) {
+          continue;
+        }
+        int fileEstimate = TokenEstimator.estimate(file.patch());
+        int filePieces = pieces(file.patch());
+        assertThat(fileEstimate).as(file.filename()).isGreaterThanOrEqualTo(filePieces);
+        estimated += fileEstimate;
+        pieces += filePieces;
+      }
+    }
+    // Pins the calibration, so a change to the estimator that drifts from the tokenizer shows up here.
+    assertThat((double) estimated / pieces).isBetween(1.3, 1.5);
+  }
+
+  private static int pieces(String text) {
+    Matcher matcher = PIECES.matcher(text);
+    int count = 0;
+    while (matcher.find()) {
+      count++;
+    }
+    return count;
+  }
+
+  private static byte[] fixture(String name) throws IOException {
+    try (InputStream in = TokenEstimatorTest.class.getResourceAsStream("/fixtures/github/" + name)) {
+      return in.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.DailyDevlog.dailydevlog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitIndexTest {
+
+  private final CommitIndex index = new CommitIndex();
+
+  @BeforeEach
+  void setUp() {
+    index.addCommit("a1", Instant.parse("2025-01-01T00:00:00Z"), "Fix NPE in commit parser\n\nThe author may be null.");
+    index.addCommit("b2", Instant.parse("2025-01-02T00:00:00Z"), "Add issue stream endpoint");
+    index.addCommit("c3", Instant.parse("2025-01-03T00:00:00Z"), "Revert regression in rate limiter (bug #12)");
+    index.addCommit("d4", Instant.parse("2025-01-04T00:00:00Z"), "Bug fix: cache eviction");
+    index.addCommit("e5", null, "fix typo");
+    index.addPaths("a1", List.of("src/main/java/com/x/model/GitHubCommit.java"));
+    index.addPaths("c3", List.of("src/main/java/com/x/client/GitHubRateLimiter.java", "README.md"));
+    index.addPaths("d4", List.of("src/main/java/com/x/client/GitHubResponseCache.java"));
+  }
+
+  @Test
+  void matchesAnyAlternativeNewestFirst() {
+    assertThat(shas("fix|bug|regression", 10)).containsExactly("d4", "c3", "a1", "e5");
+    assertThat(shas("fix|bug|regression", 2)).containsExactly("d4", "c3");
+  }
+
+  @Test
+  void requiresEveryClauseAndEveryWordOfAnAlternative() {
+    assertThat(shas("fix bug", 10)).containsExactly("d4");
+    assertThat(shas("bug-fix|commit-parser", 10)).containsExactly("d4", "a1");
+    assertThat(shas("FIX", 10)).containsExactly("d4", "a1", "e5");
+  }
+
+  @Test
+  void matchesPrefixesOfWordsAndPaths() {
+    assertThat(shas("regress*", 10)).containsExactly("c3");
+    assertThat(shas("path:src/main/java/com/x/client/", 10)).containsExactly("d4", "c3");
+    assertThat(shas("path:readme", 10)).containsExactly("c3");
+    assertThat(shas("path:client fix|bug", 10)).containsExactly("d4", "c3");
+    assertThat(shas("path:model|readme.md", 10)).containsExactly("c3", "a1");
+  }
+
+  @Test
+  void filtersByAuthor() {
+    index.addCommit("f6", Instant.parse("2025-01-06T00:00:00Z"), "Fix login bug", "Alice");
+    index.addCommit("g7", Instant.parse("2025-01-07T00:00:00Z"), "Fix logout bug", "bob");
+
+    assertThat(index.search(CommitQuery.parse("fix"), "alice", null, null, 10))
+        .extracting(CommitIndex.Hit::sha).containsExactly("f6");
+    assertThat(shas("fix", 10)).containsExactly("g7", "f6", "d4", "a1", "e5");
+  }
+
+  @Test
+  void filtersByTimeRange() {
+    List<CommitIndex.Hit> hits = index.search(CommitQuery.parse("fix|bug"),
+        Instant.parse("2025-01-01T12:00:00Z"), Instant.parse("2025-01-03T00:00:00Z"), 10);
+
+    assertThat(hits).extracting(CommitIndex.Hit::sha).containsExactly("c3");
+    assertThat(hits.get(0).subject()).isEqualTo("Revert regression in rate limiter (bug #12)");
+  }
+
+  @Test
+  void blankQueryMatchesEveryCommit() {
+    assertThat(shas("", 10)).containsExactly("d4", "c3", "b2", "a1", "e5");
+    assertThat(shas(null, 10)).hasSize(5);
+    assertThat(shas("nothing-like-this", 10)).isEmpty();
+  }
+
+  @Test
+  void ignoresRepeatedAdditions() {
+    index.addCommit("a1", Instant.parse("2030-01-01T00:00:00Z"), "unrelated");
+    assertThat(index.addPaths("a1", List.of("docs/notes.md"))).isFalse();
+    assertThat(index.addPaths("unknown", List.of("docs/notes.md"))).isFalse();
+
+    assertThat(index.size()).isEqualTo(5);
+    assertThat(shas("unrelated", 10)).isEmpty();
+    assertThat(shas("path:docs/", 10)).isEmpty();
+  }
+
+  @Test
+  void agreesWithALinearScanAcrossManyCommits() {
+    CommitIndex large = new CommitIndex();
+    String[] words = {"fix", "bug", "feature", "refactor", "test", "docs"};
+    for (int i = 0; i < 1000; i++) {
+      large.addCommit("sha" + i, Instant.ofEpochSecond(1_700_000_000L + i),
+          words[i % words.length] + " " + words[(i / 7) % words.length]);
+    }
+
+    List<CommitIndex.Hit> hits = large.search(CommitQuery.parse("fix|bug test"), null, null, 1000);
+
+    long expected = IntStream.range(0, 1000)
+        .filter(i -> {
+          String message = words[i % words.length] + " " + words[(i / 7) % words.length];
+          return (message.contains("fix") || message.contains("bug")) && message.contains("test");
+        })
+        .count();
+    assertThat(hits).hasSize((int) expected);
+    assertThat(hits).extracting(CommitIndex.Hit::committedAt).isSortedAccordingTo(Comparator.reverseOrder());
+  }
+
+  private List<String> shas(String query, int limit) {
+    return index.search(CommitQuery.parse(query), null, null, limit).stream().map(CommitIndex.Hit::sha).toList();
+  }
+}
@@ -0,0 +1,94 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.DailyDevlog.dailydevlog.prompt.PromptBuilder;
+import com.DailyDevlog.dailydevlog.search.CommitIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AutoReviewServiceTest {
+
+  private static final Instant SINCE = Instant.parse("2025-03-02T00:00:00Z");
+
+  private final GitHubService gitHubService = mock(GitHubService.class);
+  private final CommitFanOutService commitFanOutService = mock(CommitFanOutService.class);
+  private final CommitSearchService commitSearchService = mock(CommitSearchService.class);
+  private final List<String> fetchedShas = new ArrayList<>();
+
+  private final AutoReviewService service = new AutoReviewService();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(service, "gitHubService", gitHubService);
+    ReflectionTestUtils.setField(service, "commitFanOutService", commitFanOutService);
+    ReflectionTestUtils.setField(service, "commitSearchService", commitSearchService);
+    ReflectionTestUtils.setField(service, "promptBuilder", new PromptBuilder(3000, 1));
+    ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+
+    doAnswer(invocation -> {
+      Predicate<GitHubCommitDetail> consumer = invocation.getArgument(3);
+      for (String sha : invocation.<List<String>>getArgument(2)) {
+        fetchedShas.add(sha);
+        consumer.test(new GitHubCommitDetail(sha, null, null,
+            List.of(new GitHubCommitFile(sha + ".java", "modified", 1, 0, 1, "+ int x = 1;"))));
+      }
+      return null;
+    }).when(commitFanOutService).fetchInOrder(anyString(), anyString(), any(), any());
+
+    // The latest page only reaches back to c3.
+    when(gitHubService.listCommits("octo", "app", null, "main")).thenReturn(List.of(
+        commit("c4", "Add logout", "2025-03-04T00:00:00Z"),
+        commit("c3", "Fix login bug", "2025-03-03T00:00:00Z")));
+  }
+
+  @Test
+  void trackedRepositoriesAreReviewedThroughTheCommitIndex() {
+    when(commitSearchService.search(eq("octo"), eq("app"), eq("main"), isNull(), eq("regress*"), eq(SINCE), isNull(),
+        anyInt()))
+        .thenReturn(Optional.of(List.of(
+            new CommitIndex.Hit("c3", Instant.parse("2025-03-03T00:00:00Z"), "Fix login bug"),
+            new CommitIndex.Hit("c2", Instant.parse("2025-03-02T00:00:00Z"), "Regression in signup"))));
+
+    AutoReviewService.ReviewInput input = service.collect("octo", "app", null, "main",
+        new AutoReviewService.Selection("regress*", SINCE, null), 10_000);
+
+    assertThat(fetchedShas).containsExactly("c3", "c2");
+    assertThat(input.commitMessages()).containsExactly("Fix login bug", "Regression in signup");
+  }
+
+  @Test
+  void untrackedRepositoriesFallBackToTheBugHeuristicWithinTheTimeRange() {
+    when(commitSearchService.search(anyString(), anyString(), anyString(), any(), anyString(), any(), any(), anyInt()))
+        .thenReturn(Optional.empty());
+
+    service.collect("octo", "app", null, "main",
+        new AutoReviewService.Selection(null, null, Instant.parse("2025-03-03T12:00:00Z")), 10_000);
+
+    assertThat(fetchedShas).containsExactly("c3");
+  }
+
+  private static GitHubCommit commit(String sha, String message, String date) {
+    GitHubCommit.Signature signature = new GitHubCommit.Signature("Alice", "alice@example.com", date);
+    return new GitHubCommit(sha, null, new GitHubCommit.CommitInfo(message, signature, signature), null);
+  }
+}
@@ -0,0 +1,141 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.model.ChatCompletion;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.DailyDevlog.dailydevlog.prompt.PromptBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChunkedReviewServiceTest {
+
+  private final CodeReviewService codeReviewService = mock(CodeReviewService.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private ChunkedReviewService service;
+
+  @AfterEach
+  void tearDown() {
+    if (service != null) {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  void reviewsThePartsConcurrentlyAndMergesThem() {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    answer(prompt -> {
+      if (isMerge(prompt)) {
+        return "Merged review";
+      }
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      sleep(50);
+      inFlight.decrementAndGet();
+      return "Part review";
+    });
+    service = new ChunkedReviewService(codeReviewService, new PromptBuilder(500, 1), registry, 8, 2, 4, 10_000);
+
+    ChunkedReviewService.ChunkedReview review = service.review(List.of("Rewrite"), largeChangeSet(10));
+
+    assertThat(review.review()).isEqualTo("Merged review");
+    assertThat(review.chunks()).isBetween(2, 8);
+    assertThat(review.failedChunks()).isZero();
+    assertThat(maxInFlight.get()).isEqualTo(2);
+    assertThat(registry.get("review.chunks").tag("outcome", "reviewed").counter().count()).isEqualTo(review.chunks());
+  }
+
+  @Test
+  void smallChangeSetsAreReviewedWithoutAMergeStep() {
+    answer(prompt -> isMerge(prompt) ? "Merged review" : "Only review");
+    service = new ChunkedReviewService(codeReviewService, new PromptBuilder(3000, 1), registry, 8, 2, 4, 10_000);
+
+    ChunkedReviewService.ChunkedReview review = service.review(List.of("Fix bug"), largeChangeSet(1));
+
+    assertThat(review.chunks()).isEqualTo(1);
+    assertThat(review.review()).isEqualTo("Only review");
+  }
+
+  @Test
+  void failedPartsAreReportedInsteadOfFailingTheReview() {
+    List<String> mergePrompts = new ArrayList<>();
+    answer(prompt -> {
+      if (isMerge(prompt)) {
+        mergePrompts.add(prompt);
+        return "Merged review";
+      }
+      if (prompt.contains("part 1 of")) {
+        throw new IllegalStateException("GPT is unavailable");
+      }
+      return "Part review";
+    });
+    service = new ChunkedReviewService(codeReviewService, new PromptBuilder(500, 1), registry, 8, 2, 4, 10_000);
+
+    ChunkedReviewService.ChunkedReview review = service.review(List.of("Rewrite"), largeChangeSet(10));
+
+    assertThat(review.review()).isEqualTo("Merged review");
+    assertThat(review.failedChunks()).isEqualTo(1);
+    assertThat(mergePrompts).singleElement().asString().contains("1 part(s) of the change set could not be reviewed");
+  }
+
+  @Test
+  void partsStillRunningAtTheDeadlineAreLeftOut() {
+    answer(prompt -> {
+      if (isMerge(prompt)) {
+        throw new IllegalStateException("GPT is unavailable");
+      }
+      if (!prompt.contains("part 1 of")) {
+        sleep(5_000);
+      }
+      return "First part review";
+    });
+    service = new ChunkedReviewService(codeReviewService, new PromptBuilder(500, 1), registry, 8, 4, 4, 300);
+
+    long started = System.nanoTime();
+    ChunkedReviewService.ChunkedReview review = service.review(List.of("Rewrite"), largeChangeSet(10));
+
+    assertThat(System.nanoTime() - started).isLessThan(3_000_000_000L);
+    assertThat(review.failedChunks()).isEqualTo(review.chunks() - 1);
+    // The merge call failed too, so the part reviews are returned as they are.
+    assertThat(review.review()).startsWith("Part 1:\nFirst part review").contains("could not be reviewed");
+  }
+
+  private void answer(Function<String, String> reviewer) {
+    when(codeReviewService.complete(anyString()))
+        .thenAnswer(invocation -> new ChatCompletion(reviewer.apply(invocation.getArgument(0)), 0, 0));
+  }
+
+  private static boolean isMerge(String prompt) {
+    return prompt.contains("merge them into a single review");
+  }
+
+  private static List<GitHubCommitFile> largeChangeSet(int fileCount) {
+    List<GitHubCommitFile> files = new ArrayList<>();
+    for (int f = 0; f < fileCount; f++) {
+      StringBuilder patch = new StringBuilder("@@ -0,0 +1,30 @@");
+      for (int i = 0; i < 30; i++) {
+        patch.append("\n+int value").append(f).append('_').append(i).append(" = ").append(i).append(';');
+      }
+      files.add(new GitHubCommitFile("File" + f + ".java", "added", 30, 0, 30, patch.toString()));
+    }
+    return files;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.client.OpenAiBulkhead;
+import com.DailyDevlog.dailydevlog.client.OutboundMetrics;
+import com.DailyDevlog.dailydevlog.repository.ReviewRecordRepository;
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.sun.net.httpserver.HttpExchange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Calls a stub OpenAI through the real bulkhead, cache and metrics.
+ */
+class CodeReviewServiceTest {
+
+  private static final String COMPLETION = "{\"choices\":[{\"message\":{\"content\":\"Looks good.\"}}],"
+      + "\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":3}}";
+
+  private static final String SUBJECT = "octo/app@main";
+  private static final String STALE_NOTE = "(GPT is unavailable right now; this is the most recent earlier review.)";
+  private static final String UNAVAILABLE = "GPT is unavailable right now, please try again later.";
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private OpenAiBulkhead bulkhead;
+
+  @AfterEach
+  void tearDown() {
+    if (bulkhead != null) {
+      bulkhead.shutdown();
+    }
+  }
+
+  @Test
+  void recordsTheSizeOfChunkedResponses() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> respondChunked(exchange, COMPLETION))) {
+      CodeReviewService service = service(stub, 60_000);
+
+      assertThat(service.review("Review this")).isEqualTo("Looks good.");
+
+      // No Content-Length is sent, so the size comes from the bytes read.
+      assertThat(registry.get("openai.client.response.size").tag("operation", "completion").summary().totalAmount())
+          .isEqualTo(COMPLETION.getBytes(StandardCharsets.UTF_8).length);
+    }
+  }
+
+  @Test
+  void timedOutAndRefusedReviewsFallBackToTheLatestReviewOfTheirSubject() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> StubHttpServer.respond(exchange, 200, COMPLETION))) {
+      CodeReviewService service = service(stub, 300);
+      assertThat(service.review("Review the first change", SUBJECT)).isEqualTo("Looks good.");
+
+      // Two timeouts in a row open the circuit.
+      stub.setLatencyMillis(1_000);
+      assertThat(service.review("Review the second change", SUBJECT)).isEqualTo(STALE_NOTE + "\n\nLooks good.");
+      assertThat(service.review("Review the third change", SUBJECT)).isEqualTo(STALE_NOTE + "\n\nLooks good.");
+      int requests = stub.requestCount();
+
+      assertThat(service.review("Review the fourth change", SUBJECT)).isEqualTo(STALE_NOTE + "\n\nLooks good.");
+      assertThat(service.review("Review the fourth change", "octo/other@main")).isEqualTo(UNAVAILABLE);
+      assertThat(stub.requestCount()).isEqualTo(requests);
+    }
+  }
+
+  @Test
+  void aTimedOutStreamDeliversOnlyTheFallbackAfterwards() throws Exception {
+    CountDownLatch streamEnded = new CountDownLatch(1);
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> {
+      exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+      exchange.sendResponseHeaders(200, 0);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(event("Good ").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        sleep(1_000);
+        out.write((event("habits.") + "data: [DONE]\n\n").getBytes(StandardCharsets.UTF_8));
+      } catch (IOException e) {
+        // The client dropped the connection.
+      } finally {
+        streamEnded.countDown();
+      }
+    })) {
+      CodeReviewService service = service(stub, 300);
+      List<String> deltas = new CopyOnWriteArrayList<>();
+
+      String review = service.streamReview("Review this", SUBJECT, deltas::add);
+
+      assertThat(review).isEqualTo(UNAVAILABLE);
+      assertThat(streamEnded.await(5, TimeUnit.SECONDS)).isTrue();
+      sleep(200); // Gives an abandoned reader the chance to pass on the late delta.
+      assertThat(deltas).endsWith(UNAVAILABLE).doesNotContain("habits.")
+          .filteredOn(UNAVAILABLE::equals).hasSize(1);
+    }
+  }
+
+  @Test
+  void aPlainReviewJoinsAnIdenticalStreamInFlight() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> {
+      exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+      exchange.sendResponseHeaders(200, 0);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(event("Good ").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        sleep(300);
+        out.write((event("habits.") + "data: [DONE]\n\n").getBytes(StandardCharsets.UTF_8));
+      }
+    })) {
+      CodeReviewService service = service(stub, 5_000);
+      CountDownLatch firstDelta = new CountDownLatch(1);
+
+      CompletableFuture<String> streamed = CompletableFuture.supplyAsync(() ->
+          service.streamReview("Review this", delta -> firstDelta.countDown()));
+      assertThat(firstDelta.await(5, TimeUnit.SECONDS)).isTrue();
+
+      assertThat(service.review("Review this")).isEqualTo("Good habits.");
+      assertThat(streamed.get(5, TimeUnit.SECONDS)).isEqualTo("Good habits.");
+      assertThat(stub.requestCount()).isEqualTo(1);
+    }
+  }
+
+  private CodeReviewService service(StubHttpServer stub, long callTimeoutMillis) {
+    bulkhead = new OpenAiBulkhead(2, 1, 4, 0.5, 20_000, callTimeoutMillis, 1_000, 2, 60_000);
+    CodeReviewService service = new CodeReviewService();
+    ReflectionTestUtils.setField(service, "openAiApiUrl", stub.url());
+    ReflectionTestUtils.setField(service, "gptApiKey", "test-key");
+    ReflectionTestUtils.setField(service, "maxTokens", 500);
+    ReflectionTestUtils.setField(service, "restTemplate", new RestTemplate());
+    ReflectionTestUtils.setField(service, "reviewCache",
+        new ReviewCache(mock(ReviewRecordRepository.class), 100, 1, false, 1000));
+    ReflectionTestUtils.setField(service, "outboundMetrics", new OutboundMetrics(registry));
+    ReflectionTestUtils.setField(service, "openAiBulkhead", bulkhead);
+    return service;
+  }
+
+  private static String event(String delta) {
+    return "data: {\"choices\":[{\"delta\":{\"content\":\"" + delta + "\"}}]}\n\n";
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Sends the body with chunked transfer encoding, without a Content-Length header.
+  private static void respondChunked(HttpExchange exchange, String body) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, 0);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.DailyDevlog.dailydevlog.support.TestGitHubService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitFanOutServiceTest {
+
+  private static final long LATENCY_MILLIS = 100;
+
+  private final List<String> shas = IntStream.range(0, 8).mapToObj(i -> "sha" + i).toList();
+
+  private StubHttpServer stub;
+  private GitHubService gitHubService;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    stub = StubHttpServer.start(exchange -> {
+      String path = exchange.getRequestURI().getPath();
+      String sha = path.substring(path.lastIndexOf('/') + 1);
+      StubHttpServer.respond(exchange, 200,
+          "{\"sha\":\"" + sha + "\",\"files\":[{\"filename\":\"" + sha + ".java\",\"patch\":\"+x\"}]}");
+    });
+    stub.setLatencyMillis(LATENCY_MILLIS);
+
+    gitHubService = TestGitHubService.against(stub).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    stub.close();
+  }
+
+  @Test
+  void keepsCommitOrder() {
+    List<String> seen = new ArrayList<>();
+    fanOut(4).fetchInOrder("owner", "repo", shas, details -> seen.add(details.sha()));
+
+    assertThat(seen).containsExactlyElementsOf(shas);
+  }
+
+  @Test
+  void wallClockTimeScalesWithConcurrency() {
+    long sequential = timeFanOut(1);
+    long parallel = timeFanOut(4);
+
+    // 8 commits: ~8 round trips sequentially versus ~2 with four in flight.
+    assertThat(sequential).isGreaterThanOrEqualTo(8 * LATENCY_MILLIS);
+    assertThat(parallel).isLessThan(sequential / 2);
+  }
+
+  @Test
+  void stopsFetchingOnceConsumerIsSatisfied() {
+    List<GitHubCommitDetail> seen = new ArrayList<>();
+    fanOut(2).fetchInOrder("owner", "repo", shas, details -> {
+      seen.add(details);
+      return seen.size() < 2;
+    });
+
+    assertThat(seen).hasSize(2);
+    // Only the consumed commits plus the in-flight window ever reach the server.
+    assertThat(stub.requestCount()).isLessThanOrEqualTo(4);
+  }
+
+  private long timeFanOut(int concurrency) {
+    long start = System.nanoTime();
+    fanOut(concurrency).fetchInOrder("owner", "repo", shas, details -> true);
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  private CommitFanOutService fanOut(int concurrency) {
+    return new CommitFanOutService(gitHubService, concurrency, 8);
+  }
+}
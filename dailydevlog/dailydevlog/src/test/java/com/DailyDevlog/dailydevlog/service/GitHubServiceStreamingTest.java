@@ -0,0 +1,85 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.DailyDevlog.dailydevlog.support.TestGitHubService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubServiceStreamingTest {
+
+  private StubHttpServer stub;
+  private GitHubService gitHubService;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // Three pages of two commits each, newest first: day 6 down to day 1.
+    stub = StubHttpServer.start(exchange -> {
+      int page = Arrays.stream(exchange.getRequestURI().getQuery().split("&"))
+          .filter(param -> param.startsWith("page="))
+          .mapToInt(param -> Integer.parseInt(param.substring("page=".length())))
+          .findFirst().orElse(1);
+      if (page < 3) {
+        exchange.getResponseHeaders().set("Link",
+            "<" + stub.url() + "/repos/o/r/commits?per_page=2&page=" + (page + 1) + ">; rel=\"next\", "
+                + "<" + stub.url() + "/repos/o/r/commits?per_page=2&page=3>; rel=\"last\"");
+      }
+      String body = IntStream.of(0, 1)
+          .mapToObj(i -> commit(7 - (page - 1) * 2 - i - 1))
+          .collect(Collectors.joining(",", "[", "]"));
+      StubHttpServer.respond(exchange, 200, body);
+    });
+    gitHubService = TestGitHubService.against(stub).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    stub.close();
+  }
+
+  @Test
+  void followsNextLinksAndWritesOneCommitPerLine() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    gitHubService.streamCommits("o", "r", null, "main", null, null, out);
+
+    List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    assertThat(lines).hasSize(6);
+    assertThat(lines.get(0)).contains("\"sha\":\"c6\"");
+    assertThat(lines.get(5)).contains("\"sha\":\"c1\"");
+    assertThat(stub.requestCount()).isEqualTo(3);
+  }
+
+  @Test
+  void stopsThePageWalkAtTheSinceBound() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    gitHubService.streamCommits("o", "r", null, "main", Instant.parse("2024-01-04T00:00:00Z"), null, out);
+
+    assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(3);
+    assertThat(stub.requestCount()).isEqualTo(2);
+  }
+
+  @Test
+  void parsesNextLinkFromLinkHeader() {
+    String link = "<https://api.github.com/repositories/1/commits?page=2>; rel=\"next\", "
+        + "<https://api.github.com/repositories/1/commits?page=9>; rel=\"last\"";
+
+    assertThat(GitHubService.nextPageUrl(link)).isEqualTo("https://api.github.com/repositories/1/commits?page=2");
+    assertThat(GitHubService.nextPageUrl("<https://x/?page=1>; rel=\"prev\"")).isNull();
+    assertThat(GitHubService.nextPageUrl(null)).isNull();
+  }
+
+  private static String commit(int day) {
+    return "{\"sha\":\"c" + day + "\",\"commit\":{\"message\":\"m" + day + "\","
+        + "\"committer\":{\"date\":\"2024-01-0" + day + "T12:00:00Z\"}}}";
+  }
+}
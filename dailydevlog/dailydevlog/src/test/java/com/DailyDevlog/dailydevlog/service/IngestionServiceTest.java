@@ -0,0 +1,182 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.entity.RegisteredUser;
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import com.DailyDevlog.dailydevlog.repository.RegisteredUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngestionServiceTest {
+
+  private final SyncService syncService = mock(SyncService.class);
+  private final CommitStore commitStore = mock(CommitStore.class);
+  private final RegisteredUserRepository users = mock(RegisteredUserRepository.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private IngestionService ingestion;
+
+  @AfterEach
+  void shutdown() {
+    if (ingestion != null) {
+      ingestion.shutdown();
+    }
+  }
+
+  @Test
+  void shardsRepositoriesEvenlyAndStablyAcrossNodes() {
+    int[] perNode = new int[4];
+    int moved = 0;
+    for (int i = 0; i < 4000; i++) {
+      String repo = "owner" + (i % 37) + "/repo-" + i;
+      int owner = IngestionService.ownerOf(repo, 4);
+      assertThat(IngestionService.ownerOf(repo, 4)).isEqualTo(owner);
+      perNode[owner]++;
+
+      int ownerWithFifthNode = IngestionService.ownerOf(repo, 5);
+      if (ownerWithFifthNode != owner) {
+        assertThat(ownerWithFifthNode).isEqualTo(4); // Repositories only move to the new node.
+        moved++;
+      }
+    }
+
+    for (int count : perNode) {
+      assertThat(count).isBetween(850, 1150);
+    }
+    assertThat(moved).isBetween(650, 950); // About a fifth.
+  }
+
+  @Test
+  void syncsOwnedDueRepositoriesOnceEach() throws Exception {
+    List<String> repos = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      repos.add("octo/repo-" + i);
+    }
+    RegisteredUser alice = new RegisteredUser("alice");
+    alice.getRepoFullNames().addAll(repos.subList(0, 12));
+    RegisteredUser bob = new RegisteredUser("bob");
+    bob.getRepoFullNames().addAll(repos.subList(8, 20)); // Overlaps with alice.
+    when(users.findAll()).thenReturn(List.of(alice, bob));
+
+    String fresh = repos.get(0);
+    when(commitStore.findTrackedRepos(any())).thenAnswer(invocation -> {
+      List<TrackedRepo> tracked = new ArrayList<>();
+      for (String fullName : invocation.<Collection<String>>getArgument(0)) {
+        TrackedRepo trackedRepo = new TrackedRepo("octo", fullName.substring("octo/".length()), "main");
+        trackedRepo.setCommitsSyncedAt(fullName.equals(fresh) ? Instant.now() : null);
+        tracked.add(trackedRepo);
+      }
+      return tracked;
+    });
+
+    CountDownLatch release = new CountDownLatch(1);
+    Set<String> synced = ConcurrentHashMap.newKeySet();
+    List<String> calls = new ArrayList<>();
+    when(syncService.sync(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+      String fullName = invocation.getArgument(0) + "/" + invocation.getArgument(1);
+      synchronized (calls) {
+        calls.add(fullName);
+      }
+      release.await(5, TimeUnit.SECONDS);
+      synced.add(fullName);
+      return new SyncService.SyncResult(1, 0);
+    });
+
+    ingestion = new IngestionService(syncService, commitStore, users, registry, true, 60000, 4, 0, 1, 2);
+
+    long expected = repos.stream()
+        .filter(repo -> IngestionService.ownerOf(repo, 2) == 1 && !repo.equals(fresh))
+        .count();
+    assertThat(ingestion.scheduleDueRepos()).isEqualTo((int) expected);
+    assertThat(ingestion.scheduleDueRepos()).isZero(); // Still queued or syncing.
+
+    release.countDown();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (successfulSyncs() < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertThat(synced).hasSize((int) expected)
+        .allMatch(repo -> IngestionService.ownerOf(repo, 2) == 1)
+        .doesNotContain(fresh);
+    assertThat(calls).doesNotHaveDuplicates();
+    assertThat(successfulSyncs()).isEqualTo(expected);
+    assertThat(ingestion.lagSeconds()).containsKeys(synced.toArray(String[]::new));
+  }
+
+  @Test
+  void dropsTheLagGaugesOfRepositoriesNoLongerRegistered() {
+    RegisteredUser alice = new RegisteredUser("alice");
+    alice.getRepoFullNames().addAll(Set.of("octo/app", "octo/lib", "octo/docs"));
+    when(users.findAll()).thenReturn(List.of(alice));
+    when(users.findById("alice")).thenReturn(Optional.of(alice));
+    when(users.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(commitStore.findTrackedRepos(any())).thenAnswer(invocation -> {
+      List<TrackedRepo> tracked = new ArrayList<>();
+      for (String fullName : invocation.<Collection<String>>getArgument(0)) {
+        TrackedRepo trackedRepo = new TrackedRepo("octo", fullName.substring("octo/".length()), "main");
+        trackedRepo.setCommitsSyncedAt(Instant.now());
+        tracked.add(trackedRepo);
+      }
+      return tracked;
+    });
+    ingestion = new IngestionService(syncService, commitStore, users, registry, true, 60000, 1, 0, 0, 1);
+
+    ingestion.scheduleDueRepos();
+    assertThat(registry.find("ingestion.repo.lag").gauges()).hasSize(3);
+
+    // Unregistered through the API: dropped at once.
+    ingestion.unregister("alice", "octo", "app");
+    assertThat(ingestion.lagSeconds()).containsOnlyKeys("octo/lib", "octo/docs");
+    assertThat(registry.find("ingestion.repo.lag").tag("repo", "octo/app").gauge()).isNull();
+
+    // Gone from the registrations otherwise: dropped on the next round.
+    alice.getRepoFullNames().remove("octo/docs");
+    ingestion.scheduleDueRepos();
+    assertThat(ingestion.lagSeconds()).containsOnlyKeys("octo/lib");
+    assertThat(registry.find("ingestion.repo.lag").gauges()).hasSize(1);
+  }
+
+  @Test
+  void refusesToRegisterABranchOtherThanTheMirroredOne() {
+    when(commitStore.track("octo", "app", "dev")).thenReturn(new TrackedRepo("octo", "app", "main"));
+    ingestion = new IngestionService(syncService, commitStore, users, registry, true, 60000, 1, 0, 0, 1);
+
+    assertThatThrownBy(() -> ingestion.register("alice", "octo", "app", "dev"))
+        .isInstanceOfSatisfying(ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    verify(users, never()).save(any());
+  }
+
+  private long successfulSyncs() {
+    return registry.get("ingestion.sync.duration").tag("outcome", "success").timer().count();
+  }
+
+  @Test
+  void doesNothingWhenDisabled() {
+    ingestion = new IngestionService(syncService, commitStore, users, registry, false, 60000, 1, 0, 0, 1);
+
+    assertThat(ingestion.scheduleDueRepos()).isZero();
+  }
+}
@@ -0,0 +1,205 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.entity.RegisteredUser;
+import com.DailyDevlog.dailydevlog.entity.RetrospectiveReport;
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import com.DailyDevlog.dailydevlog.model.ChatCompletion;
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitFile;
+import com.DailyDevlog.dailydevlog.prompt.PromptBuilder;
+import com.DailyDevlog.dailydevlog.repository.RegisteredUserRepository;
+import com.DailyDevlog.dailydevlog.repository.RetrospectiveReportRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetrospectiveServiceTest {
+
+  private static final LocalDate DAY = LocalDate.parse("2025-03-01");
+  private static final String LOGIN_PATCH = "@@ -1,2 +1,2 @@\n class Login {\n-  boolean ok = false;\n+  boolean ok = true;";
+
+  private final IngestionService ingestionService = mock(IngestionService.class);
+  private final CommitStore commitStore = mock(CommitStore.class);
+  private final GitHubService gitHubService = mock(GitHubService.class);
+  private final CommitFanOutService commitFanOutService = mock(CommitFanOutService.class);
+  private final CodeReviewService codeReviewService = mock(CodeReviewService.class);
+  private final RegisteredUserRepository users = mock(RegisteredUserRepository.class);
+  private final RetrospectiveReportRepository reports = mock(RetrospectiveReportRepository.class);
+  private final Map<String, RetrospectiveReport> storedReports = new HashMap<>();
+  private final Map<String, GitHubCommitDetail> details = new HashMap<>();
+
+  private RetrospectiveService retrospectives;
+
+  @BeforeEach
+  void setUp() {
+    when(reports.findById(anyString())).thenAnswer(invocation ->
+        Optional.ofNullable(storedReports.get(invocation.<String>getArgument(0))));
+    when(reports.save(any())).thenAnswer(invocation -> {
+      RetrospectiveReport report = invocation.getArgument(0);
+      storedReports.put(report.getId(), report);
+      return report;
+    });
+    doAnswer(invocation -> {
+      String fullName = invocation.getArgument(0) + "/" + invocation.getArgument(1);
+      Predicate<GitHubCommitDetail> consumer = invocation.getArgument(3);
+      for (String sha : invocation.<List<String>>getArgument(2)) {
+        if (!consumer.test(details.get(fullName + "@" + sha))) {
+          break;
+        }
+      }
+      return null;
+    }).when(commitFanOutService).fetchInOrder(anyString(), anyString(), any(), any());
+
+    when(ingestionService.registeredRepos("alice")).thenReturn(Set.of("octo/app", "alice/app-fork"));
+    when(commitStore.findTrackedRepos(any())).thenReturn(List.of(
+        new TrackedRepo("octo", "app", "main"), new TrackedRepo("alice", "app-fork", "main")));
+
+    // The fork contains the upstream commit a1 and a cherry-pick of it under another SHA.
+    commits("octo/app",
+        commit("b2", "Add logout", "2025-03-01T11:00:00Z", file("src/Logout.java", "@@ -0,0 +1 @@\n+class Logout {}")),
+        commit("a1", "Fix login bug", "2025-03-01T10:00:00Z", file("src/Login.java", LOGIN_PATCH)));
+    commits("alice/app-fork",
+        commit("c3", "Fix login bug", "2025-03-01T12:00:00Z", file("src/Login.java", LOGIN_PATCH)),
+        commit("a1", "Fix login bug", "2025-03-01T10:00:00Z", file("src/Login.java", LOGIN_PATCH)));
+
+    retrospectives = new RetrospectiveService(ingestionService, commitStore, gitHubService, commitFanOutService,
+        new PromptBuilder(3000, 1), codeReviewService, users, reports, new SimpleMeterRegistry(),
+        "UTC", 4, 4, 100, 10000, true, 0, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    retrospectives.shutdown();
+  }
+
+  @Test
+  void mergesTheActivityOfAllRepositoriesIntoOneDeduplicatedPrompt() {
+    when(codeReviewService.complete(anyString())).thenReturn(new ChatCompletion("A productive day.", 100, 20));
+
+    RetrospectiveService.Retrospective retrospective = retrospectives.retrospective("alice", DAY, false);
+
+    ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+    verify(codeReviewService).complete(prompt.capture());
+    assertThat(prompt.getValue())
+        .contains("on 2025-03-01", "octo/app: Add logout", "/src/Logout.java")
+        .containsOnlyOnce("Fix login bug")
+        .containsOnlyOnce("boolean ok = true;");
+    assertThat(retrospective.content()).isEqualTo("A productive day.");
+    assertThat(retrospective.repoCount()).isEqualTo(2);
+    assertThat(retrospective.commitCount()).isEqualTo(3);
+    assertThat(retrospective.stored()).isFalse();
+  }
+
+  @Test
+  void keepsCommitsThatOnlyShareTheirMessage() {
+    when(codeReviewService.complete(anyString())).thenReturn(new ChatCompletion("A productive day.", 100, 20));
+    commits("octo/app",
+        commit("d4", "Fix tests", "2025-03-01T15:00:00Z", file("src/A.java", "@@ -1 +1 @@\n-a\n+b")),
+        commit("e5", "Fix tests", "2025-03-01T14:00:00Z", file("src/B.java", "@@ -1 +1 @@\n-c\n+d")));
+    commits("alice/app-fork",
+        commit("f6", "Fix tests", "2025-03-01T13:00:00Z", file("src/A.java", "@@ -1 +1 @@\n-a\n+b")));
+
+    retrospectives.retrospective("alice", DAY, false);
+
+    ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+    verify(codeReviewService).complete(prompt.capture());
+    assertThat(prompt.getValue().split("octo/app: Fix tests", -1)).hasSize(3);
+    assertThat(prompt.getValue()).containsOnlyOnce("alice/app-fork: Fix tests");
+  }
+
+  @Test
+  void storedReportsAreServedWithoutCollectingAgain() {
+    when(codeReviewService.complete(anyString())).thenReturn(new ChatCompletion("A productive day.", 100, 20));
+
+    retrospectives.retrospective("alice", DAY, false);
+    RetrospectiveService.Retrospective stored = retrospectives.retrospective("alice", DAY, false);
+    assertThat(stored.stored()).isTrue();
+    assertThat(stored.content()).isEqualTo("A productive day.");
+    verify(codeReviewService, times(1)).complete(anyString());
+
+    retrospectives.retrospective("alice", DAY, true);
+    verify(codeReviewService, times(2)).complete(anyString());
+  }
+
+  @Test
+  void reportsGeneratedBeforeTheDayEndedAreGeneratedAgain() {
+    RetrospectiveReport early = new RetrospectiveReport("alice", DAY);
+    early.setContent("Half a day.");
+    early.setGeneratedAt(Instant.parse("2025-03-01T15:00:00Z"));
+    storedReports.put(early.getId(), early);
+    when(codeReviewService.complete(anyString())).thenReturn(new ChatCompletion("The whole day.", 100, 20));
+
+    assertThat(retrospectives.retrospective("alice", DAY, false).content()).isEqualTo("The whole day.");
+    assertThat(storedReports.get(early.getId()).getContent()).isEqualTo("The whole day.");
+  }
+
+  @Test
+  void failsWhenGptIsUnavailableAndNothingIsStored() {
+    when(codeReviewService.complete(anyString()))
+        .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "circuit open"));
+
+    assertThatThrownBy(() -> retrospectives.retrospective("alice", DAY, false))
+        .isInstanceOfSatisfying(ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    assertThat(storedReports).isEmpty();
+  }
+
+  @Test
+  void precomputesEachRegisteredUserOnce() {
+    RegisteredUser alice = new RegisteredUser("alice");
+    alice.getRepoFullNames().addAll(Set.of("octo/app", "alice/app-fork"));
+    when(users.findAll()).thenReturn(List.of(alice, new RegisteredUser("bob")));
+    when(codeReviewService.complete(anyString())).thenReturn(new ChatCompletion("A productive day.", 100, 20));
+
+    assertThat(retrospectives.precompute(DAY)).isEqualTo(1);
+    assertThat(retrospectives.precompute(DAY)).isZero();
+    assertThat(storedReports).containsOnlyKeys("alice@2025-03-01");
+  }
+
+  private void commits(String fullName, GitHubCommitDetail... commits) {
+    String[] parts = fullName.split("/");
+    when(gitHubService.listCommitsBetween(eq(parts[0]), eq(parts[1]), eq("alice"), eq("main"), any(), any(),
+        anyInt())).thenReturn(List.of(commits).stream()
+        .map(detail -> new GitHubCommit(detail.sha(), null, detail.commit(), null))
+        .toList());
+    for (GitHubCommitDetail detail : commits) {
+      details.put(fullName + "@" + detail.sha(), detail);
+    }
+  }
+
+  private static GitHubCommitDetail commit(String sha, String message, String date, GitHubCommitFile file) {
+    GitHubCommit.Signature signature = new GitHubCommit.Signature("Alice", "alice@example.com", date);
+    return new GitHubCommitDetail(sha, new GitHubCommit.CommitInfo(message, signature, signature), null,
+        List.of(file));
+  }
+
+  private static GitHubCommitFile file(String filename, String patch) {
+    return new GitHubCommitFile(filename, "modified", 1, 1, 2, patch);
+  }
+}
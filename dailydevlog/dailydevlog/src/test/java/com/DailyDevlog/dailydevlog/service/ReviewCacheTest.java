@@ -0,0 +1,151 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.entity.ReviewRecord;
+import com.DailyDevlog.dailydevlog.model.ChatCompletion;
+import com.DailyDevlog.dailydevlog.repository.ReviewRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewCacheTest {
+
+  private final ReviewRecordRepository repository = mock(ReviewRecordRepository.class);
+
+  @Test
+  void keyDependsOnEveryPart() {
+    assertThat(ReviewCache.keyOf("gpt", "ab", "c")).isNotEqualTo(ReviewCache.keyOf("gpt", "a", "bc"));
+    assertThat(ReviewCache.keyOf("gpt", "prompt")).isEqualTo(ReviewCache.keyOf("gpt", "prompt")).hasSize(64);
+  }
+
+  @Test
+  void collapsesConcurrentIdenticalRequestsIntoOneCall() throws Exception {
+    ReviewCache cache = new ReviewCache(repository, 10, 1, false, 1000);
+    AtomicInteger upstreamCalls = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService callers = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ChatCompletion>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(callers.submit(() -> {
+          start.await();
+          return cache.getOrCompute("key", () -> {
+            upstreamCalls.incrementAndGet();
+            sleep(200);
+            return new ChatCompletion("review", 100, 50);
+          });
+        }));
+      }
+      start.countDown();
+      for (Future<ChatCompletion> result : results) {
+        assertThat(result.get().content()).isEqualTo("review");
+      }
+    } finally {
+      callers.shutdownNow();
+    }
+
+    assertThat(upstreamCalls.get()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+    assertThat(cache.hitCount()).isEqualTo(7);
+    assertThat(cache.savedTokens()).isEqualTo(7 * 150);
+  }
+
+  @Test
+  void doesNotCacheFailures() {
+    ReviewCache cache = new ReviewCache(repository, 10, 1, false, 1000);
+
+    assertThatThrownBy(() -> cache.getOrCompute("key", () -> {
+      throw new IllegalStateException("upstream down");
+    })).hasMessage("upstream down");
+    assertThat(cache.getOrCompute("key", () -> new ChatCompletion("ok", 1, 1)).content()).isEqualTo("ok");
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedReviews() {
+    ReviewCache cache = new ReviewCache(repository, 2, 1, false, 1000);
+    cache.getOrCompute("a", () -> new ChatCompletion("a", 1, 1));
+    cache.getOrCompute("b", () -> new ChatCompletion("b", 1, 1));
+    cache.peek("a");
+    cache.getOrCompute("c", () -> new ChatCompletion("c", 1, 1));
+
+    assertThat(cache.peek("b")).isNull();
+    assertThat(cache.peek("a")).isNotNull();
+  }
+
+  @Test
+  void persistsReviewsAndReloadsThemAfterRestart() {
+    ReviewCache cache = new ReviewCache(repository, 10, 1, true, 1000);
+    cache.getOrCompute("key", () -> new ChatCompletion("review", 10, 5));
+    verify(repository).save(any(ReviewRecord.class));
+
+    // A new instance starts with an empty memory cache, as after a restart.
+    when(repository.findById("key"))
+        .thenReturn(Optional.of(new ReviewRecord("key", "review", 10, 5, Instant.now())));
+    ReviewCache restarted = new ReviewCache(repository, 10, 1, true, 1000);
+
+    assertThat(restarted.getOrCompute("key", () -> {
+      throw new AssertionError("should not call GPT");
+    }).content()).isEqualTo("review");
+  }
+
+  @Test
+  void expiresReviewsAfterTheirTtl() {
+    when(repository.findById("old"))
+        .thenReturn(Optional.of(new ReviewRecord("old", "stale", 1, 1, Instant.now().minusSeconds(7200))));
+    ReviewCache cache = new ReviewCache(repository, 10, 1, true, 1000);
+
+    assertThat(cache.peek("old")).isNull();
+  }
+
+  @Test
+  void keepsExpiredAndLatestReviewsAsAFallback() {
+    when(repository.findById("old"))
+        .thenReturn(Optional.of(new ReviewRecord("old", "stale", 1, 1, Instant.now().minusSeconds(7200))));
+    ReviewCache cache = new ReviewCache(repository, 10, 1, true, 1000);
+
+    assertThat(cache.peekStale("old").content()).isEqualTo("stale");
+    assertThat(cache.latest("octo/app@main")).isNull();
+
+    cache.putLatest("octo/app@main", new ChatCompletion("first", 1, 1));
+    cache.putLatest("octo/app@main", new ChatCompletion("second", 1, 1));
+    assertThat(cache.latest("octo/app@main").content()).isEqualTo("second");
+    assertThat(cache.latest("octo/app@dev")).isNull();
+  }
+
+  @Test
+  void purgesExpiredReviewsAndTheOldestBeyondTheRowCap() {
+    Instant newestDropped = Instant.parse("2025-03-01T00:00:00Z");
+    when(repository.findCreatedAtNewestFirst(PageRequest.of(1000, 1))).thenReturn(List.of(newestDropped));
+    ReviewCache cache = new ReviewCache(repository, 10, 1, true, 1000);
+
+    cache.purge();
+
+    verify(repository).deleteReviewsCreatedBefore(argThat(cutoff ->
+        cutoff.isBefore(Instant.now().minusSeconds(3500)) && cutoff.isAfter(Instant.now().minusSeconds(3700))));
+    verify(repository).deleteAllCreatedBefore(newestDropped.plusNanos(1));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ReviewJobServiceTest {
+
+  private final AutoReviewService autoReviewService = mock(AutoReviewService.class);
+
+  private ReviewJobService jobs;
+
+  @AfterEach
+  void shutdown() {
+    if (jobs != null) {
+      jobs.shutdown();
+    }
+  }
+
+  @Test
+  void publishesPartialTextAndFinalResult() throws Exception {
+    CountDownLatch firstDelta = new CountDownLatch(1);
+    CountDownLatch resume = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      Consumer<String> onDelta = invocation.getArgument(4);
+      onDelta.accept("Good ");
+      firstDelta.countDown();
+      resume.await(5, TimeUnit.SECONDS);
+      onDelta.accept("habits.");
+      return "Good habits.";
+    }).when(autoReviewService).streamReview(anyString(), anyString(), isNull(), anyString(), any());
+    jobs = new ReviewJobService(autoReviewService, 1, 1, 60, 1000);
+
+    ReviewJobService.JobView submitted = jobs.submit("octo", "app", null, "main");
+    assertThat(submitted.status()).isIn(ReviewJobService.Status.QUEUED, ReviewJobService.Status.RUNNING);
+
+    assertThat(firstDelta.await(5, TimeUnit.SECONDS)).isTrue();
+    ReviewJobService.JobView running = jobs.find(submitted.id()).orElseThrow();
+    assertThat(running.status()).isEqualTo(ReviewJobService.Status.RUNNING);
+    assertThat(running.review()).isEqualTo("Good ");
+
+    resume.countDown();
+    ReviewJobService.JobView done = awaitFinished(submitted.id());
+    assertThat(done.status()).isEqualTo(ReviewJobService.Status.SUCCEEDED);
+    assertThat(done.review()).isEqualTo("Good habits.");
+    assertThat(done.finishedAt()).isNotNull();
+  }
+
+  @Test
+  void recordsFailures() throws Exception {
+    doAnswer(invocation -> {
+      throw new IllegalStateException("GitHub unavailable");
+    }).when(autoReviewService).streamReview(anyString(), anyString(), isNull(), anyString(), any());
+    jobs = new ReviewJobService(autoReviewService, 1, 1, 60, 1000);
+
+    ReviewJobService.JobView done = awaitFinished(jobs.submit("octo", "app", null, "main").id());
+
+    assertThat(done.status()).isEqualTo(ReviewJobService.Status.FAILED);
+    assertThat(done.error()).isEqualTo("GitHub unavailable");
+  }
+
+  @Test
+  void forgetsFinishedJobsOnceTheirRetentionHasPassed() throws Exception {
+    doAnswer(invocation -> "Good habits.")
+        .when(autoReviewService).streamReview(anyString(), anyString(), isNull(), anyString(), any());
+    jobs = new ReviewJobService(autoReviewService, 1, 1, 0, 1000);
+
+    String id = jobs.submit("octo", "app", null, "main").id();
+    awaitFinished(id);
+    Thread.sleep(10);
+    jobs.purgeExpired();
+
+    assertThat(jobs.find(id)).isEmpty();
+  }
+
+  @Test
+  void rejectsSubmissionsWhenTheQueueIsFull() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      started.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return "review";
+    }).when(autoReviewService).streamReview(anyString(), anyString(), isNull(), anyString(), any());
+    jobs = new ReviewJobService(autoReviewService, 1, 1, 60, 1000);
+
+    jobs.submit("octo", "app", null, "main"); // Occupies the only worker.
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    jobs.submit("octo", "app", null, "main"); // Fills the queue.
+
+    try {
+      assertThatThrownBy(() -> jobs.submit("octo", "app", null, "main"))
+          .isInstanceOf(ResponseStatusException.class)
+          .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+              .isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void unknownJobsAreNotFound() {
+    jobs = new ReviewJobService(autoReviewService, 1, 1, 60, 1000);
+
+    assertThat(jobs.find("missing")).isEmpty();
+    assertThat(jobs.subscribe("missing")).isEmpty();
+  }
+
+  private ReviewJobService.JobView awaitFinished(String id) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (System.currentTimeMillis() < deadline) {
+      ReviewJobService.JobView job = jobs.find(id).orElseThrow();
+      if (job.finishedAt() != null) {
+        return job;
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Job " + id + " did not finish");
+  }
+}
@@ -0,0 +1,183 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.entity.CommitFileRecord;
+import com.DailyDevlog.dailydevlog.entity.CommitRecord;
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.model.GitHubCommitDetail;
+import com.DailyDevlog.dailydevlog.repository.CommitFileRecordRepository;
+import com.DailyDevlog.dailydevlog.repository.CommitRecordRepository;
+import com.DailyDevlog.dailydevlog.repository.TrackedRepoRepository;
+import com.DailyDevlog.dailydevlog.search.CommitIndex;
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.DailyDevlog.dailydevlog.support.TestGitHubService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Syncs a repository from a local GitHub stub into the embedded database.
+ */
+@DataJpaTest
+@Import({CommitStore.class, CommitSearchService.class})
+class SyncServiceTest {
+
+  @Autowired
+  private CommitStore commitStore;
+
+  @Autowired
+  private CommitRecordRepository commitRecordRepository;
+
+  @Autowired
+  private CommitFileRecordRepository commitFileRecordRepository;
+
+  @Autowired
+  private TrackedRepoRepository trackedRepoRepository;
+
+  @Autowired
+  private CommitSearchService commitSearchService;
+
+  // Commit SHAs on the stub branch, newest first.
+  private final List<String> history = new CopyOnWriteArrayList<>();
+  private final Set<String> detailRequests = ConcurrentHashMap.newKeySet();
+
+  private StubHttpServer stub;
+  private GitHubService gitHubService;
+  private SyncService syncService;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    stub = StubHttpServer.start(exchange -> {
+      String path = exchange.getRequestURI().getPath();
+      if (path.endsWith("/issues")) {
+        StubHttpServer.respond(exchange, 200, "[{\"id\":1,\"number\":1,\"title\":\"Bug\",\"state\":\"open\","
+            + "\"html_url\":\"https://github.com/o/r/issues/1\",\"updated_at\":\"2024-01-01T00:00:00Z\"}]");
+      } else if (path.endsWith("/commits")) {
+        StubHttpServer.respond(exchange, 200, history.stream().map(SyncServiceTest::commit)
+            .collect(Collectors.joining(",", "[", "]")));
+      } else {
+        String sha = path.substring(path.lastIndexOf('/') + 1);
+        detailRequests.add(sha);
+        StubHttpServer.respond(exchange, 200, "{\"sha\":\"" + sha + "\",\"files\":[{\"filename\":\"A.java\","
+            + "\"additions\":1,\"deletions\":0,\"patch\":\"" + "+ int x = 1;\\n".repeat(200) + "\"}]}");
+      }
+    });
+    gitHubService = TestGitHubService.against(stub).commitStore(commitStore).build();
+    syncService = new SyncService(gitHubService, commitStore, new CommitFanOutService(gitHubService, 4, 4), 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    stub.close();
+  }
+
+  @Test
+  void syncsOnlyWhatIsNewSinceTheWatermark() {
+    history.addAll(List.of("c3", "c2", "c1"));
+    assertThat(syncService.sync("o", "r", "main").newCommits()).isEqualTo(3);
+
+    history.addAll(0, List.of("c5", "c4"));
+    detailRequests.clear();
+    SyncService.SyncResult second = syncService.sync("o", "r", "main");
+
+    assertThat(second.newCommits()).isEqualTo(2);
+    assertThat(detailRequests).containsExactlyInAnyOrder("c5", "c4");
+    assertThat(commitRecordRepository.count()).isEqualTo(5);
+  }
+
+  @Test
+  void refusesToSyncAnotherBranchOfATrackedRepository() {
+    history.addAll(List.of("c1"));
+    syncService.sync("o", "r", "main");
+
+    assertThatThrownBy(() -> syncService.sync("o", "r", "dev"))
+        .isInstanceOfSatisfying(ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+  }
+
+  @Test
+  void servesSyncedCommitsAndCompressedPatchesFromTheStore() {
+    history.addAll(List.of("c2", "c1"));
+    syncService.sync("o", "r", "main");
+    int requestsAfterSync = stub.requestCount();
+
+    assertThat(gitHubService.listCommits("o", "r", null, "main")).extracting(GitHubCommit::sha).containsExactly("c2", "c1");
+    GitHubCommitDetail detail = gitHubService.getCommitChanges("o", "r", "c1");
+    assertThat(detail.files().get(0).patch()).startsWith("+ int x = 1;");
+    assertThat(stub.requestCount()).isEqualTo(requestsAfterSync);
+
+    CommitFileRecord file = commitFileRecordRepository
+        .findByCommitIdOrderByPositionAsc(CommitRecord.key("o/r", "c1")).get(0);
+    assertThat(file.getStoredPatchSize()).isLessThan(file.getPatch().length() / 10);
+  }
+
+  @Test
+  void servesACommitWindowFromTheStoreOnlyIfItEndedBeforeTheSync() {
+    history.addAll(List.of("c2", "c1"));
+    syncService.sync("o", "r", "main");
+    int requestsAfterSync = stub.requestCount();
+    Instant since = Instant.parse("2024-01-01T00:00:00Z");
+
+    assertThat(gitHubService.listCommitsBetween("o", "r", "alice", "main", since,
+        Instant.parse("2024-01-03T00:00:00Z"), 10)).extracting(GitHubCommit::sha).containsExactly("c2", "c1");
+    assertThat(stub.requestCount()).isEqualTo(requestsAfterSync);
+
+    // A window that has not ended yet may still gain commits, however recently the branch was synced.
+    gitHubService.listCommitsBetween("o", "r", "alice", "main", since, Instant.now().plus(Duration.ofDays(1)), 10);
+    assertThat(stub.requestCount()).isGreaterThan(requestsAfterSync);
+  }
+
+  @Test
+  void syncedCommitsAreSearchableFromTheIndexAndAfterReloadingIt() {
+    history.addAll(List.of("c3", "c2", "c1"));
+    syncService.sync("o", "r", "main");
+
+    assertThat(commitSearchService.search("o", "r", "commit path:a.java", null, null, 10).orElseThrow())
+        .extracting(CommitIndex.Hit::sha).containsExactly("c3", "c2", "c1");
+
+    // A new instance starts empty and builds its index from the store.
+    CommitSearchService reloaded = new CommitSearchService(
+        trackedRepoRepository, commitRecordRepository, commitFileRecordRepository, 500);
+    assertThat(reloaded.search("o", "r", "2|3 path:a.java", null, null, 10).orElseThrow())
+        .extracting(CommitIndex.Hit::subject).containsExactly("commit 3", "commit 2");
+    assertThat(reloaded.search("o", "other", "commit", null, null, 10)).isEmpty();
+
+    // Commits synced through another instance are caught up by the next search.
+    history.addAll(0, List.of("c5", "c4"));
+    syncService.sync("o", "r", "main");
+    assertThat(reloaded.search("o", "r", "commit path:a.java", null, null, 10).orElseThrow())
+        .extracting(CommitIndex.Hit::sha).containsExactly("c5", "c4", "c3", "c2", "c1");
+
+    // So are commits stored later with older dates, e.g. those of a merged branch.
+    GitHubCommit.Signature merged = new GitHubCommit.Signature("Bob", null, "2023-12-31T00:00:00Z");
+    commitStore.saveCommits("o/r", List.of(new GitHubCommit("c0", null,
+        new GitHubCommit.CommitInfo("commit 0", merged, merged), null)));
+    TrackedRepo trackedRepo = trackedRepoRepository.findById("o/r").orElseThrow();
+    trackedRepo.setCommitsSyncedAt(Instant.now().plusSeconds(1));
+    commitStore.saveWatermark(trackedRepo);
+    assertThat(reloaded.search("o", "r", "commit", null, null, 10).orElseThrow())
+        .extracting(CommitIndex.Hit::sha).contains("c0");
+  }
+
+  private static String commit(String sha) {
+    int n = Integer.parseInt(sha.substring(1));
+    return "{\"sha\":\"" + sha + "\",\"commit\":{\"message\":\"commit " + n + "\","
+        + "\"committer\":{\"date\":\"2024-01-0" + n + "T00:00:00Z\"}},\"author\":{\"login\":\"alice\"}}";
+  }
+}
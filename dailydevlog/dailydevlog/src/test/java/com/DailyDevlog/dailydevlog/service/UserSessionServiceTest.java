@@ -0,0 +1,123 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.client.GitHubRateLimiter;
+import com.DailyDevlog.dailydevlog.service.UserSessionService.UserSession;
+import com.DailyDevlog.dailydevlog.support.StubHttpServer;
+import com.DailyDevlog.dailydevlog.support.TestGitHubService;
+import com.sun.net.httpserver.HttpExchange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Resolves tokens against a stub GitHub that answers conditional requests, and counts the calls that reach it.
+ */
+class UserSessionServiceTest {
+
+  private static final String PROFILE = "{\"login\":\"octocat\",\"id\":583231}";
+  private static final String ETAG = "\"profile-v1\"";
+
+  private final AtomicInteger notModified = new AtomicInteger();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private GitHubService gitHubService;
+
+  @AfterEach
+  void tearDown() {
+    if (gitHubService != null) {
+      gitHubService.shutdown();
+    }
+  }
+
+  @Test
+  void freshSessionsAreServedWithoutCallingGitHub() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(this::handle)) {
+      UserSessionService sessions = sessions(stub, 10, 300);
+
+      UserSession first = sessions.resolve("Bearer token-a");
+      UserSession second = sessions.resolve("Bearer token-a");
+
+      assertThat(first.login()).isEqualTo("octocat");
+      assertThat(first.id()).isEqualTo(583231);
+      assertThat(first.scope()).isEqualTo(GitHubRateLimiter.quotaKey("Bearer token-a")).doesNotContain("token-a");
+      assertThat(second).isSameAs(first);
+      assertThat(stub.requestCount()).isEqualTo(1);
+      assertThat(registry.get("github.session.lookups").tag("outcome", "hit").functionCounter().count()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void expiredSessionsAreRevalidatedWithTheirEtag() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(this::handle)) {
+      UserSessionService sessions = sessions(stub, 10, 0);
+
+      UserSession first = sessions.resolve("Bearer token-a");
+      UserSession second = sessions.resolve("Bearer token-a");
+
+      assertThat(second).isSameAs(first);
+      assertThat(stub.requestCount()).isEqualTo(2);
+      assertThat(notModified.get()).isEqualTo(1);
+      assertThat(registry.get("github.session.lookups").tag("outcome", "revalidated").functionCounter().count())
+          .isEqualTo(1);
+    }
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedSession() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(this::handle)) {
+      UserSessionService sessions = sessions(stub, 2, 300);
+
+      sessions.resolve("Bearer token-a");
+      sessions.resolve("Bearer token-b");
+      sessions.resolve("Bearer token-a");
+      sessions.resolve("Bearer token-c");
+      assertThat(sessions.size()).isEqualTo(2);
+      assertThat(stub.requestCount()).isEqualTo(3);
+
+      sessions.resolve("Bearer token-a");
+      assertThat(stub.requestCount()).isEqualTo(3);
+      sessions.resolve("Bearer token-b");
+      assertThat(stub.requestCount()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  void rejectedTokensAreNotCached() throws Exception {
+    try (StubHttpServer stub = StubHttpServer.start(exchange -> StubHttpServer.respond(exchange, 401,
+        "{\"message\":\"Bad credentials\"}"))) {
+      UserSessionService sessions = sessions(stub, 10, 300);
+
+      assertThatThrownBy(() -> sessions.resolve("Bearer revoked"))
+          .isInstanceOfSatisfying(ResponseStatusException.class,
+              e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+      assertThatThrownBy(() -> sessions.resolve(null)).isInstanceOf(ResponseStatusException.class);
+      assertThat(sessions.size()).isZero();
+    }
+  }
+
+  private UserSessionService sessions(StubHttpServer stub, int maxEntries, long ttlSeconds) {
+    gitHubService = TestGitHubService.against(stub).build();
+    UserSessionService sessions = new UserSessionService(gitHubService, maxEntries, ttlSeconds);
+    sessions.bindTo(registry);
+    return sessions;
+  }
+
+  // Answers like GitHub: 304 when the client already holds the current ETag, the profile otherwise.
+  private void handle(HttpExchange exchange) throws IOException {
+    if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+      notModified.incrementAndGet();
+      exchange.getResponseHeaders().set("ETag", ETAG);
+      exchange.sendResponseHeaders(304, -1);
+      return;
+    }
+    exchange.getResponseHeaders().set("ETag", ETAG);
+    StubHttpServer.respond(exchange, 200, PROFILE);
+  }
+}
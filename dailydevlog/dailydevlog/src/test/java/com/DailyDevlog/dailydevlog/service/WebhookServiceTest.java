@@ -0,0 +1,176 @@
+package com.DailyDevlog.dailydevlog.service;
+
+import com.DailyDevlog.dailydevlog.client.GitHubResponseCache;
+import com.DailyDevlog.dailydevlog.client.GitHubResponseCache.CachedResponse;
+import com.DailyDevlog.dailydevlog.entity.TrackedRepo;
+import com.DailyDevlog.dailydevlog.model.GitHubCommit;
+import com.DailyDevlog.dailydevlog.repository.IssueRecordRepository;
+import com.DailyDevlog.dailydevlog.repository.TrackedRepoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Posts recorded webhook payloads and checks what ends up in the embedded database and the response cache.
+ */
+@DataJpaTest
+@Import({CommitStore.class, CommitSearchService.class})
+class WebhookServiceTest {
+
+  private static final String SECRET = "It's a Secret to Everybody";
+  private static final String BEFORE = "1197955e4244c18bdb9b375076bcb6ca05414672";
+  private static final String AFTER = "8d2f6b1c0a7e44c5b0f3e6a9d1c2b3a4f5e6d7c8";
+
+  @Autowired
+  private CommitStore commitStore;
+
+  @Autowired
+  private TrackedRepoRepository trackedRepoRepository;
+
+  @Autowired
+  private IssueRecordRepository issueRecordRepository;
+
+  private final GitHubResponseCache responseCache = new GitHubResponseCache(1 << 20);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private WebhookService webhookService;
+
+  @BeforeEach
+  void setUp() {
+    webhookService = new WebhookService(commitStore, responseCache, registry, SECRET, 10, 100);
+  }
+
+  @AfterEach
+  void tearDown() {
+    webhookService.shutdown();
+  }
+
+  @Test
+  void verifiesTheHmacSignatureOfTheRawBody() throws Exception {
+    byte[] payload = fixture("webhook-push.json");
+
+    assertThat(webhookService.isSignatureValid(payload, sign(payload, SECRET))).isTrue();
+    assertThat(webhookService.isSignatureValid(payload, sign(payload, "wrong secret"))).isFalse();
+    assertThat(webhookService.isSignatureValid(" ".getBytes(StandardCharsets.UTF_8), sign(payload, SECRET))).isFalse();
+    assertThat(webhookService.isSignatureValid(payload, "sha256=not-hex")).isFalse();
+    assertThat(webhookService.isSignatureValid(payload, null)).isFalse();
+
+    WebhookService withoutSecret = new WebhookService(commitStore, responseCache, registry, "", 10, 100);
+    assertThat(withoutSecret.isSignatureValid(payload, sign(payload, SECRET))).isFalse();
+    withoutSecret.shutdown();
+  }
+
+  @Test
+  void acceptsEachDeliveryOnceAndIgnoresUnhandledEvents() throws Exception {
+    byte[] payload = fixture("webhook-push.json");
+
+    assertThat(webhookService.accept("delivery-1", "push", payload)).isEqualTo(WebhookService.Outcome.ACCEPTED);
+    assertThat(webhookService.accept("delivery-1", "push", payload)).isEqualTo(WebhookService.Outcome.DUPLICATE);
+    assertThat(webhookService.accept("delivery-2", "ping", payload)).isEqualTo(WebhookService.Outcome.IGNORED);
+    assertThat(registry.get("github.webhook.events").tag("outcome", "duplicate").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void deliveriesThatFailedToProcessAreAcceptedAgain() throws Exception {
+    byte[] malformed = "{\"ref\":".getBytes(StandardCharsets.UTF_8);
+
+    assertThat(webhookService.accept("delivery-1", "push", malformed)).isEqualTo(WebhookService.Outcome.ACCEPTED);
+    long deadline = System.currentTimeMillis() + 5000;
+    while (registry.find("github.webhook.events").tag("outcome", "failed").counter() == null
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertThat(webhookService.accept("delivery-1", "push", fixture("webhook-push.json")))
+        .isEqualTo(WebhookService.Outcome.ACCEPTED);
+  }
+
+  @Test
+  void pushContinuingTheStoredHistoryKeepsTheStoreFresh() throws Exception {
+    track(BEFORE);
+    String listingKey = "https://api.github.com/repos/octocat/hello-world/commits?per_page=30&sha=main";
+    String detailKey = "https://api.github.com/repos/octocat/hello-world/commits/" + BEFORE;
+    responseCache.put(listingKey, new CachedResponse(new byte[10], "\"etag\"", null, null, false));
+    responseCache.put(detailKey, new CachedResponse(new byte[10], null, null, null, true));
+
+    webhookService.process("delivery-1", "push", fixture("webhook-push.json"));
+
+    TrackedRepo trackedRepo = trackedRepoRepository.findById("octocat/hello-world").orElseThrow();
+    assertThat(trackedRepo.getLastCommitSha()).isEqualTo(AFTER);
+    assertThat(trackedRepo.getLastCommitDate()).isEqualTo(Instant.parse("2025-03-01T01:42:30Z"));
+    assertThat(trackedRepo.getCommitsSyncedAt()).isNotNull();
+
+    List<GitHubCommit> commits = commitStore.findFreshCommits("octocat", "hello-world", null, "main", 10).orElseThrow();
+    assertThat(commits).extracting(GitHubCommit::sha).containsExactly(AFTER, "3a9c1f0e5b7d4c2a8e6f1b3d5c7a9e0f2b4d6c8a");
+    assertThat(commits.get(1).author().login()).isEqualTo("hyunjin-dev");
+
+    assertThat(responseCache.get(listingKey)).isNull();
+    assertThat(responseCache.get(detailKey)).isNotNull();
+  }
+
+  @Test
+  void pushAfterMissedDeliveriesMarksTheStoreStale() throws Exception {
+    track("0000000000000000000000000000000000000000");
+
+    webhookService.process("delivery-1", "push", fixture("webhook-push.json"));
+
+    assertThat(trackedRepoRepository.findById("octocat/hello-world").orElseThrow().getCommitsSyncedAt()).isNull();
+    assertThat(commitStore.findFreshCommits("octocat", "hello-world", null, "main", 10)).isEmpty();
+  }
+
+  @Test
+  void issueEventsInsertAndDeleteStoredIssues() throws Exception {
+    track(BEFORE);
+    String opened = new String(fixture("webhook-issues.json"), StandardCharsets.UTF_8);
+
+    webhookService.process("delivery-1", "issues", opened.getBytes(StandardCharsets.UTF_8));
+    assertThat(issueRecordRepository.findById(2871003342L)).get()
+        .satisfies(issue -> assertThat(issue.getTitle()).isEqualTo("Auto code review times out on large repositories"));
+
+    String deleted = opened.replace("\"action\": \"opened\"", "\"action\": \"deleted\"");
+    webhookService.process("delivery-2", "issues", deleted.getBytes(StandardCharsets.UTF_8));
+    assertThat(issueRecordRepository.findById(2871003342L)).isEmpty();
+  }
+
+  @Test
+  void eventsOfUntrackedRepositoriesAreNotStored() throws Exception {
+    webhookService.process("delivery-1", "push", fixture("webhook-push.json"));
+    webhookService.process("delivery-2", "issues", fixture("webhook-issues.json"));
+
+    assertThat(trackedRepoRepository.count()).isZero();
+    assertThat(issueRecordRepository.count()).isZero();
+  }
+
+  private void track(String lastCommitSha) {
+    TrackedRepo trackedRepo = commitStore.track("octocat", "hello-world", "main");
+    trackedRepo.setLastCommitSha(lastCommitSha);
+    trackedRepo.setCommitsSyncedAt(Instant.now());
+    commitStore.saveWatermark(trackedRepo);
+  }
+
+  private static String sign(byte[] payload, String secret) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+  }
+
+  private static byte[] fixture(String name) throws IOException {
+    try (InputStream in = WebhookServiceTest.class.getResourceAsStream("/fixtures/github/" + name)) {
+      return in.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.DailyDevlog.dailydevlog.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal local HTTP server standing in for GitHub or OpenAI in tests.
+ * Every request is delayed by a configurable latency before the handler runs.
+ */
+public final class StubHttpServer implements AutoCloseable {
+
+  @FunctionalInterface
+  public interface Handler {
+    void handle(HttpExchange exchange) throws IOException;
+  }
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private volatile long latencyMillis;
+
+  private StubHttpServer(Handler handler) throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", exchange -> {
+      requestCount.incrementAndGet();
+      try {
+        if (latencyMillis > 0) {
+          Thread.sleep(latencyMillis);
+        }
+        handler.handle(exchange);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        exchange.close();
+      }
+    });
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  public static StubHttpServer start(Handler handler) throws IOException {
+    return new StubHttpServer(handler);
+  }
+
+  public String url() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  public void setLatencyMillis(long latencyMillis) {
+    this.latencyMillis = latencyMillis;
+  }
+
+  public int requestCount() {
+    return requestCount.get();
+  }
+
+  public static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    if (bytes.length > 0) {
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
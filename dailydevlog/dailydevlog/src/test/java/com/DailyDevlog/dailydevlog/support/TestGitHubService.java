@@ -0,0 +1,68 @@
+package com.DailyDevlog.dailydevlog.support;
+
+import com.DailyDevlog.dailydevlog.client.GitHubRateLimiter;
+import com.DailyDevlog.dailydevlog.client.GitHubResponseCache;
+import com.DailyDevlog.dailydevlog.client.OutboundMetrics;
+import com.DailyDevlog.dailydevlog.service.CommitStore;
+import com.DailyDevlog.dailydevlog.service.GitHubService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.web.client.RestTemplate;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Builds a GitHubService pointed at a {@link StubHttpServer}, with test defaults for every collaborator:
+ * a 1 MiB response cache, a mocked commit store, a permissive rate limiter, no app token
+ * and an upstream pool of 16 threads with 64 queued calls.
+ * Tests override only the collaborators they look at.
+ */
+public final class TestGitHubService {
+
+  private final String apiUrl;
+  private GitHubResponseCache responseCache = new GitHubResponseCache(1 << 20);
+  private CommitStore commitStore = mock(CommitStore.class);
+  private GitHubRateLimiter rateLimiter = new GitHubRateLimiter(0.5, 0.1, 30000, 900000, 3, 1000);
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private int upstreamPoolSize = 16;
+  private int upstreamQueueCapacity = 64;
+
+  private TestGitHubService(String apiUrl) {
+    this.apiUrl = apiUrl;
+  }
+
+  public static TestGitHubService against(StubHttpServer stub) {
+    return new TestGitHubService(stub.url());
+  }
+
+  public TestGitHubService responseCache(GitHubResponseCache responseCache) {
+    this.responseCache = responseCache;
+    return this;
+  }
+
+  public TestGitHubService commitStore(CommitStore commitStore) {
+    this.commitStore = commitStore;
+    return this;
+  }
+
+  public TestGitHubService rateLimiter(GitHubRateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+    return this;
+  }
+
+  public TestGitHubService meterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    return this;
+  }
+
+  public TestGitHubService upstreamPool(int poolSize, int queueCapacity) {
+    this.upstreamPoolSize = poolSize;
+    this.upstreamQueueCapacity = queueCapacity;
+    return this;
+  }
+
+  public GitHubService build() {
+    return new GitHubService(apiUrl, new RestTemplate(), responseCache, commitStore, rateLimiter,
+        new OutboundMetrics(meterRegistry), "", upstreamPoolSize, upstreamQueueCapacity);
+  }
+}